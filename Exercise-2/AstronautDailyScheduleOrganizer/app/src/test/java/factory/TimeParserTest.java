@@ -0,0 +1,55 @@
+package factory;
+
+import exceptions.InvalidTimeFormatException;
+import model.Task;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeParserTest {
+
+    @Test
+    void parsesMinutesAndSeconds() {
+        assertEquals(7 * 3600, TimeParser.parseSecondOfDay("07:00"));
+        assertEquals(23 * 3600 + 59 * 60 + 59, TimeParser.parseSecondOfDay("23:59:59"));
+        assertEquals(LocalTime.of(9, 30), TimeParser.parse("  09:30\t"));
+        assertEquals(LocalTime.of(9, 30, 15), TimeParser.parse("09:30:15"));
+    }
+
+    @Test
+    void rejectsEverythingElse() {
+        for (String bad : Arrays.asList(null, "", "7:00", "24:00", "12:60", "12:00:60", "12-00", "ab:cd", "12:00:",
+                "12:00:0x", "+1:00", "1200")) {
+            assertEquals(TimeParser.INVALID, TimeParser.parseSecondOfDay(bad), String.valueOf(bad));
+            assertNull(TimeParser.parse(bad), String.valueOf(bad));
+        }
+    }
+
+    @Test
+    void wholeMinutesAreShared() {
+        assertSame(TimeParser.parse("08:15"), TimeParser.parse("08:15"));
+        assertEquals(LocalTime.of(8, 15, 1), TimeParser.toLocalTime(8 * 3600 + 15 * 60 + 1));
+    }
+
+    @Test
+    void factoryReportsBadTimesAndOrder() {
+        InvalidTimeFormatException e = assertThrows(InvalidTimeFormatException.class,
+                () -> TaskFactory.createTask("A", "9:00", "10:00", "High"));
+        assertTrue(e.getMessage().startsWith("Invalid time format"));
+        e = assertThrows(InvalidTimeFormatException.class, () -> TaskFactory.createTask("A", "10:00", "10:00", "High"));
+        assertEquals("Start time must be before end time.", e.getMessage());
+    }
+
+    @Test
+    void batchKeepsGoodRowsAndReportsBadOnes() {
+        TaskBatch batch = TaskFactory.createTasks(List.of(new TaskRow("A", "08:00", "09:00", "Low"),
+                new TaskRow(" ", "08:00", "09:00", "Low"), new TaskRow("C", "10:00", "09:00", "Low"),
+                new TaskRow("D", "10:00", "11:00:30", "High")));
+        assertEquals(List.of("A", "D"), batch.tasks().stream().map(Task::getDescription).toList());
+        assertEquals(List.of(1, 2), batch.errors().stream().map(TaskBatch.RowError::index).toList());
+    }
+}
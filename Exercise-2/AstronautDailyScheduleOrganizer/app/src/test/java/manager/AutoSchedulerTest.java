@@ -0,0 +1,83 @@
+package manager;
+
+import model.FlexibleTask;
+import model.Priority;
+import model.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AutoSchedulerTest {
+    private final AutoScheduler scheduler = new AutoScheduler();
+    private ScheduleManager schedule;
+
+    @BeforeEach
+    void setUp() {
+        schedule = new ScheduleManager(null, new RecurrenceRules(), new ResourceIndex());
+    }
+
+    // one-hour LOW tasks back to back from 08:00
+    private void fillWithLowTasks(int hours) throws Exception {
+        for (int i = 0; i < hours; i++) {
+            schedule.addTask(new Task("Low " + i, LocalTime.of(8 + i, 0), LocalTime.of(9 + i, 0), Priority.LOW));
+        }
+    }
+
+    private static FlexibleTask medium(int hours) {
+        return new FlexibleTask("Medium", Duration.ofHours(hours), LocalTime.of(8, 0), LocalTime.of(8 + hours, 0),
+                Priority.MEDIUM);
+    }
+
+    @Test
+    void placesAtTheEarliestFreeTimeInTheWindow() throws Exception {
+        schedule.addTask(new Task("Busy", LocalTime.of(8, 0), LocalTime.of(9, 30), Priority.HIGH));
+        AutoScheduler.Result r = scheduler.schedule(schedule, List.of(new FlexibleTask("Check",
+                Duration.ofMinutes(30), LocalTime.of(8, 0), LocalTime.of(12, 0), Priority.LOW)), false);
+        assertEquals(LocalTime.of(9, 30), r.placed().get(0).getStart());
+        assertEquals(2, schedule.viewAllTasks().size());
+    }
+
+    @Test
+    void bumpsLowTasksWorthLessThanTheRequest() throws Exception {
+        fillWithLowTasks(9);
+        AutoScheduler.Result r = scheduler.schedule(schedule, List.of(medium(9)), true);
+        assertEquals(1, r.placed().size());
+        // the rest of the day is free, so every displaced task is moved rather than dropped
+        assertEquals(9, r.moved().size());
+        assertTrue(r.bumped().isEmpty());
+        assertEquals(10, schedule.viewAllTasks().size());
+    }
+
+    @Test
+    void doesNotBumpLowTasksWorthAsMuchAsTheRequest() throws Exception {
+        fillWithLowTasks(10);
+        AutoScheduler.Result r = scheduler.plan(schedule, List.of(medium(10)), true);
+        assertTrue(r.placed().isEmpty());
+        assertTrue(r.moved().isEmpty());
+        assertEquals(1, r.unplaced().size());
+    }
+
+    @Test
+    void neverBumpsTasksThatBookSharedResources() throws Exception {
+        ScheduleRegistry registry = new ScheduleRegistry();
+        LocalDate date = LocalDate.of(2026, 10, 19);
+        ScheduleManager alice = registry.partition("alice", date);
+        ScheduleManager bob = registry.partition("bob", date);
+        // moving Alice's suit check to the start of the day would double-book the airlock
+        bob.addTask(new Task("Bob EVA", LocalTime.MIDNIGHT, LocalTime.of(1, 0), Priority.HIGH, List.of("Airlock")));
+        alice.addTask(new Task("Suit check", LocalTime.of(8, 0), LocalTime.of(9, 0), Priority.LOW, List.of("Airlock")));
+
+        AutoScheduler.Result r = scheduler.schedule(alice, List.of(medium(1),
+                FlexibleTask.anytime("Stretch", Duration.ofMinutes(30), Priority.LOW)), true);
+        assertEquals(List.of("Stretch"), r.placed().stream().map(Task::getDescription).toList());
+        assertEquals(List.of("Medium"), r.unplaced().stream().map(FlexibleTask::description).toList());
+        assertTrue(r.moved().isEmpty());
+        assertEquals(LocalTime.of(8, 0), alice.viewAllTasks().get(1).getStart());
+    }
+}
@@ -0,0 +1,97 @@
+package manager;
+
+import exceptions.TaskConflictException;
+import exceptions.TaskNotFoundException;
+import model.Priority;
+import model.Task;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactScheduleTest {
+    private final CompactSchedule schedule = new CompactSchedule();
+
+    private List<String> descriptions() {
+        return schedule.viewAllTasks().stream().map(Task::getDescription).toList();
+    }
+
+    @Test
+    void keepsTasksInStartOrderAndRejectsConflicts() throws Exception {
+        schedule.add("Lunch", LocalTime.of(12, 0), LocalTime.of(13, 0), Priority.LOW, false);
+        schedule.add("Breakfast", LocalTime.of(7, 0), LocalTime.of(7, 30), Priority.LOW, false);
+        schedule.add("Gap", LocalTime.of(7, 30), LocalTime.of(12, 0), Priority.HIGH, false);
+        assertThrows(TaskConflictException.class,
+                () -> schedule.add("Late", LocalTime.of(12, 30), LocalTime.of(14, 0), Priority.LOW, false));
+        assertThrows(TaskConflictException.class,
+                () -> schedule.add("  LUNCH ", LocalTime.of(20, 0), LocalTime.of(21, 0), Priority.LOW, false));
+        assertEquals(List.of("Breakfast", "Gap", "Lunch"), descriptions());
+        assertEquals(List.of("Gap"), schedule.getTasksByPriority(Priority.HIGH).stream()
+                .map(Task::getDescription).toList());
+        assertEquals("Gap", schedule.tasksActiveAt(LocalTime.of(11, 59)).get(0).getDescription());
+    }
+
+    @Test
+    void readsReturnTheSameTaskEveryTime() throws Exception {
+        Task eva = new Task("EVA", LocalTime.of(9, 0), LocalTime.of(12, 0), Priority.HIGH);
+        schedule.addTask(eva);
+        schedule.markCompleted("eva");
+        Task read = schedule.viewAllTasks().get(0);
+        assertEquals(eva, read);
+        assertEquals(eva.getId(), read.getId());
+        assertTrue(read.isCompleted());
+        assertEquals(read, schedule.viewAllTasks().get(0));
+    }
+
+    @Test
+    void rejectsMissingEmptyAndReversedIntervals() {
+        assertThrows(NullPointerException.class,
+                () -> schedule.add("A", null, LocalTime.of(9, 0), Priority.LOW, false));
+        assertThrows(IllegalArgumentException.class,
+                () -> schedule.add("A", LocalTime.of(9, 0), LocalTime.of(8, 0), Priority.LOW, false));
+        // the same second once truncated
+        assertThrows(IllegalArgumentException.class,
+                () -> schedule.add("A", LocalTime.of(9, 0), LocalTime.of(9, 0, 0, 500_000_000), Priority.LOW, false));
+        assertTrue(schedule.isEmpty());
+    }
+
+    @Test
+    void endOfDayRoundTrips() throws Exception {
+        schedule.add("Sleep", LocalTime.of(22, 0), LocalTime.MAX, Priority.MEDIUM, false);
+        assertEquals(LocalTime.MAX, schedule.viewAllTasks().get(0).getEnd());
+        assertThrows(TaskConflictException.class,
+                () -> schedule.add("Late", LocalTime.of(23, 59, 59), LocalTime.MAX, Priority.LOW, false));
+    }
+
+    @Test
+    void editAndRemoveKeepTheOrder() throws Exception {
+        schedule.add("A", LocalTime.of(8, 0), LocalTime.of(9, 0), Priority.LOW, false);
+        schedule.add("B", LocalTime.of(10, 0), LocalTime.of(11, 0), Priority.LOW, false);
+        schedule.editTask("a", LocalTime.of(11, 0), LocalTime.of(12, 0), Priority.HIGH);
+        assertEquals(List.of("B", "A"), descriptions());
+        assertThrows(IllegalArgumentException.class,
+                () -> schedule.editTask("A", LocalTime.of(13, 0), LocalTime.of(12, 0), Priority.HIGH));
+        assertThrows(TaskConflictException.class,
+                () -> schedule.editTask("A", LocalTime.of(10, 30), LocalTime.of(11, 30), Priority.HIGH));
+        schedule.removeTaskByDescription("B");
+        assertEquals(List.of("A"), descriptions());
+        assertThrows(TaskNotFoundException.class, () -> schedule.removeTaskByDescription("B"));
+    }
+
+    @Test
+    void findsEveryNameAfterTheIndexGrows() throws Exception {
+        for (int i = 0; i < 1000; i++) {
+            schedule.add("Task " + i, LocalTime.ofSecondOfDay(i * 60L), LocalTime.ofSecondOfDay(i * 60L + 30),
+                    Priority.LOW, false);
+        }
+        for (int i = 0; i < 1000; i += 2) schedule.removeTaskByDescription("TASK " + i);
+        for (int i = 1; i < 1000; i += 2) schedule.markCompleted("task " + i);
+        assertEquals(500, schedule.size());
+        assertTrue(schedule.viewAllTasks().stream().allMatch(Task::isCompleted));
+        // removed names can be used again
+        schedule.add("Task 0", LocalTime.of(0, 0), LocalTime.of(0, 1), Priority.LOW, false);
+        assertEquals(501, schedule.size());
+    }
+}
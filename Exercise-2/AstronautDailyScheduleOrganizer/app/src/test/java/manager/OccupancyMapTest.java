@@ -0,0 +1,91 @@
+package manager;
+
+import model.MissionDays;
+import model.Priority;
+import model.RecurringTask;
+import model.Task;
+import model.TimeSlot;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OccupancyMapTest {
+    private final OccupancyMap map = new OccupancyMap();
+
+    private static TimeSlot slot(int fromHour, int fromMinute, int toHour, int toMinute) {
+        return new TimeSlot(LocalTime.of(fromHour, fromMinute), LocalTime.of(toHour, toMinute));
+    }
+
+    @Test
+    void freeSlotsAreTheGapsBetweenTasks() {
+        map.occupy(LocalTime.of(9, 0), LocalTime.of(10, 0));
+        map.occupy(LocalTime.of(10, 30), LocalTime.of(12, 0));
+        assertEquals(List.of(slot(8, 0, 9, 0), slot(10, 0, 10, 30), slot(12, 0, 13, 0)),
+                map.freeSlots(Duration.ofMinutes(30), LocalTime.of(8, 0), LocalTime.of(13, 0)));
+        // the 30-minute gap is too short for an hour
+        assertEquals(List.of(slot(8, 0, 9, 0), slot(12, 0, 13, 0)),
+                map.freeSlots(Duration.ofHours(1), LocalTime.of(8, 0), LocalTime.of(13, 0)));
+    }
+
+    @Test
+    void partlyUsedMinutesAreOccupied() {
+        map.occupy(LocalTime.of(9, 0, 30), LocalTime.of(9, 10, 1));
+        assertEquals(List.of(slot(8, 0, 9, 0), slot(9, 11, 10, 0)),
+                map.freeSlots(Duration.ofMinutes(1), LocalTime.of(8, 0), LocalTime.of(10, 0)));
+    }
+
+    @Test
+    void aMinuteStaysTakenUntilEveryTaskOnItIsReleased() {
+        map.occupy(LocalTime.of(9, 0), LocalTime.of(9, 30, 30));
+        map.occupy(LocalTime.of(9, 30, 30), LocalTime.of(10, 0));
+        map.release(LocalTime.of(9, 0), LocalTime.of(9, 30, 30));
+        assertEquals(List.of(slot(9, 0, 9, 30)),
+                map.freeSlots(Duration.ofMinutes(1), LocalTime.of(9, 0), LocalTime.of(10, 0)));
+    }
+
+    @Test
+    void endOfDayIsMidnight() {
+        map.occupy(LocalTime.MIDNIGHT, LocalTime.of(23, 0));
+        assertEquals(List.of(new TimeSlot(LocalTime.of(23, 0), LocalTime.MAX)),
+                map.freeSlots(Duration.ofHours(1), LocalTime.MIDNIGHT, LocalTime.MAX));
+        assertEquals(new TimeSlot(LocalTime.of(23, 0), LocalTime.MAX),
+                map.nextAvailable(Duration.ofHours(1), LocalTime.of(1, 0)));
+        assertNull(map.nextAvailable(Duration.ofMinutes(61), LocalTime.MIDNIGHT));
+    }
+
+    @Test
+    void firstFitSpansWordBoundaries() {
+        // minute 64 is the first bit of the second word
+        map.occupy(LocalTime.MIDNIGHT, LocalTime.of(1, 3));
+        map.occupy(LocalTime.of(1, 6), LocalTime.of(2, 0));
+        assertEquals(slot(1, 3, 1, 5), map.firstFit(Duration.ofMinutes(2), LocalTime.MIDNIGHT, LocalTime.of(3, 0)));
+        assertEquals(slot(2, 0, 2, 10), map.firstFit(Duration.ofMinutes(10), LocalTime.MIDNIGHT, LocalTime.of(3, 0)));
+        assertNull(map.firstFit(Duration.ofMinutes(10), LocalTime.MIDNIGHT, LocalTime.of(2, 5)));
+        assertThrows(IllegalArgumentException.class,
+                () -> map.firstFit(Duration.ZERO, LocalTime.MIDNIGHT, LocalTime.MAX));
+    }
+
+    @Test
+    void scheduleQueriesSkipTasksAndRecurringOccurrences() throws Exception {
+        RecurrenceRules rules = new RecurrenceRules();
+        ScheduleManager schedule = new ScheduleManager(null, rules, new ResourceIndex());
+        schedule.addTask(new Task("Briefing", LocalTime.of(8, 0), LocalTime.of(9, 0), Priority.HIGH));
+        schedule.addRecurring(RecurringTask.every(Duration.ofHours(2), "Checks", LocalTime.of(10, 0),
+                LocalTime.of(14, 0), Duration.ofMinutes(15), Priority.MEDIUM, MissionDays.EVERY_DAY));
+
+        assertEquals(List.of(slot(9, 0, 10, 0), slot(10, 15, 12, 0), slot(12, 15, 14, 0)),
+                schedule.findFreeSlots(Duration.ofMinutes(45), LocalTime.of(8, 0), LocalTime.of(14, 0)));
+        assertEquals(Optional.of(slot(10, 15, 11, 45)),
+                schedule.nextAvailable(Duration.ofMinutes(90), LocalTime.of(8, 0)));
+
+        // a cached result is dropped when the schedule changes
+        schedule.addTask(new Task("Lunch", LocalTime.of(12, 15), LocalTime.of(13, 0), Priority.LOW));
+        assertEquals(List.of(slot(9, 0, 10, 0), slot(10, 15, 12, 0), slot(13, 0, 14, 0)),
+                schedule.findFreeSlots(Duration.ofMinutes(45), LocalTime.of(8, 0), LocalTime.of(14, 0)));
+    }
+}
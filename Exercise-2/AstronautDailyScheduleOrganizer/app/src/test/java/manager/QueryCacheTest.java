@@ -0,0 +1,40 @@
+package manager;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryCacheTest {
+
+    @Test
+    void hitNeedsBothVersionsToMatch() {
+        QueryCache<String> cache = new QueryCache<>();
+        cache.put("q", 5, 4, "old snapshot, new rules");
+        assertEquals("old snapshot, new rules", cache.get("q", 5, 4));
+        // same sum, different data
+        assertNull(cache.get("q", 6, 3));
+        assertNull(cache.get("q", 4, 5));
+    }
+
+    @Test
+    void olderResultDoesNotReplaceNewerOne() {
+        QueryCache<String> cache = new QueryCache<>();
+        cache.put("q", 6, 4, "newer");
+        cache.put("q", 5, 4, "older");
+        assertEquals("newer", cache.get("q", 6, 4));
+        // neither covers the other, so the latest put wins
+        cache.put("q", 5, 5, "other");
+        assertEquals("other", cache.get("q", 5, 5));
+    }
+
+    @Test
+    void leastRecentlyUsedIsEvicted() {
+        QueryCache<String> cache = new QueryCache<>(2);
+        cache.put("a", 1, 0, "A");
+        cache.put("b", 1, 0, "B");
+        cache.get("a", 1, 0);
+        cache.put("c", 1, 0, "C");
+        assertEquals("A", cache.get("a", 1, 0));
+        assertNull(cache.get("b", 1, 0));
+    }
+}
@@ -0,0 +1,82 @@
+package manager;
+
+import exceptions.TaskConflictException;
+import model.Priority;
+import model.Task;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResourceIndexTest {
+    private static final LocalDate DAY = LocalDate.of(2026, 10, 19);
+
+    private final ResourceIndex index = new ResourceIndex();
+    private final ScheduleKey alice = new ScheduleKey("alice", DAY);
+    private final ScheduleKey bob = new ScheduleKey("bob", DAY);
+
+    private static Task task(String description, int fromHour, int toHour, String... resources) {
+        return new Task(description, LocalTime.of(fromHour, 0), LocalTime.of(toHour, 0), Priority.MEDIUM,
+                List.of(resources));
+    }
+
+    @Test
+    void overlappingBookingsOfOneResourceClash() throws Exception {
+        index.update(alice, List.of(), List.of(task("EVA", 9, 12, "Airlock")));
+        TaskConflictException e = assertThrows(TaskConflictException.class,
+                () -> index.update(bob, List.of(), List.of(task("Repair", 11, 13, "airlock "))));
+        assertEquals(1, e.getConflicts().size());
+        // touching ends and other resources are fine
+        index.update(bob, List.of(), List.of(task("Repair", 12, 13, "Airlock"), task("Arm", 9, 10, "Robotic Arm")));
+        assertEquals(2, index.bookings("AIRLOCK", DAY).size());
+        assertEquals(List.of("Airlock", "Robotic Arm"), List.copyOf(index.resources()));
+    }
+
+    @Test
+    void failedUpdateChangesNothing() throws Exception {
+        Task eva = task("EVA", 9, 12, "Airlock");
+        Task prep = task("Prep", 8, 9, "Suit 2");
+        index.update(alice, List.of(), List.of(eva, prep));
+        index.update(bob, List.of(), List.of(task("Comms", 13, 14, "Airlock")));
+        // moving EVA onto Bob's booking fails, so EVA keeps its old slot
+        assertThrows(TaskConflictException.class,
+                () -> index.update(alice, List.of(eva), List.of(eva.withSchedule(LocalTime.of(13, 0),
+                        LocalTime.of(15, 0), Priority.HIGH), task("Late prep", 12, 13, "Suit 2"))));
+        assertEquals(eva, index.bookings("Airlock", DAY).get(0).task());
+        assertEquals(List.of(prep), index.bookings("Suit 2", DAY).stream().map(ResourceIndex.Booking::task).toList());
+    }
+
+    @Test
+    void aTaskDoesNotClashWithItself() throws Exception {
+        Task eva = task("EVA", 9, 12, "Airlock");
+        index.update(alice, List.of(), List.of(eva));
+        Task later = eva.withSchedule(LocalTime.of(10, 0), LocalTime.of(13, 0), Priority.HIGH);
+        index.update(alice, List.of(eva), List.of(later));
+        assertEquals(LocalTime.of(10, 0), index.bookings("Airlock", DAY).get(0).task().getStart());
+        index.release(alice, List.of(later));
+        assertTrue(index.bookings("Airlock", DAY).isEmpty());
+    }
+
+    @Test
+    void datesHaveSeparateTimelines() throws Exception {
+        index.update(alice, List.of(), List.of(task("EVA", 9, 12, "Airlock")));
+        index.update(new ScheduleKey("bob", DAY.plusDays(1)), List.of(), List.of(task("EVA", 9, 12, "Airlock")));
+        assertEquals(1, index.bookings("Airlock", DAY).size());
+        assertEquals(1, index.bookings("Airlock", DAY.plusDays(1)).size());
+    }
+
+    @Test
+    void schedulesInARegistryShareBookings() throws Exception {
+        ScheduleRegistry registry = new ScheduleRegistry();
+        registry.partition("alice", DAY).addTask(task("EVA", 9, 12, "Airlock"));
+        ScheduleManager bobs = registry.partition("bob", DAY);
+        assertThrows(TaskConflictException.class, () -> bobs.addTask(task("Repair", 10, 11, "Airlock")));
+        assertTrue(bobs.isEmpty());
+        registry.partition("alice", DAY).removeTaskByDescription("EVA");
+        bobs.addTask(task("Repair", 10, 11, "Airlock"));
+        assertEquals(bob, registry.resources().bookings("Airlock", DAY).get(0).owner());
+    }
+}
@@ -0,0 +1,191 @@
+package manager;
+
+import exceptions.TaskConflictException;
+import exceptions.TaskNotFoundException;
+import model.MissionDays;
+import model.Priority;
+import model.RecurringTask;
+import model.Task;
+import observer.ScheduleEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScheduleManagerTest {
+    private ScheduleManager schedule;
+
+    @BeforeEach
+    void setUp() {
+        schedule = new ScheduleManager(null, new RecurrenceRules(), new ResourceIndex());
+    }
+
+    private static Task task(String description, int fromHour, int fromMinute, int toHour, int toMinute) {
+        return new Task(description, LocalTime.of(fromHour, fromMinute), LocalTime.of(toHour, toMinute), Priority.MEDIUM);
+    }
+
+    private List<String> descriptions() {
+        return schedule.viewAllTasks().stream().map(Task::getDescription).toList();
+    }
+
+    @Test
+    void addRejectsOverlapWithEitherNeighbour() throws Exception {
+        schedule.addTask(task("Breakfast", 7, 0, 7, 30));
+        schedule.addTask(task("Briefing", 8, 0, 9, 0));
+        assertThrows(TaskConflictException.class, () -> schedule.addTask(task("Early", 7, 15, 7, 45)));
+        assertThrows(TaskConflictException.class, () -> schedule.addTask(task("Late", 7, 45, 8, 15)));
+        schedule.addTask(task("Gap", 7, 30, 8, 0)); // touching ends is not an overlap
+        assertEquals(List.of("Breakfast", "Gap", "Briefing"), descriptions());
+    }
+
+    @Test
+    void addRejectsDuplicateNameIgnoringCaseAndSpaces() throws Exception {
+        schedule.addTask(task("EVA Prep", 9, 0, 10, 0));
+        assertThrows(TaskConflictException.class, () -> schedule.addTask(task("  eva prep ", 11, 0, 12, 0)));
+    }
+
+    @Test
+    void addAllAddsSortedBatch() throws Exception {
+        schedule.addTask(task("Existing", 12, 0, 13, 0));
+        schedule.addAll(List.of(task("C", 14, 0, 15, 0), task("A", 8, 0, 9, 0), task("B", 9, 0, 10, 0)));
+        assertEquals(List.of("A", "B", "Existing", "C"), descriptions());
+    }
+
+    @Test
+    void addAllFindsOverlapBehindALongTask() {
+        // "Long" reaches past "Short", so "Late" overlaps Long even though it does not overlap its predecessor
+        TaskConflictException e = assertThrows(TaskConflictException.class, () -> schedule.addAll(List.of(
+                task("Long", 8, 0, 12, 0), task("Short", 8, 30, 9, 0), task("Late", 11, 0, 13, 0))));
+        assertEquals(2, e.getConflicts().size());
+        assertTrue(schedule.isEmpty());
+    }
+
+    @Test
+    void addAllChecksAgainstExistingTasksOnBothSides() throws Exception {
+        schedule.addTask(task("Before", 6, 0, 8, 30));
+        schedule.addTask(task("After", 10, 0, 11, 0));
+        TaskConflictException e = assertThrows(TaskConflictException.class, () -> schedule.addAll(List.of(
+                task("A", 8, 0, 9, 0), task("B", 9, 30, 10, 30))));
+        assertEquals(2, e.getConflicts().size());
+        assertEquals(List.of("Before", "After"), descriptions());
+    }
+
+    @Test
+    void addAllReportsDuplicateNamesInsideTheBatch() {
+        TaskConflictException e = assertThrows(TaskConflictException.class, () -> schedule.addAll(List.of(
+                task("Same", 8, 0, 9, 0), task("same", 10, 0, 11, 0))));
+        assertEquals(1, e.getConflicts().size());
+        assertTrue(schedule.isEmpty());
+    }
+
+    @Test
+    void editMovesTaskOrKeepsItOnConflict() throws Exception {
+        schedule.addTask(task("A", 8, 0, 9, 0));
+        schedule.addTask(task("B", 10, 0, 11, 0));
+        Task moved = schedule.editTask("a", LocalTime.of(11, 0), LocalTime.of(12, 0), Priority.HIGH);
+        assertEquals(Priority.HIGH, moved.getPriority());
+        assertEquals(List.of("B", "A"), descriptions());
+        assertThrows(TaskConflictException.class,
+                () -> schedule.editTask("A", LocalTime.of(10, 30), LocalTime.of(11, 30), Priority.LOW));
+        assertEquals(LocalTime.of(11, 0), schedule.viewAllTasks().get(1).getStart());
+    }
+
+    @Test
+    void invalidEditIsRejectedAndChangesNothing() throws Exception {
+        schedule.addTask(task("A", 8, 0, 9, 0));
+        ScheduleSnapshot before = schedule.snapshot();
+        assertThrows(IllegalArgumentException.class,
+                () -> schedule.editTask("A", LocalTime.of(10, 0), LocalTime.of(9, 0), Priority.LOW));
+        assertThrows(IllegalArgumentException.class,
+                () -> schedule.editTask("A", LocalTime.of(10, 0), LocalTime.of(10, 0), Priority.LOW));
+        assertThrows(NullPointerException.class,
+                () -> schedule.editTask("A", LocalTime.of(10, 0), LocalTime.of(11, 0), null));
+        assertSame(before, schedule.snapshot());
+        assertEquals(List.of("A"), descriptions());
+        assertEquals(1, schedule.getTasksByPriority(Priority.MEDIUM).size());
+        // the slot was never released, so it is still taken
+        assertThrows(TaskConflictException.class, () -> schedule.addTask(task("B", 8, 30, 9, 30)));
+    }
+
+    @Test
+    void markCompletedAndRemoveUpdateTheViews() throws Exception {
+        schedule.addTask(task("A", 8, 0, 9, 0));
+        schedule.addTask(task("B", 10, 0, 11, 0));
+        schedule.markCompleted("A");
+        assertEquals(1, schedule.getCompletedTasks().size());
+        assertEquals(1, schedule.getPendingTasks().size());
+        schedule.removeTaskByDescription("A");
+        assertEquals(List.of("B"), descriptions());
+        assertTrue(schedule.getCompletedTasks().isEmpty());
+        assertThrows(TaskNotFoundException.class, () -> schedule.removeTaskByDescription("A"));
+    }
+
+    @Test
+    void snapshotsAreNotChangedByLaterWrites() throws Exception {
+        schedule.addTask(task("A", 8, 0, 9, 0));
+        ScheduleSnapshot before = schedule.snapshot();
+        schedule.addTask(task("B", 10, 0, 11, 0));
+        assertEquals(1, before.getTasks().size());
+        assertEquals(2, schedule.snapshot().getTasks().size());
+        assertTrue(schedule.snapshot().getVersion() > before.getVersion());
+    }
+
+    /** Every event in the schedule's change feed from the first one, once expected have arrived. */
+    private List<ScheduleEvent> feed(int expected) throws InterruptedException {
+        List<ScheduleEvent> events = new CopyOnWriteArrayList<>();
+        CountDownLatch received = new CountDownLatch(expected);
+        schedule.getChangeFeed().subscribe(new Flow.Subscriber<ScheduleEvent>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(ScheduleEvent item) {
+                events.add(item);
+                received.countDown();
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        }, 1);
+        assertTrue(received.await(5, TimeUnit.SECONDS), "events not delivered: " + events);
+        return events;
+    }
+
+    @Test
+    void feedRecordsEveryRealChangeIncludingRules() throws Exception {
+        Task a = task("A", 8, 0, 9, 0);
+        Task b = task("B", 10, 0, 11, 0);
+        schedule.addAll(List.of(b, a));
+        schedule.markCompleted("A");
+        schedule.markCompleted("A"); // already completed: nothing changes
+        RecurringTask check = RecurringTask.daily("Check", LocalTime.of(12, 0), Duration.ofMinutes(10),
+                Priority.LOW, MissionDays.EVERY_DAY);
+        schedule.addRecurring(check);
+        schedule.removeRecurring("check");
+
+        assertEquals(4, schedule.getChangeFeed().getLastSequence());
+        List<ScheduleEvent> events = feed(4);
+        assertEquals(List.of(ScheduleEvent.Type.BULK_ADDED, ScheduleEvent.Type.COMPLETED,
+                ScheduleEvent.Type.RECURRING_ADDED, ScheduleEvent.Type.RECURRING_REMOVED),
+                events.stream().map(ScheduleEvent::type).toList());
+        assertEquals(List.of(a, b), events.get(0).tasks());
+        assertEquals(2, events.get(0).count());
+        assertEquals(check.getId(), events.get(2).taskId());
+        assertEquals(LocalTime.of(12, 10), events.get(2).newEnd());
+    }
+}
@@ -0,0 +1,84 @@
+package manager;
+
+import exceptions.TaskConflictException;
+import model.MissionDays;
+import model.Priority;
+import model.RecurringTask;
+import model.Task;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScheduleRegistryTest {
+    private static final LocalDate DAY = LocalDate.of(2026, 10, 19);
+
+    private static Task task(String description, int fromHour, int toHour) {
+        return new Task(description, LocalTime.of(fromHour, 0), LocalTime.of(toHour, 0), Priority.MEDIUM);
+    }
+
+    @Test
+    void partitionsAreIndependentAndReused() throws Exception {
+        ScheduleRegistry registry = new ScheduleRegistry();
+        ScheduleManager alice = registry.partition("alice", DAY);
+        assertSame(alice, registry.partition(" alice ", DAY));
+        assertNotSame(alice, registry.partition("alice", DAY.plusDays(1)));
+        alice.addTask(task("EVA", 9, 12));
+        // same name and time in another partition is not a conflict
+        registry.partition("bob", DAY).addTask(task("EVA", 9, 12));
+        assertEquals(3, registry.size());
+        assertNull(registry.find(new ScheduleKey("carol", DAY)));
+        assertEquals(3, registry.size());
+    }
+
+    @Test
+    void queriesFanOutOverEveryPartitionOfTheDate() throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ScheduleRegistry registry = new ScheduleRegistry(pool);
+            // enough partitions for the query to be split across the pool
+            for (int i = 0; i < 100; i++) {
+                ScheduleManager s = registry.partition(String.format("crew-%03d", i), DAY);
+                if (i % 2 == 0) s.addTask(task("Work " + i, 9, 10));
+                registry.partition(String.format("crew-%03d", i), DAY.plusDays(1)).addTask(task("Next", 9, 10));
+            }
+            SortedMap<ScheduleKey, List<Task>> active = registry.tasksActiveAt(DAY, LocalTime.of(9, 30));
+            assertEquals(50, active.size());
+            assertEquals(new ScheduleKey("crew-000", DAY), active.firstKey());
+            assertEquals(new ScheduleKey("crew-098", DAY), active.lastKey());
+            assertEquals("Work 98", active.get(active.lastKey()).get(0).getDescription());
+            assertTrue(registry.tasksActiveAt(DAY, LocalTime.of(10, 0)).isEmpty());
+            // a null date covers every partition
+            assertEquals(150, registry.query(null, ScheduleSnapshot::getTasks).size());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void recurringTasksApplyToEveryDateOfTheirCrewMember() throws Exception {
+        ScheduleRegistry registry = new ScheduleRegistry();
+        ScheduleManager today = registry.partition("alice", DAY);
+        today.addTask(task("EVA", 9, 12));
+        RecurringTask exercise = RecurringTask.daily("Exercise", LocalTime.of(10, 0), Duration.ofHours(1),
+                Priority.HIGH, MissionDays.EVERY_DAY);
+        assertThrows(TaskConflictException.class, () -> registry.addRecurring("alice", exercise));
+        assertTrue(registry.recurrenceRules("alice").list().isEmpty());
+
+        RecurringTask lunch = RecurringTask.daily("Lunch", LocalTime.of(12, 0), Duration.ofHours(1),
+                Priority.LOW, MissionDays.EVERY_DAY);
+        registry.addRecurring("alice", lunch);
+        // partitions created later see the rule too; other crew members do not
+        ScheduleManager tomorrow = registry.partition("alice", DAY.plusDays(1));
+        assertThrows(TaskConflictException.class, () -> tomorrow.addTask(task("Nap", 12, 13)));
+        registry.partition("bob", DAY).addTask(task("Nap", 12, 13));
+        assertEquals(lunch, registry.removeRecurring("alice", "Lunch"));
+        tomorrow.addTask(task("Nap", 12, 13));
+    }
+}
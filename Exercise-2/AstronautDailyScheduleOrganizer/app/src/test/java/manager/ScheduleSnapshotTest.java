@@ -0,0 +1,88 @@
+package manager;
+
+import model.MissionDays;
+import model.Priority;
+import model.RecurringTask;
+import model.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScheduleSnapshotTest {
+    private ScheduleManager schedule;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        schedule = new ScheduleManager(null, new RecurrenceRules(), new ResourceIndex());
+        // 08:00-09:00, 09:00-10:00, 11:00-12:00, 12:30-13:00
+        schedule.addTask(new Task("A", LocalTime.of(8, 0), LocalTime.of(9, 0), Priority.LOW));
+        schedule.addTask(new Task("B", LocalTime.of(9, 0), LocalTime.of(10, 0), Priority.HIGH));
+        schedule.addTask(new Task("C", LocalTime.of(11, 0), LocalTime.of(12, 0), Priority.LOW));
+        schedule.addTask(new Task("D", LocalTime.of(12, 30), LocalTime.of(13, 0), Priority.MEDIUM));
+    }
+
+    private static List<String> names(List<Task> tasks) {
+        return tasks.stream().map(Task::getDescription).toList();
+    }
+
+    @Test
+    void tasksBetweenIsHalfOpen() {
+        assertEquals(List.of("A", "B"), names(schedule.tasksBetween(LocalTime.of(8, 30), LocalTime.of(9, 30))));
+        // ending exactly at from or starting exactly at to is outside
+        assertEquals(List.of("B"), names(schedule.tasksBetween(LocalTime.of(9, 0), LocalTime.of(11, 0))));
+        assertTrue(schedule.tasksBetween(LocalTime.of(10, 0), LocalTime.of(11, 0)).isEmpty());
+        assertEquals(List.of("A", "B", "C", "D"), names(schedule.tasksBetween(LocalTime.MIDNIGHT, LocalTime.MAX)));
+        assertTrue(schedule.tasksBetween(LocalTime.of(12, 0), LocalTime.of(11, 0)).isEmpty());
+    }
+
+    @Test
+    void tasksActiveAtFindsTheRunningTask() {
+        assertEquals(List.of("B"), names(schedule.tasksActiveAt(LocalTime.of(9, 0))));
+        assertEquals(List.of("C"), names(schedule.tasksActiveAt(LocalTime.of(11, 59))));
+        assertTrue(schedule.tasksActiveAt(LocalTime.of(10, 30)).isEmpty());
+        assertTrue(schedule.tasksActiveAt(LocalTime.of(13, 0)).isEmpty());
+    }
+
+    @Test
+    void pagesCoverEveryTaskOnce() {
+        List<String> seen = new ArrayList<>();
+        Task cursor = null;
+        List<Task> page;
+        while (!(page = schedule.tasksAfter(cursor, 3)).isEmpty()) {
+            seen.addAll(names(page));
+            cursor = page.get(page.size() - 1);
+        }
+        assertEquals(List.of("A", "B", "C", "D"), seen);
+        assertEquals(4, schedule.tasksAfter(null, Integer.MAX_VALUE).size());
+        assertThrows(IllegalArgumentException.class, () -> schedule.tasksAfter(null, 0));
+    }
+
+    @Test
+    void paginationSurvivesRemovingTheCursor() throws Exception {
+        Task cursor = schedule.tasksAfter(null, 2).get(1);
+        schedule.removeTaskByDescription("B");
+        assertEquals(List.of("C", "D"), names(schedule.tasksAfter(cursor, 2)));
+    }
+
+    @Test
+    void oldSnapshotKeepsItsRanges() throws Exception {
+        ScheduleSnapshot before = schedule.snapshot();
+        schedule.removeTaskByDescription("C");
+        assertEquals(List.of("C"), names(before.tasksBetween(LocalTime.of(11, 0), LocalTime.of(12, 0))));
+        assertTrue(schedule.tasksBetween(LocalTime.of(11, 0), LocalTime.of(12, 0)).isEmpty());
+    }
+
+    @Test
+    void agendaMergesRecurringOccurrences() throws Exception {
+        schedule.addRecurring(RecurringTask.every(Duration.ofHours(2), "Checks", LocalTime.of(10, 0),
+                LocalTime.of(14, 0), Duration.ofMinutes(15), Priority.MEDIUM, MissionDays.EVERY_DAY));
+        assertEquals(List.of("B", "Checks", "C", "Checks"),
+                names(schedule.agenda(LocalTime.of(9, 30), LocalTime.of(12, 30))));
+    }
+}
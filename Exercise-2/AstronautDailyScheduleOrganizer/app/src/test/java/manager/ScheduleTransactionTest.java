@@ -0,0 +1,98 @@
+package manager;
+
+import exceptions.TaskConflictException;
+import exceptions.TaskNotFoundException;
+import model.Priority;
+import model.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScheduleTransactionTest {
+    private ScheduleManager schedule;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        schedule = new ScheduleManager(null, new RecurrenceRules(), new ResourceIndex());
+        schedule.addTask(new Task("A", LocalTime.of(8, 0), LocalTime.of(9, 0), Priority.HIGH));
+        schedule.addTask(new Task("B", LocalTime.of(9, 0), LocalTime.of(10, 0), Priority.LOW));
+        schedule.addTask(new Task("C", LocalTime.of(13, 0), LocalTime.of(14, 0), Priority.MEDIUM));
+    }
+
+    private List<String> descriptions(ScheduleSnapshot s) {
+        return s.getTasks().stream().map(Task::getDescription).toList();
+    }
+
+    @Test
+    void tasksCanSwapTimes() throws Exception {
+        ScheduleSnapshot committed = schedule.transaction()
+                .edit("A", LocalTime.of(9, 0), LocalTime.of(10, 0), Priority.HIGH)
+                .edit("B", LocalTime.of(8, 0), LocalTime.of(9, 0), Priority.LOW)
+                .commit();
+        assertEquals(List.of("B", "A", "C"), descriptions(committed));
+        assertSame(committed, schedule.snapshot());
+    }
+
+    @Test
+    void shiftMovesEveryLaterTask() throws Exception {
+        schedule.transaction().shift(LocalTime.of(9, 0), Duration.ofMinutes(20)).commit();
+        List<Task> tasks = schedule.viewAllTasks();
+        assertEquals(LocalTime.of(8, 0), tasks.get(0).getStart());
+        assertEquals(LocalTime.of(9, 20), tasks.get(1).getStart());
+        assertEquals(LocalTime.of(13, 20), tasks.get(2).getStart());
+    }
+
+    @Test
+    void conflictRejectsTheWholeTransaction() {
+        ScheduleSnapshot before = schedule.snapshot();
+        TaskConflictException e = assertThrows(TaskConflictException.class, () -> schedule.transaction()
+                .remove("C")
+                .add(new Task("D", LocalTime.of(11, 0), LocalTime.of(12, 0), Priority.LOW))
+                .edit("A", LocalTime.of(11, 30), LocalTime.of(12, 30), Priority.HIGH)
+                .commit());
+        assertFalse(e.getConflicts().isEmpty());
+        assertSame(before, schedule.snapshot());
+        assertEquals(List.of("A", "B", "C"), descriptions(schedule.snapshot()));
+    }
+
+    @Test
+    void reversedEditIsRejectedWhenStaged() {
+        ScheduleTransaction tx = schedule.transaction();
+        assertThrows(IllegalArgumentException.class,
+                () -> tx.edit("A", LocalTime.of(12, 0), LocalTime.of(11, 0), Priority.HIGH));
+        assertEquals(0, tx.size());
+        assertEquals(List.of("A", "B", "C"), descriptions(schedule.snapshot()));
+    }
+
+    @Test
+    void missingTaskRejectsTheWholeTransaction() {
+        assertThrows(TaskNotFoundException.class, () -> schedule.transaction()
+                .remove("A")
+                .markCompleted("Nope")
+                .commit());
+        assertEquals(3, schedule.size());
+    }
+
+    @Test
+    void laterOperationsSeeEarlierOnes() throws Exception {
+        schedule.transaction()
+                .add(new Task("D", LocalTime.of(15, 0), LocalTime.of(16, 0), Priority.LOW))
+                .markCompleted("D")
+                .remove("B")
+                .commit();
+        assertEquals(List.of("A", "C", "D"), descriptions(schedule.snapshot()));
+        assertTrue(schedule.viewAllTasks().get(2).isCompleted());
+    }
+
+    @Test
+    void commitOnlyOnce() throws Exception {
+        ScheduleTransaction tx = schedule.transaction().remove("A");
+        tx.commit();
+        assertThrows(IllegalStateException.class, tx::commit);
+    }
+}
@@ -0,0 +1,86 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecurringTaskTest {
+    private static final Duration TEN_MINUTES = Duration.ofMinutes(10);
+
+    // 08:00, 09:00, ... 11:00, ten minutes each
+    private final RecurringTask hourly = RecurringTask.every(Duration.ofHours(1), "Check", LocalTime.of(8, 0),
+            LocalTime.of(12, 0), TEN_MINUTES, Priority.LOW, MissionDays.EVERY_DAY);
+
+    @Test
+    void countsOccurrencesBeforeUntil() {
+        assertEquals(4, hourly.occurrencesPerDay());
+        List<Task> all = hourly.occurrences(LocalTime.MIDNIGHT, LocalTime.MAX);
+        assertEquals(LocalTime.of(8, 0), all.get(0).getStart());
+        assertEquals(LocalTime.of(11, 10), all.get(3).getEnd());
+    }
+
+    @Test
+    void occurrencesOnlyForTheWindow() {
+        List<Task> found = hourly.occurrences(LocalTime.of(9, 5), LocalTime.of(10, 1));
+        assertEquals(List.of(LocalTime.of(9, 0), LocalTime.of(10, 0)), found.stream().map(Task::getStart).toList());
+        assertTrue(hourly.occurrences(LocalTime.of(9, 10), LocalTime.of(10, 0)).isEmpty());
+    }
+
+    @Test
+    void overlappingUsesHalfOpenRanges() {
+        assertNull(hourly.overlapping(LocalTime.of(8, 10), LocalTime.of(9, 0)));
+        assertEquals(LocalTime.of(9, 0), hourly.overlapping(LocalTime.of(8, 30), LocalTime.of(9, 1)).getStart());
+        assertNull(hourly.overlapping(LocalTime.of(11, 10), LocalTime.MAX));
+        assertNull(hourly.overlapping(LocalTime.of(6, 0), LocalTime.of(8, 0)));
+    }
+
+    @Test
+    void dailyRuleHasOneOccurrence() {
+        RecurringTask daily = RecurringTask.daily("Exercise", LocalTime.of(7, 0), Duration.ofMinutes(30),
+                Priority.HIGH, MissionDays.EVERY_DAY);
+        assertEquals(1, daily.occurrencesPerDay());
+        assertNotNull(daily.overlapping(LocalTime.of(7, 29), LocalTime.of(8, 0)));
+        assertNull(daily.overlapping(LocalTime.of(7, 30), LocalTime.of(8, 0)));
+    }
+
+    @Test
+    void lastOccurrenceMayEndAtMidnight() {
+        RecurringTask late = RecurringTask.every(Duration.ofHours(1), "Late", LocalTime.of(22, 0), null,
+                Duration.ofHours(1), Priority.LOW, MissionDays.EVERY_DAY);
+        assertEquals(2, late.occurrencesPerDay());
+        assertEquals(LocalTime.MAX, late.occurrences(LocalTime.of(23, 0), LocalTime.MAX).get(0).getEnd());
+    }
+
+    @Test
+    void rejectsRulesThatCannotWork() {
+        assertThrows(IllegalArgumentException.class, () -> RecurringTask.daily("Late", LocalTime.of(23, 30),
+                Duration.ofHours(1), Priority.LOW, MissionDays.EVERY_DAY));
+        assertThrows(IllegalArgumentException.class, () -> RecurringTask.every(Duration.ofMinutes(5), "Short",
+                LocalTime.of(8, 0), null, TEN_MINUTES, Priority.LOW, MissionDays.EVERY_DAY));
+    }
+
+    @Test
+    void rulesMeetOnlyWhenOccurrencesAndDaysOverlap() {
+        RecurringTask offset = RecurringTask.every(Duration.ofHours(1), "Offset", LocalTime.of(8, 30), null,
+                TEN_MINUTES, Priority.LOW, MissionDays.EVERY_DAY);
+        assertNull(hourly.overlapping(offset));
+        RecurringTask clash = RecurringTask.daily("Clash", LocalTime.of(10, 5), TEN_MINUTES, Priority.LOW,
+                MissionDays.EVERY_DAY);
+        assertEquals(LocalTime.of(10, 0), hourly.overlapping(clash).getStart());
+
+        LocalDate monday = LocalDate.of(2026, 10, 19);
+        RecurringTask mondays = RecurringTask.daily("A", LocalTime.of(9, 0), TEN_MINUTES, Priority.LOW,
+                MissionDays.EVERY_DAY.on(DayOfWeek.MONDAY));
+        RecurringTask tuesdays = RecurringTask.daily("B", LocalTime.of(9, 0), TEN_MINUTES, Priority.LOW,
+                MissionDays.EVERY_DAY.on(DayOfWeek.TUESDAY));
+        assertNull(mondays.overlapping(tuesdays));
+        assertTrue(mondays.occursOn(monday));
+        assertFalse(tuesdays.occursOn(monday));
+    }
+}
@@ -0,0 +1,136 @@
+package observer;
+
+import model.Priority;
+import model.Task;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeFeedTest {
+
+    /** Requests initial events up front and records what arrives. */
+    private static final class Recorder implements Flow.Subscriber<ScheduleEvent> {
+        final List<Long> sequences = new CopyOnWriteArrayList<>();
+        final CompletableFuture<Flow.Subscription> subscribed = new CompletableFuture<>();
+        final CompletableFuture<Throwable> error = new CompletableFuture<>();
+        final long initial;
+        volatile CountDownLatch received;
+
+        Recorder(long initial, int expected) {
+            this.initial = initial;
+            this.received = new CountDownLatch(expected);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscribed.complete(subscription);
+            if (initial > 0) subscription.request(initial);
+        }
+
+        @Override
+        public void onNext(ScheduleEvent item) {
+            sequences.add(item.sequence());
+            received.countDown();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error.complete(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+        void await() throws InterruptedException {
+            assertTrue(received.await(5, TimeUnit.SECONDS), "events not delivered: " + sequences);
+        }
+    }
+
+    private static ScheduleEvent event(int i) {
+        return ScheduleEvent.added(new Task("T" + i, LocalTime.of(i, 0), LocalTime.of(i, 30), Priority.LOW));
+    }
+
+    @Test
+    void publishStampsConsecutiveSequences() {
+        ChangeFeed feed = new ChangeFeed();
+        assertEquals(1, feed.publish(event(1)).sequence());
+        assertEquals(2, feed.publish(event(2)).sequence());
+        assertEquals(2, feed.getLastSequence());
+    }
+
+    @Test
+    void deliversNoMoreThanRequested() throws Exception {
+        ChangeFeed feed = new ChangeFeed();
+        Recorder r = new Recorder(2, 2);
+        feed.subscribe(r);
+        for (int i = 1; i <= 5; i++) feed.publish(event(i));
+        r.await();
+        Thread.sleep(100);
+        assertEquals(List.of(1L, 2L), r.sequences);
+
+        r.received = new CountDownLatch(3);
+        r.subscribed.get(5, TimeUnit.SECONDS).request(10);
+        r.await();
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), r.sequences);
+    }
+
+    @Test
+    void replaysFromAnEarlierSequence() throws Exception {
+        ChangeFeed feed = new ChangeFeed();
+        for (int i = 1; i <= 5; i++) feed.publish(event(i));
+        Recorder r = new Recorder(Long.MAX_VALUE, 3);
+        feed.subscribe(r, 3);
+        r.await();
+        assertEquals(List.of(3L, 4L, 5L), r.sequences);
+        r.received = new CountDownLatch(1);
+        assertEquals(6, feed.publish(event(6)).sequence());
+        r.await();
+        assertEquals(List.of(3L, 4L, 5L, 6L), r.sequences);
+    }
+
+    @Test
+    void ringGrowsWithoutLosingEventsUpToItsCapacity() throws Exception {
+        ChangeFeed feed = new ChangeFeed(200);
+        for (int i = 1; i <= 150; i++) feed.publish(event(i % 24));
+        assertEquals(1, feed.getOldestSequence());
+        Recorder r = new Recorder(Long.MAX_VALUE, 150);
+        feed.subscribe(r, 1);
+        r.await();
+        assertEquals(150L, r.sequences.get(149));
+        for (int i = 1; i <= 100; i++) feed.publish(event(i % 24));
+        assertEquals(51, feed.getOldestSequence());
+    }
+
+    @Test
+    void overrunSubscriberGetsAnError() throws Exception {
+        ChangeFeed feed = new ChangeFeed(4);
+        for (int i = 1; i <= 10; i++) feed.publish(event(i));
+        assertEquals(7, feed.getOldestSequence());
+        Recorder r = new Recorder(1, 0);
+        feed.subscribe(r, 1);
+        Throwable error = r.error.get(5, TimeUnit.SECONDS);
+        ChangeFeed.OverrunException overrun = assertInstanceOf(ChangeFeed.OverrunException.class, error);
+        assertEquals(1, overrun.getMissedSequence());
+        assertEquals(7, overrun.getOldestSequence());
+        assertTrue(r.sequences.isEmpty());
+        assertEquals(0, feed.getSubscriberCount());
+    }
+
+    @Test
+    void nonPositiveRequestIsAnError() throws Exception {
+        ChangeFeed feed = new ChangeFeed();
+        Recorder r = new Recorder(0, 0);
+        feed.subscribe(r);
+        r.subscribed.get(5, TimeUnit.SECONDS).request(0);
+        assertInstanceOf(IllegalArgumentException.class, r.error.get(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,117 @@
+package observer;
+
+import model.Priority;
+import model.Task;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoalescingObserverTest {
+    private final Task task = new Task("EVA", LocalTime.of(9, 0), LocalTime.of(10, 0), Priority.HIGH);
+    private final Task moved = task.withSchedule(LocalTime.of(11, 0), LocalTime.of(12, 0), Priority.HIGH);
+    private final Task movedAgain = task.withSchedule(LocalTime.of(13, 0), LocalTime.of(14, 0), Priority.LOW);
+
+    /** Collects digests; never called concurrently by a single CoalescingObserver. */
+    private static final class Digests implements ScheduleObserver {
+        final List<List<ScheduleEvent>> digests = new ArrayList<>();
+        final List<ScheduleEvent> single = new ArrayList<>();
+
+        @Override
+        public void onNotification(String message) {
+        }
+
+        @Override
+        public void onEvent(ScheduleEvent event) {
+            single.add(event);
+        }
+
+        @Override
+        public void onDigest(List<ScheduleEvent> events) {
+            digests.add(events);
+        }
+    }
+
+    @Test
+    void addThenRemoveCancelsOut() {
+        assertNull(CoalescingObserver.merge(ScheduleEvent.added(task), ScheduleEvent.removed(task)));
+    }
+
+    @Test
+    void addThenEditStaysAnAddAtTheNewTimes() {
+        ScheduleEvent merged = CoalescingObserver.merge(ScheduleEvent.added(task), ScheduleEvent.edited(task, moved));
+        assertEquals(ScheduleEvent.Type.ADDED, merged.type());
+        assertNull(merged.oldStart());
+        assertEquals(LocalTime.of(11, 0), merged.newStart());
+    }
+
+    @Test
+    void editsKeepTheTimesFromBeforeTheWindow() {
+        ScheduleEvent merged = CoalescingObserver.merge(ScheduleEvent.edited(task, moved),
+                ScheduleEvent.edited(moved, movedAgain));
+        assertEquals(ScheduleEvent.Type.EDITED, merged.type());
+        assertEquals(LocalTime.of(9, 0), merged.oldStart());
+        assertEquals(LocalTime.of(13, 0), merged.newStart());
+    }
+
+    @Test
+    void editThenRemoveIsARemoveOfTheOriginal() {
+        ScheduleEvent merged = CoalescingObserver.merge(ScheduleEvent.edited(task, moved), ScheduleEvent.removed(moved));
+        assertEquals(ScheduleEvent.Type.REMOVED, merged.type());
+        assertEquals(LocalTime.of(9, 0), merged.oldStart());
+    }
+
+    @Test
+    void completionAndEditAreBothKeptInEitherOrder() {
+        ScheduleEvent completedThenEdited = CoalescingObserver.merge(ScheduleEvent.completed(task),
+                ScheduleEvent.edited(task.asCompleted(), moved.asCompleted()));
+        ScheduleEvent editedThenCompleted = CoalescingObserver.merge(ScheduleEvent.edited(task, moved),
+                ScheduleEvent.completed(moved.asCompleted()));
+        for (ScheduleEvent merged : List.of(completedThenEdited, editedThenCompleted)) {
+            assertEquals(ScheduleEvent.Type.COMPLETED, merged.type());
+            assertEquals(LocalTime.of(9, 0), merged.oldStart());
+            assertEquals(LocalTime.of(11, 0), merged.newStart());
+            assertEquals("Task completed: EVA [11:00-12:00]", merged.toMessage());
+        }
+        assertEquals("Task completed: EVA", ScheduleEvent.completed(task).toMessage());
+    }
+
+    @Test
+    void closeDeliversOneMergedDigestInFirstSeenOrder() {
+        Digests out = new Digests();
+        Task other = new Task("Lunch", LocalTime.of(12, 0), LocalTime.of(13, 0), Priority.LOW);
+        CoalescingObserver coalescer = new CoalescingObserver(out, Duration.ofHours(1), 100);
+        coalescer.onEvent(ScheduleEvent.added(task));
+        coalescer.onEvent(ScheduleEvent.added(other));
+        coalescer.onEvent(ScheduleEvent.edited(task, moved));
+        coalescer.onEvent(ScheduleEvent.removed(other));
+        coalescer.onEvent(ScheduleEvent.conflict(other, task));
+        coalescer.close();
+
+        assertEquals(1, out.digests.size());
+        List<ScheduleEvent> digest = out.digests.get(0);
+        assertEquals(2, digest.size());
+        assertEquals(ScheduleEvent.Type.ADDED, digest.get(0).type());
+        assertEquals(LocalTime.of(11, 0), digest.get(0).newStart());
+        assertEquals(ScheduleEvent.Type.CONFLICT, digest.get(1).type());
+
+        // after close events pass straight through
+        coalescer.onEvent(ScheduleEvent.removed(moved));
+        assertEquals(1, out.single.size());
+    }
+
+    @Test
+    void maxEventsEndsTheWindowEarly() {
+        Digests out = new Digests();
+        CoalescingObserver coalescer = new CoalescingObserver(out, Duration.ofHours(1), 2);
+        coalescer.onEvent(ScheduleEvent.added(task));
+        coalescer.onEvent(ScheduleEvent.edited(task, moved));
+        assertEquals(1, out.digests.size());
+        assertEquals(1, out.digests.get(0).size());
+        coalescer.close();
+    }
+}
@@ -0,0 +1,121 @@
+package observer;
+
+import model.Priority;
+import model.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventBusTest {
+    private final EventBus bus = new EventBus();
+    private final Gate gate = new Gate();
+
+    /** Holds its delivery thread on the first event until released, so the queue behind it fills up. */
+    private static final class Gate implements ScheduleObserver {
+        final List<String> received = new CopyOnWriteArrayList<>();
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public void onNotification(String message) {
+        }
+
+        @Override
+        public void onEvent(ScheduleEvent event) {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            received.add(event.description());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        gate.release.countDown();
+        bus.unsubscribe(gate);
+    }
+
+    private static ScheduleEvent event(String description) {
+        return ScheduleEvent.added(new Task(description, LocalTime.of(9, 0), LocalTime.of(10, 0), Priority.LOW));
+    }
+
+    // first event held by the observer, the next two filling a queue of two
+    private void fill() throws InterruptedException {
+        bus.publish(event("1"));
+        assertTrue(gate.entered.await(5, TimeUnit.SECONDS));
+        bus.publish(event("2"));
+        bus.publish(event("3"));
+        assertEquals(2, bus.getQueueDepth());
+    }
+
+    @Test
+    void dropNewestDiscardsTheEventBeingPublished() throws Exception {
+        bus.subscribe(gate, 2, EventBus.OverflowPolicy.DROP_NEWEST);
+        fill();
+        bus.publish(event("4"));
+        gate.release.countDown();
+        assertTrue(bus.awaitDelivery(5, TimeUnit.SECONDS));
+        assertEquals(List.of("1", "2", "3"), gate.received);
+        assertEquals(1, bus.getDroppedCount());
+        assertEquals(4, bus.getPublishedCount());
+    }
+
+    @Test
+    void dropOldestMakesRoomForTheNewEvent() throws Exception {
+        bus.subscribe(gate, 2, EventBus.OverflowPolicy.DROP_OLDEST);
+        fill();
+        bus.publish(event("4"));
+        gate.release.countDown();
+        assertTrue(bus.awaitDelivery(5, TimeUnit.SECONDS));
+        assertEquals(List.of("1", "3", "4"), gate.received);
+        assertEquals(1L, bus.getDroppedCounts().get(gate));
+    }
+
+    @Test
+    void blockMakesThePublisherWait() throws Exception {
+        bus.subscribe(gate, 2, EventBus.OverflowPolicy.BLOCK);
+        fill();
+        Thread publisher = new Thread(() -> bus.publish(event("4")));
+        publisher.start();
+        publisher.join(200);
+        assertTrue(publisher.isAlive());
+        gate.release.countDown();
+        publisher.join(5000);
+        assertFalse(publisher.isAlive());
+        assertTrue(bus.awaitDelivery(5, TimeUnit.SECONDS));
+        assertEquals(List.of("1", "2", "3", "4"), gate.received);
+        assertEquals(0, bus.getDroppedCount());
+    }
+
+    @Test
+    void aFailingObserverKeepsReceivingAndOthersAreUnaffected() throws Exception {
+        List<String> seen = new CopyOnWriteArrayList<>();
+        ScheduleObserver failing = new ScheduleObserver() {
+            @Override
+            public void onNotification(String message) {
+                seen.add(message);
+                throw new IllegalStateException("observer bug");
+            }
+        };
+        bus.subscribe(failing);
+        gate.release.countDown();
+        bus.subscribe(gate);
+        assertFalse(bus.subscribe(gate));
+        bus.publish(event("1"));
+        bus.publish(event("2"));
+        assertTrue(bus.awaitDelivery(5, TimeUnit.SECONDS));
+        assertEquals(2, seen.size());
+        assertEquals(List.of("1", "2"), gate.received);
+        bus.unsubscribe(failing);
+    }
+}
@@ -0,0 +1,38 @@
+package observer;
+
+import model.MissionDays;
+import model.Priority;
+import model.RecurringTask;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScheduleEventTest {
+
+    @Test
+    void recurringEventsSpanTheFirstOccurrence() {
+        RecurringTask rule = RecurringTask.every(Duration.ofHours(2), "Air check", LocalTime.of(8, 0),
+                LocalTime.of(12, 0), Duration.ofMinutes(15), Priority.LOW, MissionDays.EVERY_DAY);
+        ScheduleEvent added = ScheduleEvent.recurringAdded(rule);
+        assertEquals(LocalTime.of(8, 0), added.newStart());
+        assertEquals(LocalTime.of(8, 15), added.newEnd());
+        ScheduleEvent removed = ScheduleEvent.recurringRemoved(rule);
+        assertEquals(LocalTime.of(8, 0), removed.oldStart());
+        assertEquals(LocalTime.of(8, 15), removed.oldEnd());
+    }
+
+    @Test
+    void ruleStartingAtTheLastInstantOfTheDayEndsAtMidnight() {
+        RecurringTask rule = RecurringTask.daily("Log rollover", LocalTime.MAX, Duration.ofNanos(1), Priority.LOW,
+                MissionDays.EVERY_DAY);
+        ScheduleEvent added = ScheduleEvent.recurringAdded(rule);
+        assertEquals(LocalTime.MAX, added.newStart());
+        assertEquals(LocalTime.MAX, added.newEnd());
+        ScheduleEvent removed = ScheduleEvent.recurringRemoved(rule);
+        assertEquals(LocalTime.MAX, removed.oldStart());
+        assertEquals(LocalTime.MAX, removed.oldEnd());
+    }
+}
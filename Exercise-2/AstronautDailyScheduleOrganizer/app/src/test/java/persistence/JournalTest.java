@@ -0,0 +1,374 @@
+package persistence;
+
+import manager.ScheduleManager;
+import manager.ScheduleRegistry;
+import model.MissionDays;
+import model.Priority;
+import model.RecurringTask;
+import model.Task;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalTest {
+    @TempDir
+    Path dir;
+
+    private final Task breakfast = new Task("Breakfast", LocalTime.of(7, 0), LocalTime.of(7, 30), Priority.LOW);
+    private final Task eva = new Task("EVA", LocalTime.of(9, 0), LocalTime.of(12, 0), Priority.HIGH,
+            List.of("Airlock", "Suit 2"));
+
+    private final RecurringTask checks = RecurringTask.every(Duration.ofHours(2), "Checks", LocalTime.of(13, 0),
+            LocalTime.of(18, 0), Duration.ofMinutes(15), Priority.MEDIUM,
+            MissionDays.between(LocalDate.of(2026, 10, 1), LocalDate.of(2026, 12, 31)).on(DayOfWeek.MONDAY,
+                    DayOfWeek.FRIDAY));
+
+    private static Map<Long, Task> replay(Path dir, long afterSeq) throws IOException {
+        Map<Long, Task> state = new LinkedHashMap<>();
+        Journal.replay(dir, afterSeq, state, new LinkedHashMap<>());
+        return state;
+    }
+
+    private static void assertSameRule(RecurringTask expected, RecurringTask actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.toString(), actual.toString());
+        assertEquals(expected.getDays(), actual.getDays());
+        assertEquals(expected.occurrencesPerDay(), actual.occurrencesPerDay());
+    }
+
+    private Path onlySegment() throws IOException {
+        List<Path> segments = Journal.segments(dir);
+        assertEquals(1, segments.size());
+        return segments.get(0);
+    }
+
+    @Test
+    void replayAppliesEveryKindOfRecord() throws Exception {
+        Task moved = eva.withSchedule(LocalTime.of(13, 0), LocalTime.of(16, 0), Priority.MEDIUM);
+        try (Journal journal = new Journal(dir, 0)) {
+            journal.added(breakfast);
+            journal.added(eva);
+            journal.replaced(eva, moved);
+            journal.replaced(breakfast, breakfast.asCompleted());
+            journal.removed(moved);
+            journal.added(moved);
+            assertEquals(6, journal.lastSequence());
+            journal.sync();
+        }
+        Map<Long, Task> state = new LinkedHashMap<>();
+        assertEquals(6, Journal.replay(dir, 0, state, new LinkedHashMap<>()));
+        assertEquals(2, state.size());
+        assertTrue(state.get(breakfast.getId()).isCompleted());
+        Task restored = state.get(eva.getId());
+        assertEquals(LocalTime.of(13, 0), restored.getStart());
+        assertEquals(Priority.MEDIUM, restored.getPriority());
+        assertEquals(eva.getResources(), restored.getResources());
+    }
+
+    @Test
+    void replaySkipsRecordsCoveredBySnapshot() throws Exception {
+        try (Journal journal = new Journal(dir, 0)) {
+            journal.added(breakfast);
+            journal.added(eva);
+        }
+        Map<Long, Task> state = replay(dir, 1);
+        assertEquals(List.of(eva.getId()), List.copyOf(state.keySet()));
+    }
+
+    @Test
+    void replayAddsAndRemovesRules() throws Exception {
+        RecurringTask daily = RecurringTask.daily("Exercise", LocalTime.of(7, 0), Duration.ofMinutes(30),
+                Priority.HIGH, MissionDays.EVERY_DAY);
+        try (Journal journal = new Journal(dir, 0)) {
+            journal.ruleAdded(checks);
+            journal.ruleAdded(daily);
+            journal.ruleRemoved(daily);
+        }
+        Map<Long, RecurringTask> rules = new LinkedHashMap<>();
+        assertEquals(3, Journal.replay(dir, 0, new LinkedHashMap<>(), rules));
+        assertEquals(1, rules.size());
+        assertSameRule(checks, rules.get(checks.getId()));
+    }
+
+    @Test
+    void groupIsReplayedOnlyWhenComplete() throws Exception {
+        Task lunch = new Task("Lunch", LocalTime.of(12, 0), LocalTime.of(13, 0), Priority.LOW);
+        try (Journal journal = new Journal(dir, 0)) {
+            journal.added(lunch);
+            journal.beginGroup();
+            journal.added(breakfast);
+            journal.added(eva);
+            journal.endGroup();
+        }
+        Map<Long, Task> state = new LinkedHashMap<>();
+        assertEquals(5, Journal.replay(dir, 0, state, new LinkedHashMap<>()));
+        assertEquals(3, state.size());
+
+        // lose the end marker (a whole frame: header, op and sequence), as if the crash came just before it
+        Path segment = onlySegment();
+        try (FileChannel ch = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            ch.truncate(Files.size(segment) - (Records.HEADER + 1 + 8));
+        }
+        state.clear();
+        assertEquals(1, Journal.replay(dir, 0, state, new LinkedHashMap<>()));
+        assertEquals(List.of(lunch.getId()), List.copyOf(state.keySet()));
+    }
+
+    @Test
+    void addAllIsRecoveredAllOrNothing() throws Exception {
+        ScheduleManager schedule = new ScheduleRegistry().partition("batch", LocalDate.of(2026, 10, 19));
+        try (SchedulePersistence persistence = new SchedulePersistence(dir)) {
+            persistence.recover(schedule);
+            schedule.addAll(List.of(breakfast, eva));
+            persistence.sync();
+        }
+        Path segment = onlySegment();
+        try (FileChannel ch = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            ch.truncate(Files.size(segment) - 1);
+        }
+        ScheduleManager recovered = new ScheduleRegistry().partition("batch", LocalDate.of(2026, 10, 19));
+        try (SchedulePersistence persistence = new SchedulePersistence(dir)) {
+            assertEquals(0, persistence.recover(recovered));
+        }
+    }
+
+    @Test
+    void tornTailIsIgnored() throws Exception {
+        try (Journal journal = new Journal(dir, 0)) {
+            journal.added(breakfast);
+            journal.added(eva);
+        }
+        Path segment = onlySegment();
+        long size = Files.size(segment);
+        try (FileChannel ch = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            ch.truncate(size - 5); // crash in the middle of writing the second record
+        }
+        Map<Long, Task> state = new LinkedHashMap<>();
+        assertEquals(1, Journal.replay(dir, 0, state, new LinkedHashMap<>()));
+        assertEquals(List.of(breakfast.getId()), List.copyOf(state.keySet()));
+    }
+
+    @Test
+    void corruptRecordEndsReplay() throws Exception {
+        try (Journal journal = new Journal(dir, 0)) {
+            journal.added(breakfast);
+            journal.added(eva);
+        }
+        Path segment = onlySegment();
+        byte[] bytes = Files.readAllBytes(segment);
+        bytes[bytes.length - 3] ^= 0x55; // checksum no longer matches
+        Files.write(segment, bytes);
+        assertEquals(List.of(breakfast.getId()), List.copyOf(replay(dir, 0).keySet()));
+    }
+
+    @Test
+    void rotatedSegmentsReplayInOrderAndCanBeDeleted() throws Exception {
+        try (Journal journal = new Journal(dir, 0)) {
+            journal.added(breakfast);
+            long covered = journal.rotate();
+            journal.removed(breakfast);
+            journal.added(eva);
+            journal.sync();
+            assertEquals(1, covered);
+            assertEquals(2, Journal.segments(dir).size());
+            assertEquals(List.of(eva.getId()), List.copyOf(replay(dir, 0).keySet()));
+
+            journal.deleteSegmentsThrough(covered);
+            assertEquals(1, Journal.segments(dir).size());
+            assertEquals(List.of(eva.getId()), List.copyOf(replay(dir, covered).keySet()));
+        }
+    }
+
+    @Test
+    void failedWriteRejectsLaterAppends() throws Exception {
+        Journal journal = new Journal(dir, 0);
+        journal.added(breakfast);
+        // the next segment cannot be opened, so the flusher fails on rotate
+        Files.createDirectory(dir.resolve(String.format("journal-%020d.log", 2)));
+        journal.rotate();
+        assertThrows(IOException.class, journal::sync);
+        assertThrows(IllegalStateException.class, journal::checkWritable);
+        assertThrows(IllegalStateException.class, () -> journal.added(eva));
+        assertThrows(IOException.class, journal::close);
+    }
+
+    @Test
+    void scheduleRejectsChangesOnceTheJournalHasFailed() throws Exception {
+        ScheduleManager schedule = new ScheduleRegistry().partition("journal", LocalDate.of(2026, 10, 19));
+        Journal journal = new Journal(dir, 0);
+        schedule.setChangeLog(journal);
+        schedule.addTask(breakfast);
+        Files.createDirectory(dir.resolve(String.format("journal-%020d.log", 2)));
+        journal.rotate();
+        assertThrows(IOException.class, journal::sync);
+        assertThrows(IllegalStateException.class, () -> schedule.addTask(eva));
+        assertEquals(List.of(breakfast), schedule.viewAllTasks());
+    }
+
+    // A journal whose flusher fails right after the schedule's up-front check, before the change is appended
+    private static final class FailingJournal extends Journal {
+        private final Path dir;
+        boolean failAfterCheck;
+
+        FailingJournal(Path dir) throws IOException {
+            super(dir, 0);
+            this.dir = dir;
+        }
+
+        @Override
+        public void checkWritable() {
+            super.checkWritable();
+            if (!failAfterCheck) return;
+            failAfterCheck = false;
+            try {
+                Files.createDirectory(dir.resolve(String.format("journal-%020d.log", 2)));
+            } catch (IOException e) {
+                throw new AssertionError(e);
+            }
+            rotate();
+            assertThrows(IOException.class, this::sync);
+        }
+    }
+
+    @Test
+    void failureAfterTheCheckLeavesTheScheduleUnchanged() throws Exception {
+        LocalDate date = LocalDate.of(2026, 10, 19);
+        ScheduleRegistry registry = new ScheduleRegistry();
+        ScheduleManager schedule = registry.partition("journal", date);
+        FailingJournal journal = new FailingJournal(dir);
+        schedule.setChangeLog(journal);
+        schedule.addTask(breakfast);
+        List<Task> before = schedule.viewAllTasks();
+
+        journal.failAfterCheck = true;
+        Task lunch = new Task("Lunch", LocalTime.of(12, 0), LocalTime.of(13, 0), Priority.LOW);
+        assertThrows(IllegalStateException.class, () -> schedule.addAll(List.of(eva, lunch)));
+        assertEquals(before, schedule.viewAllTasks());
+        assertEquals(before, schedule.snapshot().getTasks());
+        assertEquals(1, schedule.size());
+        // the bookings made for the batch were handed back
+        assertTrue(registry.resources().bookings("Airlock", date).isEmpty());
+    }
+
+    @Test
+    void failureAfterTheCheckKeepsTheEditedTask() throws Exception {
+        LocalDate date = LocalDate.of(2026, 10, 19);
+        ScheduleRegistry registry = new ScheduleRegistry();
+        ScheduleManager schedule = registry.partition("journal", date);
+        FailingJournal journal = new FailingJournal(dir);
+        schedule.setChangeLog(journal);
+        schedule.addTask(eva);
+
+        journal.failAfterCheck = true;
+        assertThrows(IllegalStateException.class, () -> schedule.editTask("EVA", LocalTime.of(13, 0),
+                LocalTime.of(14, 0), Priority.LOW));
+        assertEquals(List.of(eva), schedule.viewAllTasks());
+        assertEquals(List.of(eva), schedule.getTasksByPriority(Priority.HIGH));
+        // the airlock is still booked at the old time
+        assertEquals(LocalTime.of(9, 0), registry.resources().bookings("Airlock", date).get(0).task().getStart());
+    }
+
+    @Test
+    void recoverRestoresSnapshotAndJournalTail() throws Exception {
+        LocalDate date = LocalDate.of(2026, 10, 19);
+        ScheduleManager first = new ScheduleRegistry().partition("first", date);
+        try (SchedulePersistence persistence = new SchedulePersistence(dir)) {
+            assertEquals(0, persistence.recover(first));
+            first.addTask(breakfast);
+            persistence.checkpoint();
+            first.addTask(eva);
+            first.markCompleted("Breakfast");
+            first.addRecurring(checks);
+            persistence.sync();
+        }
+
+        ScheduleManager second = new ScheduleRegistry().partition("second", date);
+        try (SchedulePersistence persistence = new SchedulePersistence(dir)) {
+            assertEquals(2, persistence.recover(second));
+            List<Task> tasks = second.viewAllTasks();
+            assertTrue(tasks.get(0).isCompleted());
+            assertEquals(eva.getResources(), tasks.get(1).getResources());
+            assertSameRule(checks, second.getRecurringTasks().get(0));
+            // the replayed tail was folded into the snapshot
+            assertEquals(1, Journal.segments(dir).size());
+        }
+    }
+
+    @Test
+    void appendAfterCloseIsRejected() throws Exception {
+        Journal journal = new Journal(dir, 0);
+        journal.close();
+        assertThrows(IllegalStateException.class, () -> journal.added(breakfast));
+    }
+
+    @Test
+    void snapshotRoundTripsTasksAndSequence() throws Exception {
+        Path file = dir.resolve("schedule.snapshot");
+        SnapshotFile.write(file, 42, List.of(breakfast.asCompleted(), eva), List.of(checks));
+        Map<Long, Task> state = new LinkedHashMap<>();
+        Map<Long, RecurringTask> rules = new LinkedHashMap<>();
+        assertEquals(42, SnapshotFile.read(file, state, rules));
+        assertEquals(2, state.size());
+        assertTrue(state.get(breakfast.getId()).isCompleted());
+        assertEquals(eva.getResources(), state.get(eva.getId()).getResources());
+        assertSameRule(checks, rules.get(checks.getId()));
+        assertEquals(0, SnapshotFile.read(dir.resolve("missing"), new LinkedHashMap<>(), new LinkedHashMap<>()));
+    }
+
+    @Test
+    void truncatedSnapshotIsAnError() throws Exception {
+        Path file = dir.resolve("schedule.snapshot");
+        SnapshotFile.write(file, 1, List.of(breakfast, eva), List.of(checks));
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ch.truncate(Files.size(file) - 1);
+        }
+        assertThrows(IOException.class, () -> SnapshotFile.read(file, new LinkedHashMap<>(), new LinkedHashMap<>()));
+    }
+
+    @Test
+    void snapshotFromBeforeLongIdsIsRejected() throws Exception {
+        // format 1 stored UUID ids; its header is otherwise the same
+        Path file = dir.resolve("schedule.snapshot");
+        ByteBuffer buf = ByteBuffer.allocate(64);
+        int frame = Records.begin(buf);
+        buf.putInt(0x53434844).putInt(1).putLong(0).putInt(0);
+        Records.end(buf, frame);
+        buf.flip();
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            ch.write(buf);
+        }
+        IOException e = assertThrows(IOException.class,
+                () -> SnapshotFile.read(file, new LinkedHashMap<>(), new LinkedHashMap<>()));
+        assertTrue(e.getMessage().contains("Unsupported snapshot format 1"), e.getMessage());
+    }
+
+    @Test
+    void taskCodecKeepsLongIdsAndReadsRecordsWithoutResources() {
+        Task big = new Task(Long.MAX_VALUE - 1, "Sleep", LocalTime.of(22, 0), LocalTime.MAX, Priority.LOW, true);
+        ByteBuffer buf = ByteBuffer.allocate(TaskCodec.maxSize(big));
+        TaskCodec.write(buf, big);
+        buf.flip();
+        // no resources: the record ends right after the completed flag, as before resources existed
+        assertEquals(8 + 4 + 5 + 8 + 8 + 1 + 1, buf.remaining());
+        Task read = TaskCodec.read(buf);
+        assertEquals(Long.MAX_VALUE - 1, read.getId());
+        assertEquals(LocalTime.MAX, read.getEnd());
+        assertTrue(read.isCompleted());
+        assertTrue(read.getResources().isEmpty());
+    }
+}
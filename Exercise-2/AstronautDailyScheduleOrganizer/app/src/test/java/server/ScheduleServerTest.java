@@ -0,0 +1,92 @@
+package server;
+
+import manager.ScheduleManager;
+import manager.ScheduleRegistry;
+import model.Priority;
+import model.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import util.Json;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScheduleServerTest {
+    private final HttpClient client = HttpClient.newHttpClient();
+    private ScheduleManager schedule;
+    private ScheduleServer server;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        schedule = new ScheduleRegistry().partition("server", LocalDate.of(2026, 10, 19));
+        schedule.addTask(new Task("EVA", LocalTime.of(9, 0), LocalTime.of(12, 0), Priority.HIGH));
+        server = new ScheduleServer(schedule, 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    private HttpResponse<String> send(String method, String path, String body) throws Exception {
+        URI uri = URI.create("http://localhost:" + server.getAddress().getPort() + path);
+        HttpRequest.BodyPublisher publisher = body == null ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(body);
+        return client.send(HttpRequest.newBuilder(uri).method(method, publisher).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> object(HttpResponse<String> response) {
+        return (Map<String, Object>) Json.parse(response.body());
+    }
+
+    @Test
+    void editWithoutPriorityKeepsIt() throws Exception {
+        HttpResponse<String> r = send("PUT", "/tasks/EVA", "{\"start\":\"13:00\",\"end\":\"15:00\"}");
+        assertEquals(200, r.statusCode());
+        assertEquals("HIGH", object(r).get("priority"));
+        assertEquals(Priority.HIGH, schedule.viewAllTasks().get(0).getPriority());
+
+        r = send("PUT", "/tasks/EVA", "{\"start\":\"13:00\",\"end\":\"15:00\",\"priority\":\"Low\"}");
+        assertEquals("LOW", object(r).get("priority"));
+    }
+
+    @Test
+    void batchEditWithoutPriorityKeepsIt() throws Exception {
+        HttpResponse<String> r = send("POST", "/batch",
+                "[{\"op\":\"edit\",\"description\":\"EVA\",\"start\":\"08:00\",\"end\":\"10:00\"}]");
+        assertEquals(200, r.statusCode());
+        List<?> results = (List<?>) object(r).get("results");
+        Map<?, ?> task = (Map<?, ?>) ((Map<?, ?>) results.get(0)).get("task");
+        assertEquals("HIGH", task.get("priority"));
+        assertEquals("08:00", task.get("start"));
+    }
+
+    @Test
+    void badEditsAreRejected() throws Exception {
+        assertEquals(400, send("PUT", "/tasks/EVA", "{\"start\":\"15:00\",\"end\":\"13:00\"}").statusCode());
+        assertEquals(404, send("PUT", "/tasks/Nope", "{\"start\":\"13:00\",\"end\":\"15:00\"}").statusCode());
+        assertEquals(LocalTime.of(9, 0), schedule.viewAllTasks().get(0).getStart());
+    }
+
+    @Test
+    void addReportsConflicts() throws Exception {
+        HttpResponse<String> r = send("POST", "/tasks",
+                "{\"description\":\"Lunch\",\"start\":\"12:00\",\"end\":\"13:00\",\"priority\":\"Low\"}");
+        assertEquals(201, r.statusCode());
+        r = send("POST", "/tasks", "{\"description\":\"Overlap\",\"start\":\"11:00\",\"end\":\"12:30\"}");
+        assertEquals(409, r.statusCode());
+        assertTrue(object(r).containsKey("error"));
+        assertEquals(2, ((List<?>) Json.parse(send("GET", "/tasks", null).body())).size());
+    }
+}
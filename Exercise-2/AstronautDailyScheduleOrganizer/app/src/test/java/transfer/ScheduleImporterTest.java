@@ -0,0 +1,126 @@
+package transfer;
+
+import manager.ScheduleManager;
+import manager.ScheduleRegistry;
+import model.Priority;
+import model.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScheduleImporterTest {
+    private static final LocalDate DATE = LocalDate.of(2026, 10, 19);
+
+    private ScheduleManager schedule;
+
+    @BeforeEach
+    void setUp() {
+        schedule = new ScheduleRegistry().partition("commander", DATE);
+    }
+
+    private ScheduleImporter.Result importText(ScheduleFormat format, String text) throws Exception {
+        // small buffers and chunks so records straddle reads and several addAll calls
+        return new ScheduleImporter(64, 2).importInto(schedule, format,
+                Channels.newChannel(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    void csvColumnsAreFoundByHeaderName() throws Exception {
+        ScheduleImporter.Result r = importText(ScheduleFormat.CSV,
+                "priority,end,start,description\r\nHigh,08:00,07:00,Breakfast\r\n,09:30:15,09:00,Briefing\r\n");
+        assertEquals(2, r.imported());
+        List<Task> tasks = schedule.viewAllTasks();
+        assertEquals(Priority.HIGH, tasks.get(0).getPriority());
+        assertEquals(Priority.MEDIUM, tasks.get(1).getPriority());
+        assertEquals(LocalTime.of(9, 30, 15), tasks.get(1).getEnd());
+    }
+
+    @Test
+    void csvQuotedFieldsMayHoldCommasQuotesAndNewlines() throws Exception {
+        ScheduleImporter.Result r = importText(ScheduleFormat.CSV,
+                "description,start,end,resources\n\"Say \"\"hi\"\", then\nwave\",10:00,11:00,\"Arm;Lab, 2\"\n");
+        assertEquals(1, r.imported(), r.errors().toString());
+        Task t = schedule.viewAllTasks().get(0);
+        assertEquals("Say \"hi\", then\nwave", t.getDescription());
+        assertEquals(Set.of("Arm", "Lab, 2"), Set.copyOf(t.getResources()));
+    }
+
+    @Test
+    void csvBadRowsAreReportedWithTheirLine() throws Exception {
+        ScheduleImporter.Result r = importText(ScheduleFormat.CSV,
+                "description,start,end\nA,07:00,08:00\nB,07:30,08:30\nC,7am,09:00\nD,10:00,09:00\nE,23:00,24:00\n");
+        assertEquals(2, r.imported());
+        assertEquals(3, r.rejected());
+        assertTrue(r.errors().stream().anyMatch(e -> e.startsWith("line 3:")), r.errors().toString());
+        assertTrue(r.errors().stream().anyMatch(e -> e.startsWith("line 4:")), r.errors().toString());
+        assertTrue(r.errors().stream().anyMatch(e -> e.startsWith("line 5:")), r.errors().toString());
+        assertEquals(LocalTime.MAX, schedule.viewAllTasks().get(1).getEnd());
+    }
+
+    @Test
+    void csvWithoutRequiredColumnsIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> importText(ScheduleFormat.CSV, "name,from,to\nA,07:00,08:00\n"));
+    }
+
+    @Test
+    void icalendarLinesAreUnfoldedAndUnescaped() throws Exception {
+        String ics = "BEGIN:VCALENDAR\r\nVERSION:2.0\r\n"
+                + "BEGIN:VEVENT\r\nDTSTART:20261019T230000\r\nDTEND:20261020T000000\r\n"
+                + "SUMMARY:Long\\, folded\r\n  summary\\; done\r\nPRIORITY:2\r\nRESOURCES:Arm,Lab\\, 2\r\n"
+                + "X-ASTRONAUT-COMPLETED:TRUE\r\nEND:VEVENT\r\n"
+                + "BEGIN:VEVENT\r\nDTSTART;VALUE=DATE:20261019\r\nSUMMARY:All day\r\nEND:VEVENT\r\n"
+                + "END:VCALENDAR\r\n";
+        ScheduleImporter.Result r = importText(ScheduleFormat.ICALENDAR, ics);
+        assertEquals(1, r.imported());
+        assertEquals(1, r.rejected());
+        Task t = schedule.viewAllTasks().get(0);
+        assertEquals("Long, folded summary; done", t.getDescription());
+        assertEquals(LocalTime.of(23, 0), t.getStart());
+        assertEquals(LocalTime.MAX, t.getEnd());
+        assertEquals(Priority.HIGH, t.getPriority());
+        assertTrue(t.isCompleted());
+        assertEquals(Set.of("Arm", "Lab, 2"), Set.copyOf(t.getResources()));
+    }
+
+    @Test
+    void everyFormatRoundTrips() throws Exception {
+        ScheduleManager source = new ScheduleRegistry().partition("source", DATE);
+        source.addTask(new Task("Plain", LocalTime.of(7, 0), LocalTime.of(8, 0), Priority.HIGH));
+        source.addTask(new Task("Quote \"x\", comma; semi\\back é", LocalTime.of(8, 0), LocalTime.of(9, 0, 30),
+                Priority.LOW, List.of("Arm", "Lab, 2")));
+        source.addTask(new Task("A description long enough to be folded across several iCalendar content lines ééé",
+                LocalTime.of(23, 0), LocalTime.MAX, Priority.MEDIUM).asCompleted());
+
+        for (ScheduleFormat format : ScheduleFormat.values()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            assertEquals(3, new ScheduleExporter(64).export(source, format, Channels.newChannel(out)));
+            ScheduleManager target = new ScheduleRegistry().partition("target", DATE);
+            ScheduleImporter.Result r = new ScheduleImporter(64, 2).importInto(target, format,
+                    Channels.newChannel(new ByteArrayInputStream(out.toByteArray())));
+            assertEquals(3, r.imported(), format + ": " + r.errors());
+
+            List<Task> expected = source.viewAllTasks();
+            List<Task> actual = target.viewAllTasks();
+            for (int i = 0; i < expected.size(); i++) {
+                Task e = expected.get(i);
+                Task a = actual.get(i);
+                assertEquals(e.getDescription(), a.getDescription(), format.toString());
+                assertEquals(e.getStart(), a.getStart(), format.toString());
+                assertEquals(e.getEnd(), a.getEnd(), format.toString());
+                assertEquals(e.getPriority(), a.getPriority(), format.toString());
+                assertEquals(e.isCompleted(), a.isCompleted(), format.toString());
+                assertEquals(e.getResources(), a.getResources(), format.toString());
+            }
+        }
+    }
+}
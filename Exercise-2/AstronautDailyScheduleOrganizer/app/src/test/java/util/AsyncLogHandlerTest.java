@@ -0,0 +1,100 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncLogHandlerTest {
+
+    /** Target handler that remembers what it was given and on which thread; can hold the writer on a message. */
+    private static final class Collector extends Handler {
+        final List<String> messages = new CopyOnWriteArrayList<>();
+        final List<String> threads = new CopyOnWriteArrayList<>();
+        final AtomicInteger closes = new AtomicInteger();
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        volatile String holdOn;
+
+        @Override
+        public void publish(LogRecord record) {
+            if (record.getMessage().equals(holdOn)) {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            messages.add(record.getMessage());
+            threads.add(Thread.currentThread().getName());
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+            closes.incrementAndGet();
+        }
+    }
+
+    private static LogRecord record(String message) {
+        LogRecord r = new LogRecord(Level.INFO, message);
+        r.setLoggerName("test");
+        return r;
+    }
+
+    @Test
+    void flushWaitsForTheWriterThread() {
+        Collector target = new Collector();
+        AsyncLogHandler handler = new AsyncLogHandler(64, target);
+        for (int i = 0; i < 10; i++) handler.publish(record("m" + i));
+        handler.flush();
+        assertEquals(10, target.messages.size());
+        assertEquals("m9", target.messages.get(9));
+        assertTrue(target.threads.stream().allMatch("async-log-writer"::equals));
+        handler.close();
+    }
+
+    @Test
+    void fullBufferDropsAndReportsRecords() throws Exception {
+        Collector target = new Collector();
+        target.holdOn = "first";
+        AsyncLogHandler handler = new AsyncLogHandler(2, target);
+        handler.publish(record("first"));
+        assertTrue(target.entered.await(5, TimeUnit.SECONDS));
+        handler.publish(record("second"));
+        handler.publish(record("third"));
+        handler.publish(record("lost"));
+        assertEquals(1, handler.getDroppedCount());
+        target.release.countDown();
+        handler.flush();
+        assertEquals(List.of("first", "second", "third", "1 log record(s) dropped: async log buffer full"),
+                target.messages);
+        handler.close();
+    }
+
+    @Test
+    void closeWritesTheRestOnceAndIgnoresLaterRecords() {
+        Collector target = new Collector();
+        AsyncLogHandler handler = new AsyncLogHandler(64, target);
+        for (int i = 0; i < 5; i++) handler.publish(record("m" + i));
+        handler.close();
+        handler.close();
+        assertEquals(5, target.messages.size());
+        assertEquals(1, target.closes.get());
+        handler.publish(record("late"));
+        handler.flush();
+        assertEquals(5, target.messages.size());
+    }
+}
@@ -0,0 +1,56 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonTest {
+
+    @Test
+    void parsesEveryKindOfValue() {
+        Object value = Json.parse(" {\"a\": [1, -2.5, true, false, null], \"b\": {}, \"c\": [], \"d\": \"x\"} ");
+        Map<?, ?> map = (Map<?, ?>) value;
+        assertEquals(List.of("a", "b", "c", "d"), List.copyOf(map.keySet()));
+        assertEquals(Arrays.asList(1L, -2.5, true, false, null), map.get("a"));
+        assertEquals(Map.of(), map.get("b"));
+        assertEquals(List.of(), map.get("c"));
+        assertEquals("x", map.get("d"));
+    }
+
+    @Test
+    void decodesEscapes() {
+        assertEquals("a\"b\\c/d\n\t\u00e9", Json.parse("\"a\\\"b\\\\c\\/d\\n\\t\\u00e9\""));
+    }
+
+    @Test
+    void rejectsMalformedInput() {
+        for (String bad : List.of("", "{", "[1,]", "{\"a\" 1}", "\"open", "\"\\x\"", "\"\\u12\"", "tru", "1 2",
+                "{a:1}", "1.2.3")) {
+            assertThrows(IllegalArgumentException.class, () -> Json.parse(bad), bad);
+        }
+    }
+
+    @Test
+    void writerOutputParsesBack() throws Exception {
+        StringWriter out = new StringWriter();
+        new JsonWriter(out).beginObject()
+                .name("text").value("quote \" and \\ and \n")
+                .name("n").value(42)
+                .name("ok").value(true)
+                .name("none").nullValue()
+                .name("list").beginArray().value("a").value(1).endArray()
+                .endObject().flush();
+        Map<?, ?> map = (Map<?, ?>) Json.parse(out.toString());
+        assertEquals("quote \" and \\ and \n", map.get("text"));
+        assertEquals(42L, map.get("n"));
+        assertEquals(true, map.get("ok"));
+        assertTrue(map.containsKey("none"));
+        assertNull(map.get("none"));
+        assertEquals(List.of("a", 1L), map.get("list"));
+    }
+}
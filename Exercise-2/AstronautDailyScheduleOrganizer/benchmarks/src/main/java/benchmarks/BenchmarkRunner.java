@@ -0,0 +1,39 @@
+package benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the selected benchmarks once per thread count, so contention scaling
+ * shows up as one result file per count:
+ *
+ *   java -Dthreads=1,2,4,8 -jar benchmarks/target/benchmarks.jar [JMH options] [regexp]
+ *
+ * Any normal JMH command-line option is passed through; results are written as
+ * JSON to jmh-result-&lt;threads&gt;t.json for comparing runs.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        String counts = System.getProperty("threads", "1,2,4,8");
+        for (String count : counts.split(",")) {
+            int threads = Integer.parseInt(count.trim());
+            ChainedOptionsBuilder options = new OptionsBuilder()
+                    .parent(cli)
+                    .threads(threads)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result("jmh-result-" + threads + "t.json");
+            System.out.println("# Running with " + threads + " thread(s)");
+            new Runner(options.build()).run();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package benchmarks;
+
+import manager.ScheduleManager;
+import server.ScheduleServer;
+import util.LatencyHistogram;
+import util.LatencyStats;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop load test for ScheduleServer. Starts the server in-process on a
+ * pre-filled schedule and runs N clients over keep-alive HTTP/1.1 connections,
+ * each issuing as many requests as it can:
+ *   - 8 of every 10 requests: GET a 15-minute range of tasks (about 100 at the default size)
+ *   - 1 of 10: POST a task into a gap reserved for that client
+ *   - 1 of 10: DELETE that task again
+ * so the schedule size stays constant.
+ *
+ *   java -cp benchmarks/target/benchmarks.jar -Dclients=16 -Dseconds=10 -Dtasks=10000 benchmarks.HttpLoadTest
+ */
+public final class HttpLoadTest {
+    private static final DateTimeFormatter HH_MM_SS = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    private HttpLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int clients = Integer.getInteger("clients", 16);
+        int seconds = Integer.getInteger("seconds", 10);
+        int tasks = Integer.getInteger("tasks", 10_000);
+        // same setting App uses for its server; see ScheduleServer
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+
+        ScheduleManager manager = ScheduleFixtures.filled(tasks);
+        try (ScheduleServer server = new ScheduleServer(manager, 0)) {
+            String base = "http://localhost:" + server.getAddress().getPort();
+            HttpClient http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+
+            LatencyHistogram latency = new LatencyHistogram();
+            LongAdder errors = new LongAdder();
+            // warm up the server and JIT before measuring
+            run(http, base, tasks, clients, TimeUnit.SECONDS.toNanos(Math.min(3, seconds)), new LatencyHistogram(),
+                    new LongAdder());
+            long start = System.nanoTime();
+            run(http, base, tasks, clients, TimeUnit.SECONDS.toNanos(seconds), latency, errors);
+            double elapsed = (System.nanoTime() - start) / 1e9;
+
+            LatencyStats stats = latency.snapshot();
+            System.out.printf("%d clients, %d tasks, %.1f s%n", clients, tasks, elapsed);
+            System.out.printf("requests: %d (%d errors), %.0f req/s%n", stats.getCount(), errors.sum(),
+                    stats.getCount() / elapsed);
+            System.out.printf("latency: p50 %d us, p99 %d us, p99.9 %d us, max %d us%n",
+                    stats.getP50Nanos() / 1000, stats.getP99Nanos() / 1000, stats.getP999Nanos() / 1000,
+                    stats.getMaxNanos() / 1000);
+        }
+    }
+
+    private static void run(HttpClient http, String base, int tasks, int clients, long durationNanos,
+                            LatencyHistogram latency, LongAdder errors) throws InterruptedException {
+        long deadline = System.nanoTime() + durationNanos;
+        List<Thread> threads = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            int client = c;
+            Thread t = new Thread(() -> clientLoop(http, base, tasks, client, clients, deadline, latency, errors),
+                    "load-client-" + c);
+            threads.add(t);
+            t.start();
+        }
+        for (Thread t : threads) t.join();
+    }
+
+    private static void clientLoop(HttpClient http, String base, int tasks, int client, int clients, long deadline,
+                                   LatencyHistogram latency, LongAdder errors) {
+        // each client adds and removes one task in the gap of its own slot, so clients never conflict
+        int slot = (int) ((long) tasks * client / clients);
+        String name = "load-" + client;
+        // the API takes whole seconds, so round the gap inwards (needs tasks <= ~20000)
+        LocalTime from = ScheduleFixtures.gapStart(tasks, slot).plusNanos(999_999_999).truncatedTo(ChronoUnit.SECONDS);
+        LocalTime to = ScheduleFixtures.gapEnd(tasks, slot).truncatedTo(ChronoUnit.SECONDS);
+        String add = String.format("{\"description\":\"%s\",\"start\":\"%s\",\"end\":\"%s\",\"priority\":\"LOW\"}",
+                name, from.format(HH_MM_SS), to.format(HH_MM_SS));
+        HttpRequest post = HttpRequest.newBuilder(URI.create(base + "/tasks"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(add)).build();
+        HttpRequest delete = HttpRequest.newBuilder(URI.create(base + "/tasks/" + name)).DELETE().build();
+        List<HttpRequest> ranges = new ArrayList<>();
+        for (int m = 0; m + 15 < 24 * 60; m += 15) {
+            ranges.add(HttpRequest.newBuilder(URI.create(String.format("%s/tasks?from=%02d:%02d&to=%02d:%02d",
+                    base, m / 60, m % 60, (m + 15) / 60, (m + 15) % 60))).GET().build());
+        }
+
+        int i = 0;
+        while (System.nanoTime() < deadline) {
+            HttpRequest request;
+            int expected;
+            switch (i % 10) {
+                case 8: request = post; expected = 201; break;
+                case 9: request = delete; expected = 204; break;
+                default: request = ranges.get((i + client) % ranges.size()); expected = 200;
+            }
+            i++;
+            long started = System.nanoTime();
+            try {
+                HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                if (response.statusCode() != expected) fail(errors, response.statusCode() + " " + request.uri());
+            } catch (Exception e) {
+                fail(errors, e + " " + request.uri());
+            }
+            latency.recordSince(started);
+        }
+        // stopped between the add and its remove: undo the add so the next run starts clean
+        if (i % 10 == 9) {
+            try {
+                http.send(delete, HttpResponse.BodyHandlers.discarding());
+            } catch (Exception e) {
+                fail(errors, e + " " + delete.uri());
+            }
+        }
+    }
+
+    private static void fail(LongAdder errors, String what) {
+        errors.increment();
+        if (errors.sum() <= 10) System.err.println("Request failed: " + what);
+    }
+}
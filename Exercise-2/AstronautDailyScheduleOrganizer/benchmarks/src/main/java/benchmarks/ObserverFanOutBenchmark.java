@@ -0,0 +1,78 @@
+package benchmarks;
+
+import model.Priority;
+import model.Task;
+import observer.EventBus;
+import observer.ScheduleEvent;
+import observer.ScheduleObserver;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Publishing one event to N observers through the EventBus. Observers use
+ * OverflowPolicy.BLOCK, so the measured rate is what the slowest delivery
+ * thread can sustain rather than how fast events can be dropped.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ObserverFanOutBenchmark {
+
+    @Param({"1", "4", "16"})
+    public int observers;
+
+    @Param({"1024"})
+    public int queueCapacity;
+
+    EventBus bus;
+    ScheduleObserver[] subscribed;
+    ScheduleEvent event;
+    final LongAdder delivered = new LongAdder();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bus = new EventBus();
+        subscribed = new ScheduleObserver[observers];
+        for (int i = 0; i < observers; i++) {
+            subscribed[i] = new ScheduleObserver() {
+                @Override
+                public void onNotification(String message) {
+                    delivered.increment();
+                }
+
+                @Override
+                public void onEvent(ScheduleEvent e) {
+                    // Blackhole is not safe to share with the delivery threads; count instead
+                    delivered.increment();
+                }
+            };
+            bus.subscribe(subscribed[i], queueCapacity, EventBus.OverflowPolicy.BLOCK);
+        }
+        event = ScheduleEvent.added(new Task("Telemetry check", LocalTime.of(9, 0), LocalTime.of(9, 30), Priority.HIGH));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for (ScheduleObserver o : subscribed) bus.unsubscribe(o);
+    }
+
+    @Benchmark
+    public void publish() {
+        bus.publish(event);
+    }
+
+    /** Publish and wait until every observer has seen the event (end-to-end latency). */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public boolean publishAndDeliver() throws InterruptedException {
+        bus.publish(event);
+        return bus.awaitDelivery(1, TimeUnit.SECONDS);
+    }
+}
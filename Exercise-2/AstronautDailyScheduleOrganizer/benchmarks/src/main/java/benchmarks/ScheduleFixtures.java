@@ -0,0 +1,80 @@
+package benchmarks;
+
+import manager.ScheduleManager;
+import manager.ScheduleRegistry;
+import model.Priority;
+import model.Task;
+import util.LoggerConfig;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Builds pre-filled schedules for the benchmarks. A schedule of n tasks splits
+ * the day into n equal slots and fills the first half of each one, so the
+ * second half of every slot is a gap a benchmark thread can use without
+ * conflicting with anything. Slots are nanosecond-sized for the large cases.
+ *
+ * Every add/edit/remove logs at INFO and rejected ones at WARNING, so by default
+ * logging is switched off and the root handlers removed, to measure the schedule
+ * rather than console writes; pass -jvmArgsAppend -Dbench.log=true to benchmark
+ * with the application's own (async) logging setup instead.
+ */
+final class ScheduleFixtures {
+    private static final long DAY_NANOS = 24L * 60 * 60 * 1_000_000_000L;
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    static {
+        if (Boolean.getBoolean("bench.log")) {
+            LoggerConfig.init();
+        } else {
+            Logger root = Logger.getLogger("");
+            root.setLevel(Level.OFF);
+            for (Handler h : root.getHandlers()) root.removeHandler(h);
+        }
+    }
+
+    private ScheduleFixtures() {
+    }
+
+    /** A fresh (non-singleton) manager holding size tasks. */
+    static ScheduleManager filled(int size) {
+        ScheduleManager manager = new ScheduleRegistry().partition("bench", LocalDate.of(2025, 1, 1));
+        List<Task> tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            tasks.add(new Task(description(i), taskStart(size, i), taskEnd(size, i), PRIORITIES[i % PRIORITIES.length]));
+        }
+        manager.restore(tasks);
+        return manager;
+    }
+
+    static String description(int i) {
+        return "Task " + i;
+    }
+
+    static long slotNanos(int size) {
+        return DAY_NANOS / size;
+    }
+
+    static LocalTime taskStart(int size, int i) {
+        return LocalTime.ofNanoOfDay(i * slotNanos(size));
+    }
+
+    static LocalTime taskEnd(int size, int i) {
+        return LocalTime.ofNanoOfDay(i * slotNanos(size) + slotNanos(size) / 2);
+    }
+
+    /** Start of the free second half of slot i. */
+    static LocalTime gapStart(int size, int i) {
+        return taskEnd(size, i);
+    }
+
+    static LocalTime gapEnd(int size, int i) {
+        return LocalTime.ofNanoOfDay((i + 1) * slotNanos(size) - 1);
+    }
+}
@@ -0,0 +1,130 @@
+package benchmarks;
+
+import exceptions.TaskConflictException;
+import exceptions.TaskNotFoundException;
+import manager.ScheduleManager;
+import model.Priority;
+import model.Task;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.time.LocalTime;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ScheduleManager write and read paths against a schedule of size tasks.
+ * All threads share one manager, so running with more threads (-t, or
+ * BenchmarkRunner's -Dthreads) shows how the operations scale under contention.
+ *
+ * Writes leave the schedule as they found it, so size stays fixed for the whole
+ * run: a successful add is paired with the remove that undoes it, and edits
+ * move a task back and forth inside its own slot. removeMissing covers the
+ * lookup side of removeTaskByDescription on its own.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScheduleManagerBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    ScheduleManager manager;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        manager = ScheduleFixtures.filled(size);
+    }
+
+    /** Per-thread cursor over its own range of slots, so threads never conflict with each other. */
+    @State(Scope.Thread)
+    public static class Cursor {
+        int first;
+        int count;
+        int offset;
+        int thread;
+        // slots whose task editTask has moved one nanosecond later
+        BitSet shifted;
+
+        @Setup(Level.Trial)
+        public void setUp(ScheduleManagerBenchmark bench, ThreadParams threads) {
+            thread = threads.getThreadIndex();
+            int n = threads.getThreadCount();
+            first = (int) ((long) bench.size * thread / n);
+            count = Math.max(1, (int) ((long) bench.size * (thread + 1) / n) - first);
+            shifted = new BitSet(count);
+        }
+
+        int next() {
+            int i = first + offset;
+            if (++offset == count) offset = 0;
+            return i;
+        }
+    }
+
+    @Benchmark
+    public void addTaskThenRemove(Cursor c) throws TaskConflictException, TaskNotFoundException {
+        int i = c.next();
+        String description = "Extra " + i;
+        manager.addTask(new Task(description, ScheduleFixtures.gapStart(size, i),
+                ScheduleFixtures.gapEnd(size, i), Priority.MEDIUM));
+        manager.removeTaskByDescription(description);
+    }
+
+    @Benchmark
+    public Object addTaskConflict(Cursor c) {
+        int i = c.next();
+        try {
+            manager.addTask(new Task("Clash " + i, ScheduleFixtures.taskStart(size, i),
+                    ScheduleFixtures.taskEnd(size, i), Priority.LOW));
+            throw new IllegalStateException("expected a conflict");
+        } catch (TaskConflictException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object removeMissing(Cursor c) {
+        try {
+            manager.removeTaskByDescription("Missing " + c.next());
+            throw new IllegalStateException("expected TaskNotFoundException");
+        } catch (TaskNotFoundException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public void editTask(Cursor c) throws TaskConflictException, TaskNotFoundException {
+        int i = c.next();
+        // alternate between the original times and the same times one nanosecond later
+        boolean shift = !c.shifted.get(i - c.first);
+        c.shifted.set(i - c.first, shift);
+        LocalTime start = ScheduleFixtures.taskStart(size, i).plusNanos(shift ? 1 : 0);
+        LocalTime end = ScheduleFixtures.taskEnd(size, i).plusNanos(shift ? 1 : 0);
+        manager.editTask(ScheduleFixtures.description(i), start, end, PRIORITIES[i % PRIORITIES.length]);
+    }
+
+    @Benchmark
+    public List<Task> viewAllTasks() {
+        return manager.viewAllTasks();
+    }
+
+    @Benchmark
+    public List<Task> getTasksByPriority() {
+        return manager.getTasksByPriority(Priority.HIGH);
+    }
+
+    /** Read right after a write, i.e. including the snapshot rebuild the write forces. */
+    @Benchmark
+    public List<Task> viewAllTasksAfterWrite(Cursor c) throws TaskConflictException, TaskNotFoundException {
+        editTask(c);
+        return manager.viewAllTasks();
+    }
+}
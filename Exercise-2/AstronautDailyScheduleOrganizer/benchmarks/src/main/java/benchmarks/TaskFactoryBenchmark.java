@@ -0,0 +1,70 @@
+package benchmarks;
+
+import exceptions.InvalidTimeFormatException;
+import factory.TaskBatch;
+import factory.TaskFactory;
+import factory.TaskRow;
+import model.Task;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Cost of turning raw user input into a Task, for accepted and rejected input. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskFactoryBenchmark {
+
+    @Param({"07:00", " 23:45 "})
+    public String start;
+
+    String end = "23:59";
+
+    // 1000 rows, every tenth one malformed
+    List<TaskRow> rows;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        rows = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            int minute = i % 1380;
+            String from = String.format("%02d:%02d", minute / 60, minute % 60);
+            String to = i % 10 == 9 ? "25:00" : String.format("%02d:%02d", (minute + 30) / 60, (minute + 30) % 60);
+            rows.add(new TaskRow("Task " + i, from, to, i % 2 == 0 ? "High" : "Low"));
+        }
+    }
+
+    @Benchmark
+    public Task createTask() throws InvalidTimeFormatException {
+        return TaskFactory.createTask("Morning Exercise", start, end, "High");
+    }
+
+    @Benchmark
+    public Object createTaskInvalidTime() {
+        try {
+            return TaskFactory.createTask("Morning Exercise", "7:0x", end, "High");
+        } catch (InvalidTimeFormatException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object createTaskEndBeforeStart() {
+        try {
+            return TaskFactory.createTask("Morning Exercise", end, start, "High");
+        } catch (InvalidTimeFormatException e) {
+            return e;
+        }
+    }
+
+    /** Per-row cost is this divided by 1000. */
+    @Benchmark
+    public TaskBatch createTasks1000() {
+        return TaskFactory.createTasks(rows);
+    }
+}
@@ -1,17 +1,47 @@
 
 import factory.TaskFactory;
+import manager.AutoScheduler;
 import manager.ScheduleManager;
+import manager.ScheduleManagerMonitor;
 import model.Task;
+import model.FlexibleTask;
+import model.MissionDays;
 import model.Priority;
+import model.RecurringTask;
+import model.TimeSlot;
+import observer.BufferedConsoleObserver;
+import observer.CoalescingObserver;
 import observer.ConsoleObserver;
+import persistence.SchedulePersistence;
+import server.ScheduleServer;
+import transfer.ScheduleExporter;
+import transfer.ScheduleFormat;
+import transfer.ScheduleImporter;
 import util.LoggerConfig;
 import exceptions.InvalidTimeFormatException;
 import exceptions.TaskConflictException;
 import exceptions.TaskNotFoundException;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.time.LocalTime;
 import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
@@ -20,20 +50,101 @@ import java.util.logging.Logger;
  */
 public class App {
     private static final Logger logger = Logger.getLogger(App.class.getName());
+    private static final int BATCH_BUFFER = 1 << 16;
     private final ScheduleManager manager = ScheduleManager.getInstance();
 
     private final Scanner scanner = new Scanner(System.in);
+    // schedule survives restarts in this directory (override with -Dschedule.data=...)
+    private final SchedulePersistence persistence =
+            new SchedulePersistence(Paths.get(System.getProperty("schedule.data", "schedule-data")));
+    private final AutoScheduler autoScheduler = new AutoScheduler();
+    // local HTTP/JSON API, only started when -Dschedule.http.port=... is given
+    private ScheduleServer server;
+    // notification digests, only used when -Dschedule.notify.window=<millis> is given
+    private CoalescingObserver digests;
 
     public static void main(String[] args) {
         // initialize logging
-        LoggerConfig.class.getName(); // triggers static init
-        App app = new App();
+        LoggerConfig.init();
+        // ScheduleServer latency; read once when the JDK server loads, so set it before any server starts
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        if (args.length > 0 && args[0].equals("--batch")) {
+            runBatch(args.length > 1 ? args[1] : "-");
+            return;
+        }
+        App app = new App(true);
         app.start();
     }
 
+    /**
+     * Run a command script (see BatchRunner) from a file, or from stdin when path
+     * is "-". No prompts, no per-event console observer, and all output goes
+     * through one large buffered writer that is flushed at the end.
+     */
+    private static void runBatch(String path) {
+        // per-command warnings would otherwise interleave with (and slow down) the output
+        LoggerConfig.setConsoleLevel(Level.SEVERE);
+        App app = new App(false);
+        Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(FileDescriptor.out),
+                StandardCharsets.UTF_8), BATCH_BUFFER);
+        long started = System.nanoTime();
+        try (BufferedReader script = path.equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8), BATCH_BUFFER)
+                : Files.newBufferedReader(Paths.get(path), StandardCharsets.UTF_8)) {
+            BatchRunner runner = new BatchRunner(app.manager, out);
+            runner.run(script);
+            out.write(String.format("%d command(s), %d error(s) in %d ms%n", runner.getCommandCount(),
+                    runner.getErrorCount(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)));
+            out.flush();
+        } catch (IOException | IllegalStateException e) {
+            // IllegalStateException: the journal failed, so later changes could not be saved
+            System.err.println("Batch failed: " + e.getMessage());
+            logger.severe("Batch failed: " + e);
+        } finally {
+            app.shutdown();
+        }
+    }
+
     public App() {
-        // register a simple console observer
-        manager.registerObserver(new ConsoleObserver("Commander"));
+        this(true);
+    }
+
+    private App(boolean interactive) {
+        // register a simple console observer, or a digest of changes per window when asked for
+        String window = System.getProperty("schedule.notify.window");
+        if (interactive && window != null) {
+            try {
+                digests = new CoalescingObserver(new BufferedConsoleObserver("Commander"),
+                        Duration.ofMillis(Long.parseLong(window.trim())), CoalescingObserver.DEFAULT_MAX_EVENTS);
+                manager.registerObserver(digests);
+            } catch (IllegalArgumentException e) {
+                println("Warning: invalid schedule.notify.window " + window + "; notifying per change.");
+                logger.warning("Invalid notification window: " + e);
+            }
+        }
+        if (interactive && digests == null) manager.registerObserver(new ConsoleObserver("Commander"));
+        // latency and contention metrics, visible in jconsole / VisualVM
+        ScheduleManagerMonitor.register(manager);
+        try {
+            int restored = persistence.recover(manager);
+            if (restored > 0) println("Restored " + restored + " task(s) from the previous session.");
+            persistence.checkpointEvery(Duration.ofMinutes(1), 1000);
+        } catch (IOException e) {
+            println("Warning: could not load saved schedule; changes will not be saved.");
+            logger.warning("Persistence unavailable: " + e);
+        }
+        String port = System.getProperty("schedule.http.port");
+        if (port != null) {
+            try {
+                server = new ScheduleServer(manager, Integer.parseInt(port.trim()));
+                println("HTTP API listening on http://localhost:" + server.getAddress().getPort() + "/tasks");
+            } catch (IOException | NumberFormatException e) {
+                println("Warning: could not start the HTTP API on port " + port + ".");
+                logger.warning("HTTP API unavailable: " + e);
+            }
+        }
     }
 
     private void start() {
@@ -61,6 +172,30 @@ public class App {
                 case "6":
                     handleViewByPriority();
                     break;
+                case "7":
+                    handleFindFreeSlots();
+                    break;
+                case "8":
+                    handleViewTimeRange();
+                    break;
+                case "9":
+                    handleAddRecurring();
+                    break;
+                case "10":
+                    handleRemoveRecurring();
+                    break;
+                case "11":
+                    handleShiftTasks();
+                    break;
+                case "12":
+                    handleAutoSchedule();
+                    break;
+                case "13":
+                    handleExport();
+                    break;
+                case "14":
+                    handleImport();
+                    break;
                 case "0":
                     running = false;
                     break;
@@ -68,9 +203,27 @@ public class App {
                     println("Unknown choice. Try again.");
             }
         }
+        shutdown();
         println("Exiting. Goodbye!");
     }
 
+    private void shutdown() {
+        if (server != null) server.close();
+        try {
+            // let queued observer notifications reach the console before exiting
+            manager.getEventBus().awaitDelivery(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (digests != null) digests.close();
+        try {
+            persistence.checkpoint();
+            persistence.close();
+        } catch (IOException | IllegalStateException e) {
+            logger.warning("Failed to save schedule: " + e);
+        }
+    }
+
     private void printHeader() {
         println("=== Astronaut Daily Schedule Organizer ===");
     }
@@ -83,6 +236,14 @@ public class App {
         println("4) Edit Task (optional)");
         println("5) Mark Task Complete (optional)");
         println("6) View Tasks by Priority (optional)");
+        println("7) Find Free Time Slots");
+        println("8) View Tasks in Time Range");
+        println("9) Add Recurring Task");
+        println("10) Remove Recurring Task");
+        println("11) Shift Tasks After a Time");
+        println("12) Auto-Schedule a Task");
+        println("13) Export Schedule (.csv, .jsonl or .ics)");
+        println("14) Import Schedule (.csv, .jsonl or .ics)");
         println("0) Exit");
     }
 
@@ -92,7 +253,8 @@ public class App {
             String start = readLine("Start time (HH:mm)");
             String end = readLine("End time (HH:mm)");
             String pr = readLine("Priority (High/Medium/Low)");
-            Task t = TaskFactory.createTask(desc, start, end, pr);
+            String uses = readLine("Shared resources, comma-separated (e.g. Airlock, Robotic Arm; blank for none)");
+            Task t = TaskFactory.createTask(desc, start, end, pr, TaskFactory.parseResources(uses));
             manager.addTask(t);
             println("Task added successfully. No conflicts.");
         } catch (InvalidTimeFormatException e) {
@@ -123,7 +285,8 @@ public class App {
 
     private void handleViewTasks() {
         try {
-            if (manager.isEmpty()) {
+            List<RecurringTask> routines = manager.getRecurringTasks();
+            if (manager.isEmpty() && routines.isEmpty()) {
                 println("No tasks scheduled for the day.");
                 return;
             }
@@ -132,6 +295,12 @@ public class App {
             for (Task t : tasks) {
                 println(t.toString());
             }
+            if (!routines.isEmpty()) {
+                println("Recurring tasks:");
+                for (RecurringTask r : routines) {
+                    println(r.toString());
+                }
+            }
         } catch (Exception e) {
             println("Unexpected error: " + e.getMessage());
             logger.severe("View tasks failed: " + e);
@@ -146,10 +315,11 @@ public class App {
             String pr = readLine("New priority (High/Medium/Low)");
             LocalTime s = LocalTime.parse(start.trim());
             LocalTime e = LocalTime.parse(end.trim());
+            if (!s.isBefore(e)) throw new InvalidTimeFormatException("Start time must be before end time.");
             Priority p = Priority.fromString(pr);
             manager.editTask(desc, s, e, p);
             println("Task edited successfully.");
-        } catch (TaskNotFoundException | TaskConflictException ex) {
+        } catch (InvalidTimeFormatException | TaskNotFoundException | TaskConflictException ex) {
             println("Error: " + ex.getMessage());
             logger.warning(ex.getMessage());
         } catch (Exception e) {
@@ -191,6 +361,171 @@ public class App {
         }
     }
 
+    private void handleFindFreeSlots() {
+        try {
+            String mins = readLine("Required length in minutes");
+            String from = readLine("Search from (HH:mm, blank for 00:00)");
+            String to = readLine("Search until (HH:mm, blank for end of day)");
+            Duration length = Duration.ofMinutes(Long.parseLong(mins.trim()));
+            LocalTime f = from.trim().isEmpty() ? LocalTime.MIDNIGHT : LocalTime.parse(from.trim());
+            LocalTime t = to.trim().isEmpty() ? LocalTime.MAX : LocalTime.parse(to.trim());
+            List<TimeSlot> slots = manager.findFreeSlots(length, f, t);
+            if (slots.isEmpty()) {
+                println("No free slot of " + length.toMinutes() + " minutes in that window.");
+            } else {
+                println("Free slots:");
+                for (TimeSlot slot : slots) {
+                    println(slot.toString());
+                }
+            }
+        } catch (Exception e) {
+            println("Invalid input or unexpected error: " + e.getMessage());
+            logger.severe("Find free slots failed: " + e);
+        }
+    }
+
+    private void handleViewTimeRange() {
+        try {
+            LocalTime from = LocalTime.parse(readLine("From (HH:mm)").trim());
+            LocalTime to = LocalTime.parse(readLine("To (HH:mm)").trim());
+            List<Task> list = manager.agenda(from, to);
+            if (list.isEmpty()) {
+                println("No tasks between " + from + " and " + to + ".");
+            } else {
+                println("Tasks between " + from + " and " + to + ":");
+                for (Task t : list) {
+                    println(t.toString());
+                }
+            }
+        } catch (Exception e) {
+            println("Invalid input or unexpected error: " + e.getMessage());
+            logger.severe("View time range failed: " + e);
+        }
+    }
+
+    private void handleAddRecurring() {
+        try {
+            String desc = readLine("Description");
+            LocalTime start = LocalTime.parse(readLine("First start time (HH:mm)").trim());
+            Duration length = Duration.ofMinutes(Long.parseLong(readLine("Length in minutes").trim()));
+            String every = readLine("Repeat every N minutes (blank for daily)").trim();
+            Priority p = Priority.fromString(readLine("Priority (High/Medium/Low)"));
+            RecurringTask rule;
+            if (every.isEmpty()) {
+                rule = RecurringTask.daily(desc, start, length, p, MissionDays.EVERY_DAY);
+            } else {
+                String until = readLine("Last start before (HH:mm, blank for end of day)").trim();
+                rule = RecurringTask.every(Duration.ofMinutes(Long.parseLong(every)), desc, start,
+                        until.isEmpty() ? LocalTime.MAX : LocalTime.parse(until), length, p, MissionDays.EVERY_DAY);
+            }
+            manager.addRecurring(rule);
+            println("Recurring task added: " + rule);
+        } catch (TaskConflictException e) {
+            println("Error: " + e.getMessage());
+            logger.warning(e.getMessage());
+        } catch (Exception e) {
+            println("Invalid input or unexpected error: " + e.getMessage());
+            logger.severe("Add recurring task failed: " + e);
+        }
+    }
+
+    private void handleRemoveRecurring() {
+        try {
+            String desc = readLine("Enter exact description of recurring task to remove");
+            manager.removeRecurring(desc);
+            println("Recurring task removed.");
+        } catch (TaskNotFoundException e) {
+            println("Error: " + e.getMessage());
+            logger.warning(e.getMessage());
+        } catch (Exception e) {
+            println("Unexpected error: " + e.getMessage());
+            logger.severe("Remove recurring task failed: " + e);
+        }
+    }
+
+    private void handleShiftTasks() {
+        try {
+            LocalTime from = LocalTime.parse(readLine("Move tasks starting at or after (HH:mm)").trim());
+            long minutes = Long.parseLong(readLine("By how many minutes (negative for earlier)").trim());
+            manager.transaction().shift(from, Duration.ofMinutes(minutes)).commit();
+            println("Tasks shifted by " + minutes + " minute(s).");
+        } catch (TaskConflictException e) {
+            println("Error: " + e.getMessage() + " Nothing was moved.");
+            logger.warning(e.getMessage());
+        } catch (Exception e) {
+            println("Invalid input or unexpected error: " + e.getMessage());
+            logger.severe("Shift tasks failed: " + e);
+        }
+    }
+
+    private void handleAutoSchedule() {
+        try {
+            String desc = readLine("Description");
+            Duration length = Duration.ofMinutes(Long.parseLong(readLine("Length in minutes").trim()));
+            String from = readLine("Not before (HH:mm, blank for 00:00)").trim();
+            String to = readLine("Finished by (HH:mm, blank for end of day)").trim();
+            Priority p = Priority.fromString(readLine("Priority (High/Medium/Low)"));
+            boolean bump = readLine("Move Low priority tasks if needed? (y/n)").trim().equalsIgnoreCase("y");
+            FlexibleTask request = new FlexibleTask(desc, length,
+                    from.isEmpty() ? LocalTime.MIDNIGHT : LocalTime.parse(from),
+                    to.isEmpty() ? LocalTime.MAX : LocalTime.parse(to), p);
+            AutoScheduler.Result result = autoScheduler.schedule(manager, List.of(request), bump);
+            if (result.placed().isEmpty()) {
+                println("No free time found for \"" + request.description() + "\" in that window.");
+                return;
+            }
+            println("Scheduled: " + result.placed().get(0));
+            for (Task t : result.moved()) println("Moved: " + t);
+            for (Task t : result.bumped()) println("Removed to make room: " + t);
+        } catch (Exception e) {
+            println("Invalid input or unexpected error: " + e.getMessage());
+            logger.severe("Auto-schedule failed: " + e);
+        }
+    }
+
+    private void handleExport() {
+        try {
+            Path path = Paths.get(readLine("File to write (.csv, .jsonl or .ics)").trim());
+            ScheduleFormat format = ScheduleFormat.forFileName(path.toString());
+            if (format == null) {
+                println("Unknown file type. Use .csv, .jsonl or .ics.");
+                return;
+            }
+            String which = readLine("Priority to export (High/Medium/Low, blank for all)").trim();
+            List<Task> tasks = which.isEmpty() ? manager.viewAllTasks()
+                    : manager.getTasksByPriority(Priority.fromString(which));
+            long written;
+            try (FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                written = new ScheduleExporter().export(tasks, format, null, ch);
+            }
+            println("Exported " + written + " task(s) to " + path + ".");
+        } catch (Exception e) {
+            println("Export failed: " + e.getMessage());
+            logger.severe("Export failed: " + e);
+        }
+    }
+
+    private void handleImport() {
+        try {
+            Path path = Paths.get(readLine("File to read (.csv, .jsonl or .ics)").trim());
+            ScheduleFormat format = ScheduleFormat.forFileName(path.toString());
+            if (format == null) {
+                println("Unknown file type. Use .csv, .jsonl or .ics.");
+                return;
+            }
+            ScheduleImporter.Result result;
+            try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+                result = new ScheduleImporter().importInto(manager, format, ch);
+            }
+            println("Imported " + result.imported() + " task(s); rejected " + result.rejected() + ".");
+            for (String error : result.errors()) println("  " + error);
+        } catch (Exception e) {
+            println("Import failed: " + e.getMessage());
+            logger.severe("Import failed: " + e);
+        }
+    }
+
     // Helper I/O wrappers
     private String readLine(String prompt) {
         System.out.print(prompt + ": ");
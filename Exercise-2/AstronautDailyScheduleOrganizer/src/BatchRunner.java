@@ -0,0 +1,257 @@
+import exceptions.TaskConflictException;
+import exceptions.TaskNotFoundException;
+import factory.TaskBatch;
+import factory.TaskFactory;
+import factory.TaskRow;
+import factory.TimeParser;
+import manager.ScheduleManager;
+import model.Priority;
+import model.Task;
+import model.TimeSlot;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Non-interactive mode for App: runs a command script, one command per line,
+ * and writes results to a (buffered) Writer instead of the console.
+ *
+ *   add      START END PRIORITY DESCRIPTION
+ *   edit     START END PRIORITY DESCRIPTION
+ *   remove   DESCRIPTION
+ *   complete DESCRIPTION
+ *   view
+ *   priority PRIORITY
+ *   range    FROM TO
+ *   free     MINUTES [FROM [TO]]
+ *
+ * Blank lines and lines starting with # are ignored. Runs of consecutive adds
+ * are validated together and applied with one ScheduleManager.addAll; if the
+ * group has a conflict, its tasks are added one by one instead so each line
+ * still gets its own result.
+ */
+final class BatchRunner {
+    private static final int MAX_GROUP = 10_000;
+
+    private final ScheduleManager manager;
+    private final Writer out;
+
+    // pending run of add commands
+    private final List<TaskRow> rows = new ArrayList<>();
+    private final List<Integer> rowLines = new ArrayList<>();
+
+    private long commands;
+    private long errors;
+
+    BatchRunner(ScheduleManager manager, Writer out) {
+        this.manager = manager;
+        this.out = out;
+    }
+
+    long getCommandCount() {
+        return commands;
+    }
+
+    long getErrorCount() {
+        return errors;
+    }
+
+    /** Run every command in the script. The writer is flushed but not closed. */
+    void run(BufferedReader script) throws IOException {
+        String line;
+        int lineNo = 0;
+        while ((line = script.readLine()) != null) {
+            lineNo++;
+            String s = line.strip();
+            if (s.isEmpty() || s.charAt(0) == '#') continue;
+            commands++;
+            int sp = s.indexOf(' ');
+            String command = sp < 0 ? s : s.substring(0, sp);
+            String rest = sp < 0 ? "" : s.substring(sp + 1).strip();
+            if (command.equalsIgnoreCase("add")) {
+                queueAdd(rest, lineNo);
+            } else {
+                flushAdds();
+                execute(command, rest, lineNo);
+            }
+        }
+        flushAdds();
+        out.flush();
+    }
+
+    private void queueAdd(String args, int lineNo) throws IOException {
+        String[] f = fields(args, 4);
+        if (f == null) {
+            error(lineNo, "Expected: add START END PRIORITY DESCRIPTION");
+            return;
+        }
+        rows.add(new TaskRow(f[3], f[0], f[1], f[2]));
+        rowLines.add(lineNo);
+        if (rows.size() >= MAX_GROUP) flushAdds();
+    }
+
+    private void flushAdds() throws IOException {
+        if (rows.isEmpty()) return;
+        TaskBatch batch = TaskFactory.createTasks(rows);
+        // result text per row, so output stays in script order
+        String[] results = new String[rows.size()];
+        for (TaskBatch.RowError e : batch.errors()) {
+            results[e.index()] = errorText(rowLines.get(e.index()), e.message());
+        }
+        List<Task> valid = batch.tasks();
+        boolean added = false;
+        if (!valid.isEmpty()) {
+            try {
+                manager.addAll(valid);
+                added = true;
+            } catch (TaskConflictException e) {
+                // fall back to one at a time to find out which lines conflict
+            }
+        }
+        int v = 0;
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] != null) continue;
+            Task t = valid.get(v++);
+            if (added) {
+                results[i] = "Task added: " + t.getDescription();
+            } else {
+                try {
+                    manager.addTask(t);
+                    results[i] = "Task added: " + t.getDescription();
+                } catch (TaskConflictException e) {
+                    results[i] = errorText(rowLines.get(i), e.getMessage());
+                }
+            }
+        }
+        for (String r : results) {
+            if (r.startsWith("Error")) errors++;
+            line(r);
+        }
+        rows.clear();
+        rowLines.clear();
+    }
+
+    private void execute(String command, String args, int lineNo) throws IOException {
+        try {
+            switch (command.toLowerCase(Locale.ROOT)) {
+                case "remove":
+                    manager.removeTaskByDescription(requireArg(args, "remove DESCRIPTION"));
+                    line("Task removed: " + args);
+                    break;
+                case "complete":
+                    Task done = manager.markCompleted(requireArg(args, "complete DESCRIPTION"));
+                    line("Task completed: " + done.getDescription());
+                    break;
+                case "edit": {
+                    String[] f = fields(args, 4);
+                    if (f == null) throw new IllegalArgumentException("Expected: edit START END PRIORITY DESCRIPTION");
+                    LocalTime start = time(f[0]);
+                    LocalTime end = time(f[1]);
+                    if (!start.isBefore(end)) throw new IllegalArgumentException("Start time must be before end time.");
+                    Task edited = manager.editTask(f[3], start, end, Priority.fromString(f[2]));
+                    line("Task edited: " + edited.getDescription());
+                    break;
+                }
+                case "view":
+                    list(manager.viewAllTasks(), "No tasks scheduled for the day.");
+                    break;
+                case "priority": {
+                    Priority p = Priority.fromString(args);
+                    list(manager.getTasksByPriority(p), "No tasks with priority: " + p);
+                    break;
+                }
+                case "range": {
+                    String[] f = fields(args, 2);
+                    if (f == null) throw new IllegalArgumentException("Expected: range FROM TO");
+                    list(manager.tasksBetween(time(f[0]), time(f[1])), "No tasks between " + f[0] + " and " + f[1] + ".");
+                    break;
+                }
+                case "free":
+                    free(args);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown command: " + command);
+            }
+        } catch (TaskNotFoundException | TaskConflictException | IllegalArgumentException e) {
+            error(lineNo, e.getMessage());
+        }
+    }
+
+    private void free(String args) throws IOException {
+        String[] f = args.isEmpty() ? new String[0] : args.split("\\s+");
+        if (f.length < 1 || f.length > 3) throw new IllegalArgumentException("Expected: free MINUTES [FROM [TO]]");
+        Duration length;
+        try {
+            length = Duration.ofMinutes(Long.parseLong(f[0]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number of minutes: " + f[0]);
+        }
+        LocalTime from = f.length > 1 ? time(f[1]) : LocalTime.MIDNIGHT;
+        LocalTime to = f.length > 2 ? time(f[2]) : LocalTime.MAX;
+        List<TimeSlot> slots = manager.findFreeSlots(length, from, to);
+        if (slots.isEmpty()) {
+            line("No free slot of " + length.toMinutes() + " minutes in that window.");
+        } else {
+            for (TimeSlot slot : slots) line(slot.toString());
+        }
+    }
+
+    private void list(List<Task> tasks, String ifEmpty) throws IOException {
+        if (tasks.isEmpty()) {
+            line(ifEmpty);
+            return;
+        }
+        for (Task t : tasks) line(t.toString());
+    }
+
+    /**
+     * Split off n-1 whitespace-separated fields; the last field is the rest of
+     * the line (so a description may contain spaces). Null if there are too few.
+     */
+    private static String[] fields(String s, int n) {
+        String[] f = new String[n];
+        int pos = 0;
+        for (int i = 0; i < n - 1; i++) {
+            while (pos < s.length() && s.charAt(pos) == ' ') pos++;
+            int end = s.indexOf(' ', pos);
+            if (end < 0) return null;
+            f[i] = s.substring(pos, end);
+            pos = end + 1;
+        }
+        String last = s.substring(Math.min(pos, s.length())).strip();
+        if (last.isEmpty()) return null;
+        f[n - 1] = last;
+        return f;
+    }
+
+    private static String requireArg(String args, String usage) {
+        if (args.isEmpty()) throw new IllegalArgumentException("Expected: " + usage);
+        return args;
+    }
+
+    private static LocalTime time(String s) {
+        LocalTime t = TimeParser.parse(s);
+        if (t == null) throw new IllegalArgumentException("Invalid time format. Expected HH:mm (e.g., 07:00).");
+        return t;
+    }
+
+    private void error(int lineNo, String message) throws IOException {
+        errors++;
+        line(errorText(lineNo, message));
+    }
+
+    private static String errorText(int lineNo, String message) {
+        return "Error (line " + lineNo + "): " + message;
+    }
+
+    private void line(String s) throws IOException {
+        out.write(s);
+        out.write('\n');
+    }
+}
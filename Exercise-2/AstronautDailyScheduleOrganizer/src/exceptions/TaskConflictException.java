@@ -1,7 +1,18 @@
 package exceptions;
 
+import java.util.Collections;
+import java.util.List;
 
 public class TaskConflictException extends Exception {
-    public TaskConflictException(String msg) { super(msg); }
-}
+    private final List<String> conflicts;
+
+    public TaskConflictException(String msg) { this(msg, Collections.singletonList(msg)); }
 
+    public TaskConflictException(String msg, List<String> conflicts) {
+        super(msg);
+        this.conflicts = List.copyOf(conflicts);
+    }
+
+    /** Every conflict found; a single entry unless thrown by a bulk operation. */
+    public List<String> getConflicts() { return conflicts; }
+}
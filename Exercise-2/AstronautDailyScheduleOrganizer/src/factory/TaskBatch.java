@@ -0,0 +1,29 @@
+package factory;
+
+import model.Task;
+
+import java.util.List;
+
+/**
+ * Result of TaskFactory.createTasks: the rows that were valid, in input order,
+ * and an error for each row that was not.
+ */
+public record TaskBatch(List<Task> tasks, List<RowError> errors) {
+
+    /** Why the row at index (0-based, in the input list) was rejected. */
+    public record RowError(int index, String message) {
+        @Override
+        public String toString() {
+            return "row " + (index + 1) + ": " + message;
+        }
+    }
+
+    public TaskBatch {
+        tasks = List.copyOf(tasks);
+        errors = List.copyOf(errors);
+    }
+
+    public boolean hasErrors() {
+        return !errors.isEmpty();
+    }
+}
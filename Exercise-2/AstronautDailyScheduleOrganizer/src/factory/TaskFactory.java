@@ -5,36 +5,91 @@ import model.Task;
 import model.Priority;
 import exceptions.InvalidTimeFormatException;
 
-import java.time.LocalTime;
-import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 
 /**
  * Create Task objects with validation.
+ * Times are parsed by TimeParser, so invalid input is detected without
+ * exceptions; createTasks validates many rows in one pass.
  */
 public class TaskFactory {
+    private static final String BAD_FORMAT = "Invalid time format. Expected HH:mm (e.g., 07:00).";
+    private static final String BAD_ORDER = "Start time must be before end time.";
 
     /**
-     * Create a Task from raw inputs (times as strings "HH:mm").
+     * Create a Task from raw inputs (times as strings "HH:mm" or "HH:mm:ss").
      * Throws InvalidTimeFormatException on invalid time or start >= end.
      */
     public static Task createTask(String description, String startTime, String endTime, String priorityStr)
             throws InvalidTimeFormatException {
+        return createTask(description, startTime, endTime, priorityStr, Collections.emptyList());
+    }
+
+    /** Same, for a task that uses shared resources (e.g. "Airlock", "Robotic Arm"). */
+    public static Task createTask(String description, String startTime, String endTime, String priorityStr,
+                                  Collection<String> resources) throws InvalidTimeFormatException {
         Objects.requireNonNull(description, "description cannot be null");
-        try {
-            LocalTime start = parseTime(startTime);
-            LocalTime end = parseTime(endTime);
-            if (!start.isBefore(end)) {
-                throw new InvalidTimeFormatException("Start time must be before end time.");
+        Objects.requireNonNull(resources, "resources cannot be null");
+        int start = TimeParser.parseSecondOfDay(startTime);
+        int end = TimeParser.parseSecondOfDay(endTime);
+        String error = check(start, end);
+        if (error != null) {
+            throw new InvalidTimeFormatException(error);
+        }
+        return new Task(description.trim(), TimeParser.toLocalTime(start), TimeParser.toLocalTime(end),
+                Priority.fromString(priorityStr), resources);
+    }
+
+    /** Split a comma-separated list of resource names; blank input means none. */
+    public static List<String> parseResources(String input) {
+        if (input == null || input.isBlank()) return Collections.emptyList();
+        List<String> names = new ArrayList<>();
+        for (String part : input.split(",")) {
+            if (!part.isBlank()) names.add(part.trim());
+        }
+        return names;
+    }
+
+    /**
+     * Validate and create every row in one pass. Bad rows do not stop the batch;
+     * each one is reported in TaskBatch.errors() with its index.
+     */
+    public static TaskBatch createTasks(List<TaskRow> rows) {
+        Objects.requireNonNull(rows, "rows cannot be null");
+        List<Task> tasks = new ArrayList<>(rows.size());
+        List<TaskBatch.RowError> errors = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            TaskRow row = rows.get(i);
+            String error;
+            if (row == null || row.description() == null || row.description().isBlank()) {
+                error = "Description cannot be empty.";
+            } else {
+                int start = TimeParser.parseSecondOfDay(row.start());
+                int end = TimeParser.parseSecondOfDay(row.end());
+                error = check(start, end);
+                if (error == null) {
+                    tasks.add(build(row.description(), start, end, row.priority()));
+                    continue;
+                }
             }
-            Priority priority = Priority.fromString(priorityStr);
-            return new Task(description.trim(), start, end, priority);
-        } catch (DateTimeParseException e) {
-            throw new InvalidTimeFormatException("Invalid time format. Expected HH:mm (e.g., 07:00).");
+            errors.add(new TaskBatch.RowError(i, error));
         }
+        return new TaskBatch(tasks, errors);
+    }
+
+    // error message for a parsed start/end pair, or null if it is valid
+    private static String check(int start, int end) {
+        if (start == TimeParser.INVALID || end == TimeParser.INVALID) return BAD_FORMAT;
+        if (start >= end) return BAD_ORDER;
+        return null;
     }
 
-    private static LocalTime parseTime(String t) {
-        return LocalTime.parse(t.trim());
+    private static Task build(String description, int start, int end, String priorityStr) {
+        return new Task(description.trim(), TimeParser.toLocalTime(start), TimeParser.toLocalTime(end),
+                Priority.fromString(priorityStr));
     }
 }
@@ -0,0 +1,5 @@
+package factory;
+
+/** One unvalidated task as read from input: the same four strings createTask takes. */
+public record TaskRow(String description, String start, String end, String priority) {
+}
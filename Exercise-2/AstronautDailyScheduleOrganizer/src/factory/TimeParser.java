@@ -0,0 +1,66 @@
+package factory;
+
+import java.time.LocalTime;
+
+/**
+ * Hand-rolled parser for "HH:mm" and "HH:mm:ss" (surrounding whitespace
+ * allowed). Reports bad input with a return value instead of an exception, so
+ * rejecting a row costs no stack trace, and whole-minute times come from a
+ * shared cache instead of being allocated per call.
+ */
+public final class TimeParser {
+    /** Returned by parseSecondOfDay for input that is not a valid time. */
+    public static final int INVALID = -1;
+
+    private static final LocalTime[] MINUTES = new LocalTime[24 * 60];
+
+    static {
+        for (int m = 0; m < MINUTES.length; m++) {
+            MINUTES[m] = LocalTime.of(m / 60, m % 60);
+        }
+    }
+
+    private TimeParser() {
+    }
+
+    /** Seconds since midnight for "HH:mm" or "HH:mm:ss", or INVALID. */
+    public static int parseSecondOfDay(CharSequence s) {
+        if (s == null) return INVALID;
+        int from = 0;
+        int to = s.length();
+        while (from < to && s.charAt(from) <= ' ') from++;
+        while (to > from && s.charAt(to - 1) <= ' ') to--;
+        int len = to - from;
+        if (len != 5 && len != 8) return INVALID;
+        if (s.charAt(from + 2) != ':') return INVALID;
+        int hour = twoDigits(s, from);
+        int minute = twoDigits(s, from + 3);
+        int second = 0;
+        if (len == 8) {
+            if (s.charAt(from + 5) != ':') return INVALID;
+            second = twoDigits(s, from + 6);
+        }
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) return INVALID;
+        return hour * 3600 + minute * 60 + second;
+    }
+
+    // value of two ASCII digits at i, or -1
+    private static int twoDigits(CharSequence s, int i) {
+        int hi = s.charAt(i) - '0';
+        int lo = s.charAt(i + 1) - '0';
+        if (hi < 0 || hi > 9 || lo < 0 || lo > 9) return -1;
+        return hi * 10 + lo;
+    }
+
+    /** LocalTime for a value from parseSecondOfDay; whole minutes are shared instances. */
+    public static LocalTime toLocalTime(int secondOfDay) {
+        if (secondOfDay % 60 == 0) return MINUTES[secondOfDay / 60];
+        return LocalTime.ofSecondOfDay(secondOfDay);
+    }
+
+    /** Parsed time, or null if the input is not "HH:mm" or "HH:mm:ss". */
+    public static LocalTime parse(CharSequence s) {
+        int seconds = parseSecondOfDay(s);
+        return seconds == INVALID ? null : toLocalTime(seconds);
+    }
+}
@@ -0,0 +1,315 @@
+package manager;
+
+import exceptions.TaskConflictException;
+import exceptions.TaskNotFoundException;
+import model.FlexibleTask;
+import model.Priority;
+import model.RecurringTask;
+import model.Task;
+import model.TimeSlot;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Places flexible tasks (a length, an allowed window and a priority) into
+ * schedules instead of making the caller try times by hand.
+ *
+ * Planning is greedy: requests go in order of priority weight, tightest window
+ * first, each at the earliest free minute-aligned time in its window. When
+ * bumping is allowed, a HIGH or MEDIUM request that does not fit takes the
+ * position that displaces the least LOW weight, as long as that weight is below
+ * the request's own (a MEDIUM task is not worth ten LOW ones); displaced LOW
+ * tasks are moved to the earliest free time of the day, or removed if there is
+ * none. This is not guaranteed to be optimal, but it is linear in the size of
+ * the day.
+ *
+ * LOW tasks that book shared resources are never bumped: moving them could
+ * double-book a resource in another crew member's schedule, which the planner
+ * does not see. Placed tasks book no resources.
+ *
+ * Plans are computed from the lock-free snapshot and applied with one
+ * ScheduleTransaction, so the schedule is never half-planned; if a concurrent
+ * change to the schedule or its recurring tasks makes the commit fail, the plan
+ * is recomputed. Many partitions are
+ * planned and committed in parallel on a fork-join pool.
+ */
+public class AutoScheduler {
+    private static final Logger logger = Logger.getLogger(AutoScheduler.class.getName());
+    private static final int MAX_ATTEMPTS = 3;
+    private static final Comparator<FlexibleTask> ORDER = Comparator
+            .comparingInt((FlexibleTask f) -> -f.priority().getWeight())
+            .thenComparing(FlexibleTask::slack)
+            .thenComparing(FlexibleTask::length, Comparator.reverseOrder());
+
+    private final ForkJoinPool pool;
+
+    public AutoScheduler() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public AutoScheduler(ForkJoinPool pool) {
+        this.pool = Objects.requireNonNull(pool, "pool cannot be null");
+    }
+
+    /**
+     * What a run did: new tasks placed, LOW tasks moved (as now stored) or
+     * removed to make room, and requests that could not be placed.
+     */
+    public record Result(List<Task> placed, List<Task> moved, List<Task> bumped, List<FlexibleTask> unplaced) {
+        /** Total priority weight of the placed requests. */
+        public int score() {
+            int score = 0;
+            for (Task t : placed) score += t.getPriority().getWeight();
+            return score;
+        }
+    }
+
+    /** Work out placements for schedule without changing it. */
+    public Result plan(ScheduleManager schedule, List<FlexibleTask> requests, boolean allowBumping) {
+        Objects.requireNonNull(schedule, "schedule cannot be null");
+        Objects.requireNonNull(requests, "requests cannot be null");
+        return new Planner(schedule, schedule.snapshot(), allowBumping).plan(requests);
+    }
+
+    /**
+     * Plan and apply in one transaction. If the commit fails and the schedule
+     * keeps changing under the planner, or did not change at all (so a new plan
+     * would fail the same way), nothing is applied and every request comes back
+     * unplaced.
+     */
+    public Result schedule(ScheduleManager schedule, List<FlexibleTask> requests, boolean allowBumping) {
+        Objects.requireNonNull(schedule, "schedule cannot be null");
+        Objects.requireNonNull(requests, "requests cannot be null");
+        for (int attempt = 1; ; attempt++) {
+            ScheduleSnapshot base = schedule.snapshot();
+            // read before the planner reads the rules, so a later change is never missed
+            long rulesVersion = schedule.getRecurrenceRules().getVersion();
+            Result result = new Planner(schedule, base, allowBumping).plan(requests);
+            if (result.placed().isEmpty() && result.moved().isEmpty() && result.bumped().isEmpty()) return result;
+            ScheduleTransaction tx = schedule.transaction();
+            for (Task t : result.bumped()) tx.remove(t.getDescription());
+            for (Task t : result.moved()) tx.edit(t.getDescription(), t.getStart(), t.getEnd(), t.getPriority());
+            for (Task t : result.placed()) tx.add(t);
+            try {
+                tx.commit();
+                logger.log(Level.INFO, "Auto-scheduled {0} of {1} task(s) for {2}", new Object[] {
+                        result.placed().size(), requests.size(), schedule.getKey() == null ? "default" : schedule.getKey()});
+                return result;
+            } catch (TaskConflictException | TaskNotFoundException e) {
+                boolean changed = schedule.snapshot().getVersion() != base.getVersion()
+                        || schedule.getRecurrenceRules().getVersion() != rulesVersion;
+                if (!changed) {
+                    logger.warning("Auto-schedule plan rejected: " + e.getMessage());
+                    return new Result(List.of(), List.of(), List.of(), List.copyOf(requests));
+                }
+                if (attempt == MAX_ATTEMPTS) {
+                    logger.warning("Auto-schedule gave up after " + attempt + " attempts: " + e.getMessage());
+                    return new Result(List.of(), List.of(), List.of(), List.copyOf(requests));
+                }
+                // the schedule changed since the snapshot was taken; plan again
+            }
+        }
+    }
+
+    /**
+     * Schedule every partition in requests (created if needed) in parallel.
+     * Partitions are independent, so each is planned and committed on its own.
+     */
+    public SortedMap<ScheduleKey, Result> scheduleAll(ScheduleRegistry registry,
+                                                      Map<ScheduleKey, List<FlexibleTask>> requests,
+                                                      boolean allowBumping) {
+        Objects.requireNonNull(registry, "registry cannot be null");
+        Objects.requireNonNull(requests, "requests cannot be null");
+        List<PartitionTask> tasks = new ArrayList<>(requests.size());
+        requests.forEach((key, list) -> tasks.add(new PartitionTask(registry.partition(key), list, allowBumping)));
+        return pool.invoke(new RecursiveTask<SortedMap<ScheduleKey, Result>>() {
+            @Override
+            protected SortedMap<ScheduleKey, Result> compute() {
+                ForkJoinTask.invokeAll(tasks);
+                SortedMap<ScheduleKey, Result> results = new TreeMap<>();
+                for (PartitionTask t : tasks) results.put(t.schedule.getKey(), t.join());
+                return results;
+            }
+        });
+    }
+
+    private final class PartitionTask extends RecursiveTask<Result> {
+        final ScheduleManager schedule;
+        final List<FlexibleTask> requests;
+        final boolean allowBumping;
+
+        PartitionTask(ScheduleManager schedule, List<FlexibleTask> requests, boolean allowBumping) {
+            this.schedule = schedule;
+            this.requests = requests;
+            this.allowBumping = allowBumping;
+        }
+
+        @Override
+        protected Result compute() {
+            return schedule(schedule, requests, allowBumping);
+        }
+    }
+
+    /** Planning state for one schedule. */
+    private static final class Planner {
+        private final boolean allowBumping;
+        // everything that cannot move: tasks other than pending LOW ones without resources,
+        // recurring occurrences, placements
+        private final OccupancyMap fixed = new OccupancyMap();
+        // fixed plus the LOW tasks that may still be bumped
+        private final OccupancyMap all = new OccupancyMap();
+        private final List<Task> bumpable = new ArrayList<>();
+        private final Set<String> names = new HashSet<>();
+
+        private final List<Task> placed = new ArrayList<>();
+        private final List<Task> displaced = new ArrayList<>();
+        private final List<Task> moved = new ArrayList<>();
+        private final List<Task> bumped = new ArrayList<>();
+        private final List<FlexibleTask> unplaced = new ArrayList<>();
+
+        Planner(ScheduleManager schedule, ScheduleSnapshot snapshot, boolean allowBumping) {
+            this.allowBumping = allowBumping;
+            for (Task t : snapshot.getTasks()) {
+                names.add(ScheduleManager.key(t.getDescription()));
+                all.occupy(t.getStart(), t.getEnd());
+                if (t.getPriority() == Priority.LOW && !t.isCompleted() && t.getResources().isEmpty()) {
+                    bumpable.add(t); // already in start order
+                } else {
+                    fixed.occupy(t.getStart(), t.getEnd());
+                }
+            }
+            for (RecurringTask r : schedule.getRecurringTasks()) {
+                for (Task o : r.occurrences(LocalTime.MIDNIGHT, LocalTime.MAX)) {
+                    fixed.occupy(o.getStart(), o.getEnd());
+                    all.occupy(o.getStart(), o.getEnd());
+                }
+            }
+        }
+
+        Result plan(List<FlexibleTask> requests) {
+            List<FlexibleTask> ordered = new ArrayList<>(requests);
+            ordered.sort(ORDER);
+            boolean relocated = false;
+            for (FlexibleTask f : ordered) {
+                // tasks that were already in the schedule get back in before new LOW requests
+                if (!relocated && f.priority() == Priority.LOW) {
+                    relocateDisplaced();
+                    relocated = true;
+                }
+                place(f);
+            }
+            if (!relocated) relocateDisplaced();
+            return new Result(placed, moved, bumped, unplaced);
+        }
+
+        private void place(FlexibleTask f) {
+            String key = ScheduleManager.key(f.description());
+            if (!names.add(key)) {
+                unplaced.add(f);
+                return;
+            }
+            TimeSlot slot = all.firstFit(f.length(), f.earliest(), f.latest());
+            if (slot == null && allowBumping && f.priority() != Priority.LOW) slot = bumpFor(f);
+            if (slot == null) {
+                names.remove(key);
+                unplaced.add(f);
+                return;
+            }
+            Task t = new Task(f.description(), slot.start(), end(slot.start(), f.length()), f.priority());
+            fixed.occupy(t.getStart(), t.getEnd());
+            all.occupy(t.getStart(), t.getEnd());
+            placed.add(t);
+        }
+
+        /**
+         * Best start for f if LOW tasks could be moved out of the way: among the
+         * free windows of the fixed map, try each window start and each point
+         * just after a LOW task ends, and keep the one overlapping the least LOW
+         * weight (earliest on ties). The overlapped tasks are displaced, unless
+         * together they weigh at least as much as f, in which case f is not placed.
+         */
+        private TimeSlot bumpFor(FlexibleTask f) {
+            long length = f.length().toNanos();
+            long bestStart = -1;
+            int bestCost = Integer.MAX_VALUE;
+            for (TimeSlot w : fixed.freeSlots(f.length(), f.earliest(), f.latest())) {
+                long ws = w.start().toNanoOfDay();
+                long we = nanos(w.end());
+                List<Long> candidates = new ArrayList<>();
+                candidates.add(ws);
+                for (Task b : bumpable) {
+                    long e = ceilMinute(nanos(b.getEnd()));
+                    if (e > ws && e + length <= we) candidates.add(e);
+                }
+                for (long c : candidates) {
+                    int cost = overlapCost(c, c + length);
+                    if (cost < bestCost) {
+                        bestCost = cost;
+                        bestStart = c;
+                    }
+                }
+            }
+            if (bestStart < 0 || bestCost >= f.priority().getWeight()) return null;
+            LocalTime start = LocalTime.ofNanoOfDay(bestStart);
+            LocalTime end = end(start, f.length());
+            for (Iterator<Task> it = bumpable.iterator(); it.hasNext(); ) {
+                Task b = it.next();
+                if (b.getStart().isBefore(end) && b.getEnd().isAfter(start)) {
+                    it.remove();
+                    all.release(b.getStart(), b.getEnd());
+                    displaced.add(b);
+                }
+            }
+            return new TimeSlot(start, end);
+        }
+
+        private int overlapCost(long from, long to) {
+            int cost = 0;
+            for (Task b : bumpable) {
+                long s = b.getStart().toNanoOfDay();
+                if (s >= to) break;
+                if (nanos(b.getEnd()) > from) cost += b.getPriority().getWeight();
+            }
+            return cost;
+        }
+
+        // displaced LOW tasks go to the earliest free time of the day, or are dropped
+        private void relocateDisplaced() {
+            for (Task b : displaced) {
+                Duration length = Duration.between(b.getStart(), b.getEnd());
+                TimeSlot slot = all.firstFit(length, LocalTime.MIDNIGHT, LocalTime.MAX);
+                if (slot == null) {
+                    bumped.add(b);
+                    continue;
+                }
+                Task m = b.withSchedule(slot.start(), end(slot.start(), length), b.getPriority());
+                fixed.occupy(m.getStart(), m.getEnd());
+                all.occupy(m.getStart(), m.getEnd());
+                moved.add(m);
+            }
+            displaced.clear();
+        }
+
+        private static LocalTime end(LocalTime start, Duration length) {
+            long e = start.toNanoOfDay() + length.toNanos();
+            return e >= 24L * 60 * 60 * 1_000_000_000L ? LocalTime.MAX : LocalTime.ofNanoOfDay(e);
+        }
+
+        // LocalTime.MAX stands for midnight at the end of the day
+        private static long nanos(LocalTime t) {
+            return t.equals(LocalTime.MAX) ? t.toNanoOfDay() + 1 : t.toNanoOfDay();
+        }
+
+        private static long ceilMinute(long nanos) {
+            long minute = 60_000_000_000L;
+            return (nanos + minute - 1) / minute * minute;
+        }
+    }
+}
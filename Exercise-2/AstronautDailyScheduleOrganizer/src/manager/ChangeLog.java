@@ -0,0 +1,44 @@
+package manager;
+
+import model.RecurringTask;
+import model.Task;
+
+/**
+ * Receives every successful change to a ScheduleManager, in order, while the
+ * manager lock is held. That includes the recurring rules that apply to the
+ * schedule, which RecurrenceRules reports to each schedule it touches. Implementations must be quick (e.g. buffer and
+ * write later) because they delay the writer.
+ *
+ * Task changes are reported after every check has passed but before the
+ * schedule applies them; if a method throws, the change is abandoned and the
+ * schedule stays as it was.
+ */
+public interface ChangeLog {
+    /**
+     * Throw an unchecked exception if changes can no longer be recorded. Called
+     * before a change is applied, so it is rejected rather than silently lost.
+     */
+    default void checkWritable() {
+    }
+
+    /**
+     * The changes reported until endGroup() were made by one call and must be
+     * recovered together or not at all (addAll, a transaction commit).
+     */
+    default void beginGroup() {
+    }
+
+    default void endGroup() {
+    }
+
+    void added(Task t);
+
+    /** before and after share an id; covers edits and completion. */
+    void replaced(Task before, Task after);
+
+    void removed(Task t);
+
+    void ruleAdded(RecurringTask rule);
+
+    void ruleRemoved(RecurringTask rule);
+}
@@ -0,0 +1,370 @@
+package manager;
+
+import exceptions.TaskConflictException;
+import exceptions.TaskNotFoundException;
+import model.Priority;
+import model.Task;
+
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * Memory-compact alternative to ScheduleManager for very large simulations.
+ * Tasks live in parallel primitive arrays (struct-of-arrays) instead of one
+ * Task object plus a TreeSet node each:
+ * the task id as a long, start/end as seconds-of-day ints, priority as a byte,
+ * completion as a bit and the description as a reference to the copy held by a
+ * (shareable) StringTable; only tasks that are accepted are interned.
+ * An int array of slots kept sorted by start time replaces the TreeSet, so an
+ * insert or removal shifts it and costs O(n): load large schedules in start
+ * order, where every insert is an append.
+ *
+ * Times are kept to the second: sub-second parts are dropped, and an end of
+ * LocalTime.MAX (the "24:00" used for midnight) is stored as 86400 and read
+ * back as LocalTime.MAX. An interval that is empty once truncated is rejected.
+ *
+ * Add, conflict and duplicate-name rules are the same as ScheduleManager.
+ * Tasks returned by queries are copies built on demand; they keep the id the
+ * task was added with, so two reads of the same task are equal.
+ */
+public class CompactSchedule {
+    private static final Priority[] PRIORITIES = Priority.values();
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int END_OF_DAY = 24 * 60 * 60;
+
+    private final StringTable strings;
+
+    // columns, indexed by slot
+    private long[] id = new long[INITIAL_CAPACITY];
+    private int[] start = new int[INITIAL_CAPACITY];
+    private int[] end = new int[INITIAL_CAPACITY];
+    private byte[] priority = new byte[INITIAL_CAPACITY];
+    private String[] description = new String[INITIAL_CAPACITY];
+    // hash of the normalized description, for byName
+    private int[] nameHash = new int[INITIAL_CAPACITY];
+    private final BitSet completed = new BitSet();
+
+    // slots ordered by start time; size entries are in use
+    private int[] order = new int[INITIAL_CAPACITY];
+    private int size;
+
+    // slots freed by removals, reused before growing
+    private int[] free = new int[0];
+    private int freeCount;
+    private int slotsUsed;
+
+    // slots by normalized description
+    private final NameIndex byName = new NameIndex();
+
+    public CompactSchedule() {
+        this(new StringTable());
+    }
+
+    /** Use a string table shared with other schedules (e.g. one per mission day). */
+    public CompactSchedule(StringTable strings) {
+        this.strings = Objects.requireNonNull(strings, "strings cannot be null");
+    }
+
+    public synchronized void addTask(Task t) throws TaskConflictException {
+        Objects.requireNonNull(t, "Task cannot be null");
+        add(t.getId(), t.getDescription(), t.getStart(), t.getEnd(), t.getPriority(), t.isCompleted());
+    }
+
+    /** Add a task with a new id; throws IllegalArgumentException unless from is before to (see above). */
+    public synchronized void add(String desc, LocalTime from, LocalTime to, Priority p, boolean done)
+            throws TaskConflictException {
+        add(Task.getIdGenerator().nextId(), desc, from, to, p, done);
+    }
+
+    private void add(long taskId, String desc, LocalTime from, LocalTime to, Priority p, boolean done)
+            throws TaskConflictException {
+        Objects.requireNonNull(desc, "description cannot be null");
+        Objects.requireNonNull(p, "priority cannot be null");
+        int s = seconds(from, "from");
+        int e = seconds(to, "to");
+        checkOrder(s, e);
+        String k = key(desc);
+        int hash = k.hashCode();
+        int existing = byName.find(k, hash);
+        if (existing >= 0) {
+            throw new TaskConflictException(String.format("A task named \"%s\" already exists",
+                    description[existing]));
+        }
+        int pos = insertionPoint(s);
+        int clash = conflictAt(pos, s, e);
+        if (clash >= 0) {
+            throw new TaskConflictException(String.format("Task conflicts with existing task \"%s\"",
+                    description[clash]));
+        }
+
+        int slot = allocate();
+        id[slot] = taskId;
+        start[slot] = s;
+        end[slot] = e;
+        priority[slot] = (byte) p.ordinal();
+        description[slot] = strings.canonical(desc.trim());
+        nameHash[slot] = hash;
+        completed.set(slot, done);
+        byName.add(slot);
+
+        insertAt(pos, slot);
+    }
+
+    // Slot of the neighbour that [s, e) would overlap if inserted at pos, or -1
+    private int conflictAt(int pos, int s, int e) {
+        if (pos > 0 && end[order[pos - 1]] > s) return order[pos - 1];
+        if (pos < size && start[order[pos]] < e) return order[pos];
+        return -1;
+    }
+
+    private void insertAt(int pos, int slot) {
+        if (size == order.length) order = Arrays.copyOf(order, size * 2);
+        System.arraycopy(order, pos, order, pos + 1, size - pos);
+        order[pos] = slot;
+        size++;
+    }
+
+    private void removeAt(int pos) {
+        System.arraycopy(order, pos + 1, order, pos, size - pos - 1);
+        size--;
+    }
+
+    public synchronized void removeTaskByDescription(String desc) throws TaskNotFoundException {
+        int slot = slotOf(desc);
+        removeAt(positionOf(slot));
+        byName.remove(slot);
+        completed.clear(slot);
+        release(slot);
+    }
+
+    public synchronized void editTask(String desc, LocalTime newStart, LocalTime newEnd, Priority newPriority)
+            throws TaskNotFoundException, TaskConflictException {
+        Objects.requireNonNull(newPriority, "newPriority cannot be null");
+        int s = seconds(newStart, "newStart");
+        int e = seconds(newEnd, "newEnd");
+        checkOrder(s, e);
+        int slot = slotOf(desc);
+        int pos = positionOf(slot);
+        // take the task out of the order while checking, then put it back where it belongs
+        removeAt(pos);
+        int newPos = insertionPoint(s);
+        if (conflictAt(newPos, s, e) >= 0) {
+            insertAt(pos, slot);
+            throw new TaskConflictException("Edited task conflicts with existing tasks.");
+        }
+        insertAt(newPos, slot);
+        start[slot] = s;
+        end[slot] = e;
+        priority[slot] = (byte) newPriority.ordinal();
+    }
+
+    public synchronized void markCompleted(String desc) throws TaskNotFoundException {
+        completed.set(slotOf(desc));
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** All tasks sorted by start time. */
+    public synchronized List<Task> viewAllTasks() {
+        List<Task> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) list.add(toTask(order[i]));
+        return list;
+    }
+
+    public synchronized List<Task> getTasksByPriority(Priority p) {
+        List<Task> list = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (priority[order[i]] == p.ordinal()) list.add(toTask(order[i]));
+        }
+        return list;
+    }
+
+    /** Task running at the given time, if any. */
+    public synchronized List<Task> tasksActiveAt(LocalTime time) {
+        int t = seconds(time, "time");
+        int pos = insertionPoint(t);
+        // insertionPoint puts equal starts after existing ones, so pos - 1 starts at or before t
+        if (pos > 0 && end[order[pos - 1]] > t) return Collections.singletonList(toTask(order[pos - 1]));
+        return Collections.emptyList();
+    }
+
+    /**
+     * Heap held by this schedule's own arrays, excluding the shared string table.
+     * Counts allocated capacity, so it includes growth headroom.
+     */
+    public synchronized long footprintBytes() {
+        long arrays = 8L * id.length + 4L * start.length + 4L * end.length + priority.length
+                + 4L * description.length + 4L * nameHash.length + 4L * order.length + 4L * free.length
+                + completed.size() / 8 + byName.footprintBytes();
+        return arrays + 8 * 16; // array headers
+    }
+
+    /** footprintBytes() divided by the number of tasks (0 when empty). */
+    public synchronized double bytesPerTask() {
+        return size == 0 ? 0 : (double) footprintBytes() / size;
+    }
+
+    public StringTable getStringTable() {
+        return strings;
+    }
+
+    private Task toTask(int slot) {
+        return new Task(id[slot], description[slot], time(start[slot]), time(end[slot]), PRIORITIES[priority[slot]],
+                completed.get(slot));
+    }
+
+    // seconds of day, LocalTime.MAX as END_OF_DAY
+    private static int seconds(LocalTime time, String name) {
+        Objects.requireNonNull(time, name + " cannot be null");
+        return time.equals(LocalTime.MAX) ? END_OF_DAY : time.toSecondOfDay();
+    }
+
+    private static LocalTime time(int seconds) {
+        return seconds == END_OF_DAY ? LocalTime.MAX : LocalTime.ofSecondOfDay(seconds);
+    }
+
+    private static void checkOrder(int s, int e) {
+        if (s >= e) throw new IllegalArgumentException("Start time must be before end time (to the second).");
+    }
+
+    private int slotOf(String desc) throws TaskNotFoundException {
+        Objects.requireNonNull(desc, "description cannot be null");
+        String k = key(desc);
+        int slot = byName.find(k, k.hashCode());
+        if (slot < 0) throw new TaskNotFoundException("Task not found: " + desc);
+        return slot;
+    }
+
+    // first position whose start is greater than s
+    private int insertionPoint(int s) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (start[order[mid]] <= s) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    // position of slot in order; starts are unique because tasks cannot overlap
+    private int positionOf(int slot) {
+        int pos = insertionPoint(start[slot]) - 1;
+        while (order[pos] != slot) pos--;
+        return pos;
+    }
+
+    private int allocate() {
+        if (freeCount > 0) return free[--freeCount];
+        if (slotsUsed == start.length) {
+            int cap = start.length * 2;
+            id = Arrays.copyOf(id, cap);
+            start = Arrays.copyOf(start, cap);
+            end = Arrays.copyOf(end, cap);
+            priority = Arrays.copyOf(priority, cap);
+            description = Arrays.copyOf(description, cap);
+            nameHash = Arrays.copyOf(nameHash, cap);
+        }
+        return slotsUsed++;
+    }
+
+    private void release(int slot) {
+        if (freeCount == free.length) free = Arrays.copyOf(free, Math.max(INITIAL_CAPACITY, freeCount * 2));
+        free[freeCount++] = slot;
+        description[slot] = null;
+    }
+
+    private static String key(String description) {
+        return description.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Open-addressing set of slots (linear probing) looked up by normalized
+     * description. The home bucket is the Fibonacci hash of the name: the top
+     * log2(capacity) bits of hash * 0x9E3779B9. Probes compare the nameHash
+     * column and only then the stored description, ignoring case, so no
+     * separate key string is stored or built per task.
+     */
+    private final class NameIndex {
+        private static final int EMPTY = -1;
+        private static final int DELETED = -2;
+
+        private int[] table = newTable(INITIAL_CAPACITY);
+        private int shift = shiftFor(INITIAL_CAPACITY);
+        private int used; // live + deleted
+        private int live;
+
+        private int[] newTable(int capacity) {
+            int[] t = new int[capacity];
+            Arrays.fill(t, EMPTY);
+            return t;
+        }
+
+        // 32 - log2(capacity), capacity being a power of two
+        private int shiftFor(int capacity) {
+            return 32 - Integer.numberOfTrailingZeros(capacity);
+        }
+
+        private int index(int hash) {
+            return (hash * 0x9E3779B9) >>> shift;
+        }
+
+        // slot whose normalized description is k, or -1
+        int find(String k, int hash) {
+            int mask = table.length - 1;
+            for (int i = index(hash); table[i] != EMPTY; i = (i + 1) & mask) {
+                int slot = table[i];
+                // descriptions are stored trimmed, so only case can differ from k
+                if (slot >= 0 && nameHash[slot] == hash && description[slot].equalsIgnoreCase(k)) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        // slot's description must not be in the index yet
+        void add(int slot) {
+            if ((used + 1) * 2 > table.length) {
+                // grow only if mostly live entries, otherwise just purge deleted markers
+                rehash(live * 4 > table.length ? table.length * 2 : table.length);
+            }
+            int mask = table.length - 1;
+            int i = index(nameHash[slot]);
+            while (table[i] >= 0) i = (i + 1) & mask;
+            if (table[i] == EMPTY) used++;
+            live++;
+            table[i] = slot;
+        }
+
+        void remove(int slot) {
+            int mask = table.length - 1;
+            for (int i = index(nameHash[slot]); table[i] != EMPTY; i = (i + 1) & mask) {
+                if (table[i] == slot) {
+                    table[i] = DELETED;
+                    live--;
+                    return;
+                }
+            }
+        }
+
+        private void rehash(int capacity) {
+            int[] old = table;
+            table = newTable(capacity);
+            shift = shiftFor(capacity);
+            used = 0;
+            live = 0;
+            for (int slot : old) {
+                if (slot >= 0) add(slot);
+            }
+        }
+
+        long footprintBytes() {
+            return 4L * table.length;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package manager;
+
+import model.TimeSlot;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minute-by-minute occupancy of one day: a 1440-bit bitmap for word-at-a-time
+ * gap searches, plus a per-minute task count so removing one task does not
+ * free a minute another task still touches. A task occupies every minute it
+ * overlaps, so slots found here never conflict but are minute-aligned.
+ * Not thread-safe; ScheduleManager guards it with its lock.
+ */
+final class OccupancyMap {
+    static final int MINUTES = 24 * 60;
+    private static final long NANOS_PER_MINUTE = 60_000_000_000L;
+
+    private final long[] bits = new long[(MINUTES + 63) / 64];
+    private final int[] counts = new int[MINUTES];
+
+    OccupancyMap copy() {
+        OccupancyMap c = new OccupancyMap();
+        System.arraycopy(bits, 0, c.bits, 0, bits.length);
+        System.arraycopy(counts, 0, c.counts, 0, counts.length);
+        return c;
+    }
+
+    void occupy(LocalTime start, LocalTime end) {
+        for (int m = floorMinute(start), last = ceilMinute(end); m < last; m++) {
+            if (counts[m]++ == 0) bits[m >>> 6] |= 1L << m;
+        }
+    }
+
+    void release(LocalTime start, LocalTime end) {
+        for (int m = floorMinute(start), last = ceilMinute(end); m < last; m++) {
+            if (--counts[m] == 0) bits[m >>> 6] &= ~(1L << m);
+        }
+    }
+
+    /** Maximal free windows inside [from, to) that are at least length long. */
+    List<TimeSlot> freeSlots(Duration length, LocalTime from, LocalTime to) {
+        int need = minutes(length);
+        int limit = to.equals(LocalTime.MAX) ? MINUTES : floorMinute(to);
+        List<TimeSlot> slots = new ArrayList<>();
+        int m = ceilMinute(from);
+        while (m < limit) {
+            int start = nextClear(m, limit);
+            if (start >= limit) break;
+            int end = nextSet(start, limit);
+            if (end - start >= need) slots.add(slot(start, end));
+            m = end;
+        }
+        return slots;
+    }
+
+    /** Earliest window of the given length starting at or after the given time, or null. */
+    TimeSlot nextAvailable(Duration length, LocalTime after) {
+        return firstFit(length, after, LocalTime.MAX);
+    }
+
+    /** Earliest window of the given length inside [from, to), or null. */
+    TimeSlot firstFit(Duration length, LocalTime from, LocalTime to) {
+        int need = minutes(length);
+        int limit = to.equals(LocalTime.MAX) ? MINUTES : floorMinute(to);
+        int m = ceilMinute(from);
+        while (m < limit) {
+            int start = nextClear(m, limit);
+            if (start >= limit) return null;
+            int end = nextSet(start, limit);
+            if (end - start >= need) return slot(start, start + need);
+            m = end;
+        }
+        return null;
+    }
+
+    // first free minute in [from, limit), or limit
+    private int nextClear(int from, int limit) {
+        int w = from >>> 6;
+        long word = ~bits[w] & (-1L << from);
+        while (word == 0) {
+            if (++w >= bits.length) return limit;
+            word = ~bits[w];
+        }
+        return Math.min(limit, (w << 6) + Long.numberOfTrailingZeros(word));
+    }
+
+    // first occupied minute in [from, limit), or limit
+    private int nextSet(int from, int limit) {
+        int w = from >>> 6;
+        long word = bits[w] & (-1L << from);
+        while (word == 0) {
+            if (++w >= bits.length) return limit;
+            word = bits[w];
+        }
+        return Math.min(limit, (w << 6) + Long.numberOfTrailingZeros(word));
+    }
+
+    private static TimeSlot slot(int startMinute, int endMinute) {
+        LocalTime end = endMinute >= MINUTES ? LocalTime.MAX : LocalTime.ofSecondOfDay(endMinute * 60L);
+        return new TimeSlot(LocalTime.ofSecondOfDay(startMinute * 60L), end);
+    }
+
+    private static int minutes(Duration length) {
+        if (length.isNegative() || length.isZero()) throw new IllegalArgumentException("length must be positive");
+        long m = (length.toNanos() + NANOS_PER_MINUTE - 1) / NANOS_PER_MINUTE;
+        return (int) Math.min(m, MINUTES + 1);
+    }
+
+    private static int floorMinute(LocalTime t) {
+        return (int) (t.toNanoOfDay() / NANOS_PER_MINUTE);
+    }
+
+    private static int ceilMinute(LocalTime t) {
+        return (int) Math.min(MINUTES, (t.toNanoOfDay() + NANOS_PER_MINUTE - 1) / NANOS_PER_MINUTE);
+    }
+}
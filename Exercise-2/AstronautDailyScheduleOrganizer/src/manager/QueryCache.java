@@ -0,0 +1,62 @@
+package manager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of query results for one ScheduleManager, keyed by query and
+ * stamped with the two versions of the data they were computed from: the
+ * schedule's and its recurring rules'. A lookup is a hit only when both match,
+ * so entries never need to be invalidated: a change bumps one of the versions
+ * and stale entries are replaced on their next use or evicted, least recently
+ * used first, once the cache is full.
+ *
+ * Cached lists are immutable and handed out as they are, with no copying.
+ */
+final class QueryCache<V> {
+    static final int DEFAULT_CAPACITY = 128;
+
+    private record Entry<V>(long version, long rulesVersion, V value) {
+        // computed from data at least as new as (version, rulesVersion)
+        boolean covers(long version, long rulesVersion) {
+            return this.version >= version && this.rulesVersion >= rulesVersion;
+        }
+    }
+
+    // access-ordered, so the eldest entry is the least recently used; guarded by this
+    private final LinkedHashMap<Object, Entry<V>> entries;
+
+    QueryCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    QueryCache(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive");
+        this.entries = new LinkedHashMap<>(capacity * 4 / 3 + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Entry<V>> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /** The value cached for query at exactly these versions, or null. */
+    V get(Object query, long version, long rulesVersion) {
+        Entry<V> e;
+        synchronized (this) {
+            e = entries.get(query);
+        }
+        return e != null && e.version() == version && e.rulesVersion() == rulesVersion ? e.value() : null;
+    }
+
+    /** Cache value for query unless a result at least as new is already there; returns value. */
+    V put(Object query, long version, long rulesVersion, V value) {
+        synchronized (this) {
+            Entry<V> e = entries.get(query);
+            if (e == null || !e.covers(version, rulesVersion)) {
+                entries.put(query, new Entry<>(version, rulesVersion, value));
+            }
+        }
+        return value;
+    }
+}
@@ -0,0 +1,197 @@
+package manager;
+
+import exceptions.TaskConflictException;
+import exceptions.TaskNotFoundException;
+import model.RecurringTask;
+import model.Task;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The recurring tasks of one crew member (or of the default schedule), shared
+ * by every ScheduleManager partition of that crew member. Each rule is stored
+ * once here, however many dates and occurrences it covers.
+ *
+ * Readers get an immutable list through a volatile field, so ScheduleManager can
+ * check its tasks against the rules without another lock. Adding a rule locks
+ * every attached schedule it applies to, checks their tasks and only then
+ * publishes the new list, so no task can slip in between. Adding or removing
+ * a rule also reports it to each of those schedules (their ChangeLog and a
+ * RECURRING_ADDED or RECURRING_REMOVED feed event), in order with their own changes.
+ */
+public final class RecurrenceRules {
+    private static final Logger logger = Logger.getLogger(RecurrenceRules.class.getName());
+    private static final Comparator<ScheduleManager> LOCK_ORDER = Comparator.comparing(ScheduleManager::getKey,
+            Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private volatile List<RecurringTask> rules = Collections.emptyList();
+    // bumped after every change to rules, so whoever reads it before rules never pairs a new version with old rules
+    private volatile long version;
+    // schedules sharing these rules; guarded by this
+    private final List<ScheduleManager> schedules = new ArrayList<>();
+
+    synchronized void attach(ScheduleManager schedule) {
+        schedules.add(schedule);
+    }
+
+    /** Incremented by every rule added or removed. */
+    public long getVersion() {
+        return version;
+    }
+
+    /** Every rule, in the order they were added. */
+    public List<RecurringTask> list() {
+        return rules;
+    }
+
+    /** Rules that apply on date (every rule for an undated schedule). */
+    public List<RecurringTask> forDate(LocalDate date) {
+        List<RecurringTask> all = rules;
+        if (date == null || all.isEmpty()) return all;
+        List<RecurringTask> matching = new ArrayList<>(all.size());
+        for (RecurringTask r : all) {
+            if (r.occursOn(date)) matching.add(r);
+        }
+        return matching;
+    }
+
+    /** The first rule occurrence on date overlapping [start, end), or null. */
+    Task firstConflict(LocalDate date, LocalTime start, LocalTime end) {
+        for (RecurringTask r : rules) {
+            if (!r.occursOn(date)) continue;
+            Task hit = r.overlapping(start, end);
+            if (hit != null) return hit;
+        }
+        return null;
+    }
+
+    /**
+     * Add a rule if it clashes with no other rule and no task on any date it
+     * applies to, else throw TaskConflictException.
+     */
+    void add(RecurringTask rule) throws TaskConflictException {
+        Objects.requireNonNull(rule, "rule cannot be null");
+        List<ScheduleManager> affected;
+        synchronized (this) {
+            affected = addLocked(rule);
+        }
+        // like ScheduleManager's own writers, hand the events on after every lock is released
+        for (ScheduleManager s : affected) s.deliver();
+    }
+
+    private List<ScheduleManager> addLocked(RecurringTask rule) throws TaskConflictException {
+        for (RecurringTask r : rules) {
+            if (r.getDescription().equalsIgnoreCase(rule.getDescription())) {
+                throw conflict(String.format("A recurring task named \"%s\" already exists", r.getDescription()));
+            }
+            Task hit = rule.overlapping(r);
+            if (hit != null) {
+                throw conflict(String.format("Recurring task conflicts with recurring task \"%s\" at %s",
+                        r.getDescription(), hit.getStart()));
+            }
+        }
+        List<ScheduleManager> affected = new ArrayList<>();
+        for (ScheduleManager s : schedules) {
+            if (rule.occursOn(date(s))) affected.add(s);
+        }
+        // a fixed order keeps two threads locking the same schedules from deadlocking
+        affected.sort(LOCK_ORDER);
+        checkAndPublish(rule, affected, 0);
+        logger.log(Level.INFO, "Recurring task added: {0}", rule);
+        return affected;
+    }
+
+    // Holds the lock of affected[i..] while checking them, so the rule is published before any is released
+    private void checkAndPublish(RecurringTask rule, List<ScheduleManager> affected, int i)
+            throws TaskConflictException {
+        if (i == affected.size()) {
+            List<RecurringTask> next = new ArrayList<>(rules);
+            next.add(rule);
+            rules = Collections.unmodifiableList(next);
+            version++;
+            for (ScheduleManager s : affected) s.ruleAddedLocked(rule);
+            return;
+        }
+        ScheduleManager s = affected.get(i);
+        synchronized (s) {
+            s.checkRecurringLocked(rule);
+            checkAndPublish(rule, affected, i + 1);
+        }
+    }
+
+    RecurringTask remove(String description) throws TaskNotFoundException {
+        Objects.requireNonNull(description, "description cannot be null");
+        RecurringTask removed;
+        List<ScheduleManager> affected = new ArrayList<>();
+        synchronized (this) {
+            removed = find(description.trim());
+            if (removed == null) throw new TaskNotFoundException("Recurring task not found: " + description);
+            for (ScheduleManager s : schedules) {
+                if (removed.occursOn(date(s))) affected.add(s);
+            }
+            affected.sort(LOCK_ORDER);
+            removeAndPublish(removed, affected, 0);
+            logger.log(Level.INFO, "Recurring task removed: {0}", removed);
+        }
+        for (ScheduleManager s : affected) s.deliver();
+        return removed;
+    }
+
+    /** Add recovered rules that are not here yet (matched by id), without any checks. */
+    synchronized void restore(Collection<RecurringTask> recovered) {
+        List<RecurringTask> next = new ArrayList<>(rules);
+        for (RecurringTask r : recovered) {
+            boolean present = false;
+            for (RecurringTask existing : next) {
+                if (existing.getId() == r.getId()) present = true;
+            }
+            if (!present) next.add(r);
+        }
+        if (next.size() == rules.size()) return;
+        rules = Collections.unmodifiableList(next);
+        version++;
+    }
+
+    // caller holds this
+    private RecurringTask find(String description) {
+        for (RecurringTask r : rules) {
+            if (r.getDescription().equalsIgnoreCase(description)) return r;
+        }
+        return null;
+    }
+
+    // Holds the lock of affected[i..] so the removal lands in each feed in order with that schedule's changes
+    private void removeAndPublish(RecurringTask rule, List<ScheduleManager> affected, int i) {
+        if (i == affected.size()) {
+            List<RecurringTask> next = new ArrayList<>(rules);
+            next.remove(rule);
+            rules = Collections.unmodifiableList(next);
+            version++;
+            for (ScheduleManager s : affected) s.ruleRemovedLocked(rule);
+            return;
+        }
+        ScheduleManager s = affected.get(i);
+        synchronized (s) {
+            s.checkLogLocked();
+            removeAndPublish(rule, affected, i + 1);
+        }
+    }
+
+    private static LocalDate date(ScheduleManager s) {
+        return s.getKey() == null ? null : s.getKey().date();
+    }
+
+    private static TaskConflictException conflict(String msg) {
+        logger.warning(msg);
+        return new TaskConflictException(msg);
+    }
+}
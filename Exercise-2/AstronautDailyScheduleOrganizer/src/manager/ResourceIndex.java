@@ -0,0 +1,186 @@
+package manager;
+
+import exceptions.TaskConflictException;
+import model.Task;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Logger;
+
+/**
+ * Who is using each shared resource (airlock, robotic arm, comms, ...) when,
+ * across every schedule that shares this index. ScheduleRegistry gives all of
+ * its partitions one index, so two crew members cannot book the airlock for
+ * overlapping times on the same date.
+ *
+ * Each resource has one timeline per date: a TreeMap of bookings by start
+ * time. Bookings on a timeline never overlap, so like the TreeSet in
+ * ScheduleManager a new one only has to be checked against its floor and
+ * higher neighbours, in O(log n). Every timeline has its own lock; a change
+ * locks only the timelines of the resources it touches (in a fixed order), so
+ * schedules using different resources never wait for each other. Schedules
+ * call in while holding their own lock and the index never calls back, so the
+ * two kinds of lock cannot deadlock.
+ */
+public final class ResourceIndex {
+    private static final Logger logger = Logger.getLogger(ResourceIndex.class.getName());
+
+    /** One resource on one date (null for the default, undated schedule). */
+    private record TimelineKey(String resource, LocalDate date) implements Comparable<TimelineKey> {
+        private static final Comparator<TimelineKey> ORDER = Comparator.comparing(TimelineKey::resource)
+                .thenComparing(TimelineKey::date, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+        @Override
+        public int compareTo(TimelineKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    /** A task holding a resource, and the schedule it belongs to (null for the default schedule). */
+    public record Booking(ScheduleKey owner, Task task) {
+        @Override
+        public String toString() {
+            return String.format("%s - %s: %s%s", task.getStart(), task.getEnd(), task.getDescription(),
+                    owner == null ? "" : " (" + owner + ")");
+        }
+    }
+
+    // bookings by start time, guarded by the Timeline itself
+    private static final class Timeline {
+        final String name;
+        final TreeMap<LocalTime, Booking> bookings = new TreeMap<>();
+
+        Timeline(String name) {
+            this.name = name;
+        }
+
+        // the booking overlapping [start, end) other than the task's own, or null
+        Booking clash(Task t) {
+            Map.Entry<LocalTime, Booking> lower = bookings.floorEntry(t.getStart());
+            if (lower != null && lower.getValue().task().getEnd().isAfter(t.getStart())
+                    && lower.getValue().task().getId() != t.getId()) {
+                return lower.getValue();
+            }
+            Map.Entry<LocalTime, Booking> higher = bookings.higherEntry(t.getStart());
+            if (higher != null && higher.getKey().isBefore(t.getEnd()) && higher.getValue().task().getId() != t.getId()) {
+                return higher.getValue();
+            }
+            return null;
+        }
+
+        void release(Task t) {
+            Booking b = bookings.get(t.getStart());
+            if (b != null && b.task().getId() == t.getId()) bookings.remove(t.getStart());
+        }
+    }
+
+    private final ConcurrentMap<TimelineKey, Timeline> timelines = new ConcurrentHashMap<>();
+
+    /** Bookings of resource on date (null for the default schedule), in start order. */
+    public List<Booking> bookings(String resource, LocalDate date) {
+        Objects.requireNonNull(resource, "resource cannot be null");
+        Timeline timeline = timelines.get(new TimelineKey(normalize(resource), date));
+        if (timeline == null) return Collections.emptyList();
+        synchronized (timeline) {
+            return List.copyOf(timeline.bookings.values());
+        }
+    }
+
+    /** Names of every resource that has had a booking, in alphabetical order. */
+    public SortedSet<String> resources() {
+        SortedSet<String> names = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        for (Timeline t : timelines.values()) names.add(t.name);
+        return Collections.unmodifiableSortedSet(names);
+    }
+
+    /**
+     * Release the bookings of released and book added instead, for the schedule
+     * owner, all at once. If any added task would overlap another booking of one
+     * of its resources, nothing changes and TaskConflictException lists every
+     * clash. Caller holds owner's lock; tasks in added never overlap each other.
+     */
+    void update(ScheduleKey owner, Collection<Task> released, Collection<Task> added) throws TaskConflictException {
+        if (!usesResources(released) && !usesResources(added)) return;
+        LocalDate date = owner == null ? null : owner.date();
+        SortedMap<TimelineKey, String> names = new TreeMap<>();
+        for (Task t : released) collect(t, date, names);
+        for (Task t : added) collect(t, date, names);
+        List<Timeline> locked = new ArrayList<>(names.size());
+        names.forEach((k, name) -> locked.add(timelines.computeIfAbsent(k, x -> new Timeline(name))));
+        // a fixed order keeps two schedules locking the same resources from deadlocking
+        lockAndApply(locked, 0, date, owner, released, added);
+    }
+
+    /** Release the bookings of tasks removed from owner's schedule. */
+    void release(ScheduleKey owner, Collection<Task> released) {
+        LocalDate date = owner == null ? null : owner.date();
+        for (Task t : released) {
+            for (String r : t.getResources()) {
+                Timeline timeline = timeline(r, date);
+                if (timeline == null) continue;
+                synchronized (timeline) {
+                    timeline.release(t);
+                }
+            }
+        }
+    }
+
+    // Holds the lock of timelines[i..] while applying the change, so it is checked and made as one step
+    private void lockAndApply(List<Timeline> locked, int i, LocalDate date, ScheduleKey owner,
+                              Collection<Task> released, Collection<Task> added) throws TaskConflictException {
+        if (i < locked.size()) {
+            synchronized (locked.get(i)) {
+                lockAndApply(locked, i + 1, date, owner, released, added);
+            }
+            return;
+        }
+        for (Task t : released) {
+            for (String r : t.getResources()) timeline(r, date).release(t);
+        }
+        List<String> problems = new ArrayList<>();
+        for (Task t : added) {
+            for (String r : t.getResources()) {
+                Booking clash = timeline(r, date).clash(t);
+                if (clash != null) {
+                    problems.add(String.format("Task \"%s\" needs %s, already booked %s", t.getDescription(),
+                            timeline(r, date).name, clash));
+                }
+            }
+        }
+        if (!problems.isEmpty()) {
+            // put back what was released
+            for (Task t : released) {
+                for (String r : t.getResources()) timeline(r, date).bookings.put(t.getStart(), new Booking(owner, t));
+            }
+            String msg = problems.size() == 1 ? problems.get(0)
+                    : String.format("%d resource conflict(s), first: %s", problems.size(), problems.get(0));
+            logger.warning(msg);
+            throw new TaskConflictException(msg, problems);
+        }
+        for (Task t : added) {
+            for (String r : t.getResources()) timeline(r, date).bookings.put(t.getStart(), new Booking(owner, t));
+        }
+    }
+
+    private Timeline timeline(String resource, LocalDate date) {
+        return timelines.get(new TimelineKey(normalize(resource), date));
+    }
+
+    private static void collect(Task t, LocalDate date, SortedMap<TimelineKey, String> names) {
+        for (String r : t.getResources()) names.putIfAbsent(new TimelineKey(normalize(r), date), r);
+    }
+
+    private static boolean usesResources(Collection<Task> tasks) {
+        for (Task t : tasks) {
+            if (!t.getResources().isEmpty()) return true;
+        }
+        return false;
+    }
+
+    private static String normalize(String resource) {
+        return resource.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,29 @@
+package manager;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * Identifies one schedule partition: a crew member's timeline for one mission date.
+ */
+public record ScheduleKey(String crewMember, LocalDate date) implements Comparable<ScheduleKey> {
+    private static final Comparator<ScheduleKey> ORDER =
+            Comparator.comparing(ScheduleKey::crewMember).thenComparing(ScheduleKey::date);
+
+    public ScheduleKey {
+        Objects.requireNonNull(crewMember, "crewMember cannot be null");
+        Objects.requireNonNull(date, "date cannot be null");
+        crewMember = crewMember.trim();
+    }
+
+    @Override
+    public int compareTo(ScheduleKey other) {
+        return ORDER.compare(this, other);
+    }
+
+    @Override
+    public String toString() {
+        return crewMember + "@" + date;
+    }
+}
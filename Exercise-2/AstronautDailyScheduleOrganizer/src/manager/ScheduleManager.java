@@ -1,34 +1,102 @@
 package manager;
 
+import model.Priority;
+import model.RecurringTask;
 import model.Task;
+import model.TimeSlot;
+import observer.ChangeFeed;
+import observer.EventBus;
+import observer.ScheduleEvent;
 import observer.ScheduleObserver;
 import exceptions.TaskConflictException;
 import exceptions.TaskNotFoundException;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
- * Singleton manager that stores tasks in a TreeSet ordered by start time.
- * Implements add, remove, view, edit, markCompleted, filterByPriority.
- * Uses Observer pattern to notify on conflicts/updates.
+ * Manager that stores one timeline's tasks in a TreeSet ordered by start time.
+ * getInstance() returns the default schedule; ScheduleRegistry hands out one
+ * independent manager per crew member and mission date.
+ * Implements add, remove, view, edit, markCompleted, filterByPriority and
+ * pending/completed views, backed by incrementally maintained indexes.
+ * Uses Observer pattern to notify on conflicts/updates; events are sequenced
+ * under the manager lock and handed to the EventBus only after it is released,
+ * so an observer that applies back-pressure never stalls other writers.
+ *
+ * Writers synchronize on the manager. Readers go through an immutable
+ * ScheduleSnapshot published via a volatile field, so they only take the
+ * lock for the first read after a change (to build the next snapshot).
+ * Tasks in the schedule are never mutated in place; edits swap in a copy.
+ *
+ * Every public operation records its latency and lock wait in a
+ * ScheduleMetrics (see getMetrics() and ScheduleManagerMonitor for JMX).
  */
 public class ScheduleManager {
     private static final Logger logger = Logger.getLogger(ScheduleManager.class.getName());
 
     private static ScheduleManager instance;
 
+    // null for the default (singleton) schedule
+    private final ScheduleKey key;
+
     // TreeSet keeps tasks sorted by start time
     private final NavigableSet<Task> tasks = new TreeSet<>();
-    private final List<ScheduleObserver> observers = new ArrayList<>();
+    // Secondary index: normalized description -> task, kept in sync with tasks
+    private final Map<String, Task> byDescription = new HashMap<>();
+    // Filtered views maintained incrementally, each ordered like tasks
+    private final Map<Priority, NavigableSet<Task>> byPriority = new EnumMap<>(Priority.class);
+    private final NavigableSet<Task> pending = new TreeSet<>();
+    private final NavigableSet<Task> completed = new TreeSet<>();
+    // minute bitmap of busy time, for free-slot searches
+    private final OccupancyMap occupancy = new OccupancyMap();
+    private final EventBus eventBus = new EventBus();
+    // events in change order, filled under the lock and handed to eventBus after it (see deliver())
+    private final Queue<ScheduleEvent> outbox = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock delivering = new ReentrantLock();
+    // sequenced, replayable history of changes for Flow subscribers
+    private final ChangeFeed changeFeed = new ChangeFeed();
+    // recurring tasks, shared with the crew member's other dates; occurrences are never stored
+    private final RecurrenceRules recurring;
+    // shared-resource bookings, shared with every schedule of the registry
+    private final ResourceIndex resources;
+    private final ScheduleMetrics metrics = new ScheduleMetrics();
+    // computed range queries, stamped with version and recurring.getVersion()
+    private final QueryCache<List<Task>> agendaCache = new QueryCache<>();
+    private final QueryCache<List<TimeSlot>> freeSlotCache = new QueryCache<>();
+    // optional durable record of changes (see persistence.SchedulePersistence)
+    private ChangeLog changeLog;
+
+    // Bumped on every change; the snapshot is rebuilt lazily for the current version
+    private long version;
+    private volatile ScheduleSnapshot snapshot;
+    // tasks.size() as of the last change, readable without the lock
+    private volatile int size;
 
     // private constructor
     private ScheduleManager() {
+        this(null, new RecurrenceRules(), new ResourceIndex());
         logger.info("ScheduleManager started.");
     }
 
+    // partitions are created through ScheduleRegistry
+    ScheduleManager(ScheduleKey key, RecurrenceRules recurring, ResourceIndex resources) {
+        this.key = key;
+        this.recurring = recurring;
+        this.resources = resources;
+        for (Priority p : Priority.values()) {
+            byPriority.put(p, new TreeSet<>());
+        }
+        recurring.attach(this);
+    }
+
     // Thread-safe lazy initialization
     public static synchronized ScheduleManager getInstance() {
         if (instance == null) {
@@ -37,22 +105,197 @@ public class ScheduleManager {
         return instance;
     }
 
-    public synchronized void registerObserver(ScheduleObserver observer) {
-        if (observer != null && !observers.contains(observer)) {
-            observers.add(observer);
+    /** Crew member and date of this partition, or null for the default schedule. */
+    public ScheduleKey getKey() {
+        return key;
+    }
+
+    public void registerObserver(ScheduleObserver observer) {
+        eventBus.subscribe(observer);
+    }
+
+    /** Register with a custom queue size and overflow policy for this observer. */
+    public void registerObserver(ScheduleObserver observer, int queueCapacity, EventBus.OverflowPolicy policy) {
+        eventBus.subscribe(observer, queueCapacity, policy);
+    }
+
+    public void unregisterObserver(ScheduleObserver observer) {
+        eventBus.unsubscribe(observer);
+    }
+
+    /** Record every subsequent change to the given log, or stop recording when null. */
+    public synchronized void setChangeLog(ChangeLog changeLog) {
+        this.changeLog = changeLog;
+    }
+
+    /**
+     * Load tasks recovered from disk into an empty schedule. They were valid when
+     * recorded, so no conflict checks run, nothing is logged per task and no
+     * events are published.
+     */
+    public synchronized void restore(Collection<Task> recovered) {
+        Objects.requireNonNull(recovered, "recovered cannot be null");
+        if (!tasks.isEmpty()) {
+            throw new IllegalStateException("restore requires an empty schedule");
+        }
+        List<Task> sorted = new ArrayList<>(recovered);
+        sorted.sort(null);
+        // Filling empty TreeSets from a SortedSet builds them in linear time instead of n inserts
+        tasks.addAll(new SortedListView(sorted));
+        Map<Priority, List<Task>> priorities = new EnumMap<>(Priority.class);
+        List<Task> done = new ArrayList<>();
+        List<Task> open = new ArrayList<>();
+        for (Task t : sorted) {
+            byDescription.put(key(t.getDescription()), t);
+            occupancy.occupy(t.getStart(), t.getEnd());
+            priorities.computeIfAbsent(t.getPriority(), p -> new ArrayList<>()).add(t);
+            (t.isCompleted() ? done : open).add(t);
+        }
+        priorities.forEach((p, list) -> byPriority.get(p).addAll(new SortedListView(list)));
+        completed.addAll(new SortedListView(done));
+        pending.addAll(new SortedListView(open));
+        for (Task t : sorted) {
+            if (t.getResources().isEmpty()) continue;
+            try {
+                resources.update(key, Collections.emptyList(), List.of(t));
+            } catch (TaskConflictException e) {
+                logger.log(Level.WARNING, "Restored task keeps its time but not its resources: {0}", e.getMessage());
+            }
+        }
+        changed();
+        logger.log(Level.INFO, "Schedule restored with {0} tasks", sorted.size());
+    }
+
+    /**
+     * Read-only SortedSet over a list already in natural order. Only what
+     * TreeSet.addAll needs for its linear-time bulk build is supported.
+     */
+    private static final class SortedListView extends AbstractSet<Task> implements SortedSet<Task> {
+        private final List<Task> sorted;
+
+        SortedListView(List<Task> sorted) {
+            this.sorted = sorted;
+        }
+
+        @Override public Iterator<Task> iterator() { return sorted.iterator(); }
+        @Override public int size() { return sorted.size(); }
+        @Override public Comparator<? super Task> comparator() { return null; }
+        @Override public Task first() { return sorted.get(0); }
+        @Override public Task last() { return sorted.get(sorted.size() - 1); }
+        @Override public SortedSet<Task> subSet(Task from, Task to) { throw new UnsupportedOperationException(); }
+        @Override public SortedSet<Task> headSet(Task to) { throw new UnsupportedOperationException(); }
+        @Override public SortedSet<Task> tailSet(Task from) { throw new UnsupportedOperationException(); }
+    }
+
+    /** Live latency and error counters for this schedule. */
+    public ScheduleMetrics getMetrics() {
+        return metrics;
+    }
+
+    /** Number of tasks in the schedule. */
+    public int size() {
+        return size;
+    }
+
+    /** Event bus used for observer delivery; exposes queue depth and dropped-event metrics. */
+    public EventBus getEventBus() {
+        return eventBus;
+    }
+
+    /**
+     * Every change to this schedule as a Flow.Publisher with sequence numbers,
+     * demand-driven delivery and replay of recent history (see ChangeFeed).
+     */
+    public ChangeFeed getChangeFeed() {
+        return changeFeed;
+    }
+
+    /** Recurring tasks of this schedule, shared with the crew member's other dates. */
+    public RecurrenceRules getRecurrenceRules() {
+        return recurring;
+    }
+
+    /** Shared-resource bookings of this schedule and every other schedule it is checked against. */
+    public ResourceIndex getResourceIndex() {
+        return resources;
+    }
+
+    /** Recurring tasks that apply to this schedule's date. */
+    public List<RecurringTask> getRecurringTasks() {
+        return recurring.forDate(date());
+    }
+
+    /**
+     * Add a recurring task. It is checked arithmetically against the other
+     * recurring tasks and against the tasks of every date it applies to;
+     * its occurrences are never stored.
+     */
+    public void addRecurring(RecurringTask rule) throws TaskConflictException {
+        recurring.add(rule);
+    }
+
+    public RecurringTask removeRecurring(String description) throws TaskNotFoundException {
+        return recurring.remove(description);
+    }
+
+    /**
+     * Put recurring rules recovered from disk back into this schedule's rules,
+     * skipping any already there (another schedule sharing them may have restored
+     * them first). Like restore(), nothing is checked, logged or published.
+     */
+    public void restoreRecurring(Collection<RecurringTask> recovered) {
+        Objects.requireNonNull(recovered, "recovered cannot be null");
+        recurring.restore(recovered);
+    }
+
+    // Called by RecurrenceRules while holding the lock, for every schedule a rule change applies to
+    void ruleAddedLocked(RecurringTask rule) {
+        if (changeLog != null) changeLog.ruleAdded(rule);
+        publish(ScheduleEvent.recurringAdded(rule));
+    }
+
+    void ruleRemovedLocked(RecurringTask rule) {
+        if (changeLog != null) changeLog.ruleRemoved(rule);
+        publish(ScheduleEvent.recurringRemoved(rule));
+    }
+
+    // Called by RecurrenceRules while holding the lock, before it changes any rule
+    void checkRecurringLocked(RecurringTask rule) throws TaskConflictException {
+        checkLogLocked();
+        for (Task t : tasks) {
+            Task occurrence = rule.overlapping(t.getStart(), t.getEnd());
+            if (occurrence != null) {
+                String msg = String.format("Recurring task at %s conflicts with existing task \"%s\"%s",
+                        occurrence.getStart(), t.getDescription(), key == null ? "" : " on " + key);
+                metrics.conflicts.increment();
+                logger.warning(msg);
+                throw new TaskConflictException(msg);
+            }
         }
     }
 
-    public synchronized void unregisterObserver(ScheduleObserver observer) {
-        observers.remove(observer);
+    private LocalDate date() {
+        return key == null ? null : key.date();
+    }
+
+    // Called under the lock for every change, so feed sequence order matches the order of changes
+    private void publish(ScheduleEvent event) {
+        outbox.add(changeFeed.publish(event));
     }
 
-    private void notifyObservers(String message) {
-        for (ScheduleObserver o : observers) {
+    /**
+     * Hand queued events to the EventBus; called by every writer after leaving
+     * the lock (RecurrenceRules calls it for the schedules a rule change touched).
+     * One thread delivers at a time, so events keep their order; a
+     * writer that finds another one delivering leaves its events to it.
+     */
+    void deliver() {
+        while (!outbox.isEmpty() && delivering.tryLock()) {
             try {
-                o.onNotification(message);
-            } catch (Exception ex) {
-                logger.log(Level.WARNING, "Observer failed: " + o, ex);
+                ScheduleEvent event;
+                while ((event = outbox.poll()) != null) eventBus.publish(event);
+            } finally {
+                delivering.unlock();
             }
         }
     }
@@ -61,27 +304,176 @@ public class ScheduleManager {
      * Add a task if it does not conflict, else throw TaskConflictException.
      * Efficiently checks only neighbor tasks from TreeSet.
      */
-    public synchronized void addTask(Task t) throws TaskConflictException {
+    public void addTask(Task t) throws TaskConflictException {
         Objects.requireNonNull(t, "Task cannot be null");
+        long started = System.nanoTime();
+        try {
+            synchronized (this) {
+                metrics.lockAcquired(started);
+                addLocked(t);
+            }
+        } finally {
+            metrics.add.recordSince(started);
+            deliver();
+        }
+    }
+
+    private void addLocked(Task t) throws TaskConflictException {
+        checkLogLocked();
+        Task sameName = byDescription.get(key(t.getDescription()));
+        if (sameName != null) {
+            String msg = String.format("A task named \"%s\" already exists", sameName.getDescription());
+            metrics.conflicts.increment();
+            logger.warning(msg);
+            throw new TaskConflictException(msg);
+        }
         // Check overlap with floor (previous) and ceiling (next)
         Task lower = tasks.floor(t); // floor: greatest <= t
         Task higher = tasks.ceiling(t); // least >= t
 
         if (conflictsWith(lower, t)) {
             String msg = String.format("Task conflicts with existing task \"%s\"", lower.getDescription());
-            notifyObservers("Conflict detected when adding \"" + t.getDescription() + "\": conflicts with \"" + lower.getDescription()+"\".");
+            metrics.conflicts.increment();
+            outbox.add(ScheduleEvent.conflict(t, lower));
             logger.warning(msg);
             throw new TaskConflictException(msg);
         }
         if (conflictsWith(t, higher)) {
             String msg = String.format("Task conflicts with existing task \"%s\"", higher.getDescription());
-            notifyObservers("Conflict detected when adding \"" + t.getDescription() + "\": conflicts with \"" + higher.getDescription()+"\".");
+            metrics.conflicts.increment();
+            outbox.add(ScheduleEvent.conflict(t, higher));
             logger.warning(msg);
             throw new TaskConflictException(msg);
         }
-        tasks.add(t);
-        logger.info("Task added: " + t);
-        notifyObservers("Task added: " + t.getDescription() + " [" + t.getStart() + "-" + t.getEnd() + "]");
+        Task occurrence = recurring.firstConflict(date(), t.getStart(), t.getEnd());
+        if (occurrence != null) {
+            String msg = String.format("Task conflicts with recurring task \"%s\" at %s",
+                    occurrence.getDescription(), occurrence.getStart());
+            metrics.conflicts.increment();
+            outbox.add(ScheduleEvent.conflict(t, occurrence));
+            logger.warning(msg);
+            throw new TaskConflictException(msg);
+        }
+        bookLocked(Collections.emptyList(), List.of(t));
+        logLocked(Collections.emptyList(), List.of(t), log -> log.added(t));
+        index(t);
+        changed();
+        logger.log(Level.INFO, "Task added: {0}", t);
+        publish(ScheduleEvent.added(t));
+    }
+
+    /**
+     * Add a batch of tasks atomically: either every task is added or none is.
+     * The batch is sorted once and checked against itself and the existing
+     * schedule in a single sweep; the exception lists every conflict found,
+     * not just the first. Observers get one BULK_ADDED event for the batch.
+     */
+    public void addAll(Collection<Task> batch) throws TaskConflictException {
+        Objects.requireNonNull(batch, "batch cannot be null");
+        if (batch.isEmpty()) return;
+        List<Task> sorted = new ArrayList<>(batch);
+        for (Task t : sorted) Objects.requireNonNull(t, "Task cannot be null");
+        sorted.sort(null);
+        long started = System.nanoTime();
+        try {
+            synchronized (this) {
+                metrics.lockAcquired(started);
+                addAllLocked(sorted);
+            }
+        } finally {
+            metrics.bulkAdd.recordSince(started);
+            deliver();
+        }
+    }
+
+    private void addAllLocked(List<Task> sorted) throws TaskConflictException {
+        checkLogLocked();
+        List<String> problems = new ArrayList<>();
+        Map<String, Task> names = new HashMap<>();
+        for (Task t : sorted) {
+            String k = key(t.getDescription());
+            Task other = byDescription.get(k);
+            if (other == null) other = names.putIfAbsent(k, t);
+            if (other != null) {
+                problems.add(String.format("A task named \"%s\" already exists", other.getDescription()));
+            }
+        }
+
+        checkOverlapsLocked(sorted, Collections.emptySet(), problems);
+
+        if (!problems.isEmpty()) {
+            String msg = String.format("Batch of %d tasks rejected: %d conflict(s), first: %s",
+                    sorted.size(), problems.size(), problems.get(0));
+            metrics.conflicts.increment();
+            logger.warning(msg);
+            throw new TaskConflictException(msg, problems);
+        }
+        bookLocked(Collections.emptyList(), sorted);
+        logLocked(Collections.emptyList(), sorted, log -> {
+            log.beginGroup();
+            for (Task t : sorted) log.added(t);
+            log.endGroup();
+        });
+        for (Task t : sorted) index(t);
+        changed();
+        logger.log(Level.INFO, "Tasks added in bulk: {0}", sorted.size());
+        publish(ScheduleEvent.bulkAdded(sorted));
+    }
+
+    /**
+     * Add a problem for every task in sorted (in start order) that would overlap
+     * another one of them, a stored task not in replaced, or a recurring task.
+     */
+    private void checkOverlapsLocked(List<Task> sorted, Set<Task> replaced, List<String> problems) {
+        // Merge the batch with the existing tasks it could touch, in start order, tracking the
+        // interval that reaches furthest so far; any task starting before that end overlaps it.
+        // Existing tasks never overlap each other, so only the one just before the batch matters.
+        Task first = sorted.get(0);
+        Task before = tasks.lower(first);
+        while (before != null && replaced.contains(before)) before = tasks.lower(before);
+        Iterator<Task> existing = tasks.tailSet(before != null ? before : first, true).iterator();
+        Set<Task> inBatch = Collections.newSetFromMap(new IdentityHashMap<>());
+        inBatch.addAll(sorted);
+        LocalTime batchEnd = first.getEnd();
+        for (Task t : sorted) {
+            if (t.getEnd().isAfter(batchEnd)) batchEnd = t.getEnd();
+        }
+
+        Task reach = null; // task with the latest end seen so far
+        int i = 0;
+        Task nextExisting = next(existing, replaced);
+        while (i < sorted.size() || nextExisting != null) {
+            Task cur;
+            if (nextExisting == null || (i < sorted.size() && sorted.get(i).compareTo(nextExisting) < 0)) {
+                cur = sorted.get(i++);
+            } else {
+                cur = nextExisting;
+                // past the end of the batch nothing else can overlap it
+                if (i == sorted.size() && !cur.getStart().isBefore(batchEnd)) break;
+                nextExisting = next(existing, replaced);
+            }
+            if (reach != null && conflictsWith(reach, cur) && (inBatch.contains(cur) || inBatch.contains(reach))) {
+                problems.add(String.format("Task \"%s\" conflicts with %s task \"%s\"", cur.getDescription(),
+                        inBatch.contains(reach) ? "batch" : "existing", reach.getDescription()));
+            }
+            if (reach == null || cur.getEnd().isAfter(reach.getEnd())) reach = cur;
+        }
+        LocalDate date = date();
+        for (Task t : sorted) {
+            Task occurrence = recurring.firstConflict(date, t.getStart(), t.getEnd());
+            if (occurrence != null) {
+                problems.add(String.format("Task \"%s\" conflicts with recurring task \"%s\" at %s",
+                        t.getDescription(), occurrence.getDescription(), occurrence.getStart()));
+            }
+        }
+    }
+
+    private static Task next(Iterator<Task> it, Set<Task> skip) {
+        while (it.hasNext()) {
+            Task t = it.next();
+            if (!skip.contains(t)) return t;
+        }
+        return null;
     }
 
     private boolean conflictsWith(Task a, Task b) {
@@ -90,80 +482,463 @@ public class ScheduleManager {
         return a.getStart().isBefore(b.getEnd()) && a.getEnd().isAfter(b.getStart());
     }
 
-    public synchronized void removeTaskByDescription(String description) throws TaskNotFoundException {
+    // Add t to the main set and every secondary index
+    private void index(Task t) {
+        tasks.add(t);
+        byDescription.put(key(t.getDescription()), t);
+        byPriority.get(t.getPriority()).add(t);
+        (t.isCompleted() ? completed : pending).add(t);
+        occupancy.occupy(t.getStart(), t.getEnd());
+    }
+
+    // Must be called before mutating any field that affects ordering or index membership
+    private void unindex(Task t) {
+        tasks.remove(t);
+        byDescription.remove(key(t.getDescription()));
+        byPriority.get(t.getPriority()).remove(t);
+        (t.isCompleted() ? completed : pending).remove(t);
+        occupancy.release(t.getStart(), t.getEnd());
+    }
+
+    // Invalidate the published snapshot; called by writers while holding the lock
+    private void changed() {
+        version++;
+        snapshot = null;
+        size = tasks.size();
+    }
+
+    /**
+     * Current immutable view of the schedule. Lock-free unless the schedule
+     * changed since the last call, in which case the new snapshot is built once.
+     */
+    public ScheduleSnapshot snapshot() {
+        ScheduleSnapshot s = snapshot;
+        if (s != null) return s;
+        long requested = System.nanoTime();
+        synchronized (this) {
+            metrics.lockAcquired(requested);
+            if (snapshot == null) {
+                snapshot = new ScheduleSnapshot(version, tasks, byPriority, pending, completed);
+            }
+            return snapshot;
+        }
+    }
+
+    // Descriptions are matched case-insensitively and ignoring surrounding whitespace
+    static String key(String description) {
+        return description.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public void removeTaskByDescription(String description) throws TaskNotFoundException {
         Objects.requireNonNull(description, "description cannot be null");
-        Optional<Task> found = tasks.stream()
-                .filter(t -> t.getDescription().equalsIgnoreCase(description.trim()))
-                .findFirst();
-        if (!found.isPresent()) {
-            logger.warning("Attempted to remove non-existent task: " + description);
+        long started = System.nanoTime();
+        try {
+            synchronized (this) {
+                metrics.lockAcquired(started);
+                removeLocked(description);
+            }
+        } finally {
+            metrics.remove.recordSince(started);
+            deliver();
+        }
+    }
+
+    private void removeLocked(String description) throws TaskNotFoundException {
+        checkLogLocked();
+        Task t = byDescription.get(key(description));
+        if (t == null) {
+            metrics.notFound.increment();
+            logger.log(Level.WARNING, "Attempted to remove non-existent task: {0}", description);
             throw new TaskNotFoundException("Task not found: " + description);
         }
-        Task t = found.get();
-        tasks.remove(t);
-        logger.info("Task removed: " + t);
-        notifyObservers("Task removed: " + t.getDescription());
+        logLocked(Collections.emptyList(), Collections.emptyList(), log -> log.removed(t));
+        unindex(t);
+        resources.release(key, List.of(t));
+        changed();
+        logger.log(Level.INFO, "Task removed: {0}", t);
+        publish(ScheduleEvent.removed(t));
     }
 
-    public synchronized List<Task> viewAllTasks() {
-        return new ArrayList<>(tasks);
+    /** All tasks sorted by start time, as an unmodifiable list from the current snapshot. */
+    public List<Task> viewAllTasks() {
+        long started = System.nanoTime();
+        try {
+            return snapshot().getTasks();
+        } finally {
+            metrics.view.recordSince(started);
+        }
     }
 
-    public synchronized List<Task> getTasksByPriority(model.Priority priority) {
-        List<Task> list = new ArrayList<>();
-        for (Task t : tasks) {
-            if (t.getPriority() == priority) list.add(t);
+    public List<Task> getTasksByPriority(Priority priority) {
+        Objects.requireNonNull(priority, "priority cannot be null");
+        long started = System.nanoTime();
+        try {
+            return snapshot().getTasksByPriority(priority);
+        } finally {
+            metrics.view.recordSince(started);
+        }
+    }
+
+    /** Tasks overlapping [from, to), as a view of the current snapshot (no copy). */
+    public List<Task> tasksBetween(LocalTime from, LocalTime to) {
+        Objects.requireNonNull(from, "from cannot be null");
+        Objects.requireNonNull(to, "to cannot be null");
+        return snapshot().tasksBetween(from, to);
+    }
+
+    /**
+     * Tasks and recurring-task occurrences overlapping [from, to), in start order.
+     * Occurrences are generated for this window only, and the merged list is
+     * cached until the schedule or its recurring tasks change.
+     */
+    public List<Task> agenda(LocalTime from, LocalTime to) {
+        Objects.requireNonNull(from, "from cannot be null");
+        Objects.requireNonNull(to, "to cannot be null");
+        ScheduleSnapshot s = snapshot();
+        // read before the rules, so the stamp is never newer than what it covers
+        long rulesVersion = recurring.getVersion();
+        List<RecurringTask> rules = getRecurringTasks();
+        if (rules.isEmpty()) return s.tasksBetween(from, to);
+        AgendaQuery query = new AgendaQuery(from, to);
+        List<Task> cached = agendaCache.get(query, s.getVersion(), rulesVersion);
+        if (cached != null) {
+            metrics.cacheHits.increment();
+            return cached;
         }
-        return list;
+        metrics.cacheMisses.increment();
+        List<Task> merged = new ArrayList<>(s.tasksBetween(from, to));
+        for (RecurringTask r : rules) merged.addAll(r.occurrences(from, to));
+        merged.sort(null);
+        return agendaCache.put(query, s.getVersion(), rulesVersion, Collections.unmodifiableList(merged));
+    }
+
+    /** The task running at the given time, if any, as a view of the current snapshot. */
+    public List<Task> tasksActiveAt(LocalTime time) {
+        Objects.requireNonNull(time, "time cannot be null");
+        return snapshot().tasksActiveAt(time);
     }
 
-    public synchronized void editTask(String description, LocalTime newStart, LocalTime newEnd, model.Priority newPriority)
+    /**
+     * One page of tasks in start order after cursor (null for the first page).
+     * Use the last task of a page as the cursor for the next one.
+     */
+    public List<Task> tasksAfter(Task cursor, int limit) {
+        return snapshot().tasksAfter(cursor, limit);
+    }
+
+    public List<Task> getPendingTasks() {
+        long started = System.nanoTime();
+        try {
+            return snapshot().getPendingTasks();
+        } finally {
+            metrics.view.recordSince(started);
+        }
+    }
+
+    public List<Task> getCompletedTasks() {
+        long started = System.nanoTime();
+        try {
+            return snapshot().getCompletedTasks();
+        } finally {
+            metrics.view.recordSince(started);
+        }
+    }
+
+    /**
+     * Change a task's times and priority; returns the task as it is now stored.
+     * Throws IllegalArgumentException, leaving the task as it was, unless newStart is before newEnd.
+     */
+    public Task editTask(String description, LocalTime newStart, LocalTime newEnd, Priority newPriority)
             throws TaskNotFoundException, TaskConflictException {
-        Optional<Task> found = tasks.stream()
-                .filter(t -> t.getDescription().equalsIgnoreCase(description.trim()))
-                .findFirst();
-        if (!found.isPresent()) {
+        Objects.requireNonNull(newPriority, "newPriority cannot be null");
+        return edit(description, newStart, newEnd, newPriority);
+    }
+
+    /** Change a task's times, keeping its priority; otherwise the same as editTask above. */
+    public Task editTask(String description, LocalTime newStart, LocalTime newEnd)
+            throws TaskNotFoundException, TaskConflictException {
+        return edit(description, newStart, newEnd, null);
+    }
+
+    private Task edit(String description, LocalTime newStart, LocalTime newEnd, Priority newPriority)
+            throws TaskNotFoundException, TaskConflictException {
+        Objects.requireNonNull(description, "description cannot be null");
+        long started = System.nanoTime();
+        try {
+            synchronized (this) {
+                metrics.lockAcquired(started);
+                return editLocked(description, newStart, newEnd, newPriority);
+            }
+        } finally {
+            metrics.edit.recordSince(started);
+            deliver();
+        }
+    }
+
+    // a null newPriority keeps the task's current one
+    private Task editLocked(String description, LocalTime newStart, LocalTime newEnd, Priority newPriority)
+            throws TaskNotFoundException, TaskConflictException {
+        checkLogLocked();
+        Task existing = byDescription.get(key(description));
+        if (existing == null) {
+            metrics.notFound.increment();
             throw new TaskNotFoundException("Task not found: " + description);
         }
-        Task existing = found.get();
-        // Remove temporarily
-        tasks.remove(existing);
+        // validates the new times and priority before the indexes are touched
+        Task temp = existing.withSchedule(newStart, newEnd,
+                newPriority == null ? existing.getPriority() : newPriority);
 
-        Task temp = new Task(existing.getDescription(), newStart, newEnd, newPriority);
+        // Remove temporarily
+        unindex(existing);
 
         // check conflicts with neighbors
         Task lower = tasks.floor(temp);
         Task higher = tasks.ceiling(temp);
-        if (conflictsWith(lower, temp) || conflictsWith(temp, higher)) {
+        if (conflictsWith(lower, temp) || conflictsWith(temp, higher)
+                || recurring.firstConflict(date(), temp.getStart(), temp.getEnd()) != null) {
             // restore original
-            tasks.add(existing);
+            index(existing);
+            metrics.conflicts.increment();
             throw new TaskConflictException("Edited task conflicts with existing tasks.");
         }
+        try {
+            bookLocked(List.of(existing), List.of(temp));
+            logLocked(List.of(existing), List.of(temp), log -> log.replaced(existing, temp));
+        } catch (TaskConflictException | RuntimeException e) {
+            index(existing);
+            throw e;
+        }
 
         // apply edits
-        existing.setStart(newStart);
-        existing.setEnd(newEnd);
-        existing.setPriority(newPriority);
-        tasks.add(existing);
+        index(temp);
+        changed();
 
-        logger.info("Task edited: " + existing);
-        notifyObservers("Task edited: " + existing.getDescription());
+        logger.log(Level.INFO, "Task edited: {0}", temp);
+        publish(ScheduleEvent.edited(existing, temp));
+        return temp;
     }
 
-    public synchronized void markCompleted(String description) throws TaskNotFoundException {
-        Optional<Task> found = tasks.stream()
-                .filter(t -> t.getDescription().equalsIgnoreCase(description.trim()))
-                .findFirst();
-        if (!found.isPresent()) {
+    /** Mark a task completed; returns the task as it is now stored. */
+    public Task markCompleted(String description) throws TaskNotFoundException {
+        Objects.requireNonNull(description, "description cannot be null");
+        long started = System.nanoTime();
+        try {
+            synchronized (this) {
+                metrics.lockAcquired(started);
+                return markCompletedLocked(description);
+            }
+        } finally {
+            metrics.markCompleted.recordSince(started);
+            deliver();
+        }
+    }
+
+    private Task markCompletedLocked(String description) throws TaskNotFoundException {
+        checkLogLocked();
+        Task t = byDescription.get(key(description));
+        if (t == null) {
+            metrics.notFound.increment();
             throw new TaskNotFoundException("Task not found: " + description);
         }
-        Task t = found.get();
-        t.setCompleted(true);
-        logger.info("Task marked completed: " + t);
-        notifyObservers("Task completed: " + t.getDescription());
+        if (!t.isCompleted()) {
+            // same times, so its resource bookings stay as they are
+            Task before = t;
+            Task after = before.asCompleted();
+            logLocked(Collections.emptyList(), Collections.emptyList(), log -> log.replaced(before, after));
+            unindex(before);
+            t = after;
+            index(t);
+            changed();
+            // only a real change goes into the feed; completing a completed task is a no-op
+            publish(ScheduleEvent.completed(t));
+        }
+        logger.log(Level.INFO, "Task marked completed: {0}", t);
+        return t;
+    }
+
+    /**
+     * Start a transaction: stage any number of adds, edits, completions, removals
+     * and shifts, then commit() them atomically (see ScheduleTransaction).
+     */
+    public ScheduleTransaction transaction() {
+        return new ScheduleTransaction(this);
+    }
+
+    ScheduleSnapshot commit(ScheduleTransaction tx) throws TaskConflictException, TaskNotFoundException {
+        long started = System.nanoTime();
+        try {
+            synchronized (this) {
+                metrics.lockAcquired(started);
+                return commitLocked(tx);
+            }
+        } finally {
+            metrics.commit.recordSince(started);
+            deliver();
+        }
+    }
+
+    private ScheduleSnapshot commitLocked(ScheduleTransaction tx) throws TaskConflictException, TaskNotFoundException {
+        checkLogLocked();
+        ScheduleTransaction.Plan plan;
+        try {
+            plan = tx.resolve();
+        } catch (TaskNotFoundException e) {
+            metrics.notFound.increment();
+            throw e;
+        }
+        List<Task> result = plan.finalTasks();
+        result.sort(null);
+        List<String> problems = plan.problems;
+        if (!result.isEmpty()) {
+            Set<Task> replaced = Collections.newSetFromMap(new IdentityHashMap<>());
+            replaced.addAll(plan.replaced());
+            checkOverlapsLocked(result, replaced, problems);
+        }
+        if (!problems.isEmpty()) {
+            String msg = String.format("Transaction of %d operation(s) rejected: %d conflict(s), first: %s",
+                    tx.size(), problems.size(), problems.get(0));
+            metrics.conflicts.increment();
+            logger.warning(msg);
+            throw new TaskConflictException(msg, problems);
+        }
+        if (plan.isEmpty()) return snapshot();
+        bookLocked(plan.replaced(), result);
+        // recovered all together or not at all
+        logLocked(plan.replaced(), result, log -> {
+            log.beginGroup();
+            plan.after.forEach((id, after) -> {
+                Task before = plan.before.get(id);
+                if (before == null) {
+                    log.added(after);
+                } else if (after == null) {
+                    log.removed(before);
+                } else {
+                    log.replaced(before, after);
+                }
+            });
+            log.endGroup();
+        });
+
+        for (Task t : plan.replaced()) unindex(t);
+        for (Task t : result) index(t);
+        // Build the new snapshot before releasing the lock: readers go straight from the
+        // old version to the new one instead of waiting for a rebuild.
+        version++;
+        size = tasks.size();
+        ScheduleSnapshot committed = new ScheduleSnapshot(version, tasks, byPriority, pending, completed);
+        snapshot = committed;
+
+        plan.after.forEach((id, after) -> {
+            Task before = plan.before.get(id);
+            if (before == null) {
+                publish(ScheduleEvent.added(after));
+            } else if (after == null) {
+                publish(ScheduleEvent.removed(before));
+            } else {
+                boolean completedOnly = after.isCompleted() && !before.isCompleted()
+                        && after.getStart().equals(before.getStart()) && after.getEnd().equals(before.getEnd());
+                publish(completedOnly ? ScheduleEvent.completed(after) : ScheduleEvent.edited(before, after));
+            }
+        });
+        logger.log(Level.INFO, "Transaction committed: {0} change(s), version {1}",
+                new Object[] {plan.after.size(), version});
+        return committed;
+    }
+
+    // A change log that can no longer record changes (e.g. a failed journal) rejects them up front
+    void checkLogLocked() {
+        if (changeLog != null) changeLog.checkWritable();
+    }
+
+    /**
+     * Record a change in the change log before it is applied to memory. The log
+     * can still fail after checkLogLocked() (the journal flusher may hit an I/O
+     * error in between); the bookings made for the change are then handed back
+     * and the exception rethrown, leaving the schedule as it was.
+     */
+    private void logLocked(Collection<Task> released, Collection<Task> booked, Consumer<ChangeLog> write) {
+        if (changeLog == null) return;
+        try {
+            write.accept(changeLog);
+        } catch (RuntimeException e) {
+            try {
+                resources.update(key, booked, released);
+            } catch (TaskConflictException lost) {
+                // another schedule booked a released resource in the meantime
+                logger.log(Level.SEVERE, "Could not restore resource bookings: {0}", lost.getMessage());
+                e.addSuppressed(lost);
+            }
+            throw e;
+        }
+    }
+
+    // Swap resource bookings once every other check has passed; only the change log may fail after it
+    private void bookLocked(Collection<Task> released, Collection<Task> booked) throws TaskConflictException {
+        try {
+            resources.update(key, released, booked);
+        } catch (TaskConflictException e) {
+            metrics.conflicts.increment();
+            throw e;
+        }
+    }
+
+    // ---- used by ScheduleTransaction while the lock is held ----
+
+    Task findLocked(String description) {
+        return byDescription.get(key(description));
     }
 
-    public synchronized boolean isEmpty() {
-        return tasks.isEmpty();
+    Iterable<Task> tasksFromLatestLocked() {
+        return tasks.descendingSet();
+    }
+
+    /**
+     * Free windows between from and to that can hold a task of the given length,
+     * without trying addTask. Windows are whole minutes; an end of LocalTime.MAX
+     * means midnight. The unmodifiable result is cached until the schedule or its
+     * recurring tasks change.
+     */
+    public synchronized List<TimeSlot> findFreeSlots(Duration length, LocalTime from, LocalTime to) {
+        Objects.requireNonNull(length, "length cannot be null");
+        Objects.requireNonNull(from, "from cannot be null");
+        Objects.requireNonNull(to, "to cannot be null");
+        long rulesVersion = recurring.getVersion(); // before occupancyWithRecurring reads the rules
+        FreeSlotQuery query = new FreeSlotQuery(length, from, to);
+        List<TimeSlot> cached = freeSlotCache.get(query, version, rulesVersion);
+        if (cached != null) {
+            metrics.cacheHits.increment();
+            return cached;
+        }
+        metrics.cacheMisses.increment();
+        return freeSlotCache.put(query, version, rulesVersion,
+                Collections.unmodifiableList(occupancyWithRecurring(from, to).freeSlots(length, from, to)));
+    }
+
+    /** Earliest free window of the given length starting at or after the given time. */
+    public synchronized Optional<TimeSlot> nextAvailable(Duration length, LocalTime after) {
+        Objects.requireNonNull(length, "length cannot be null");
+        Objects.requireNonNull(after, "after cannot be null");
+        return Optional.ofNullable(occupancyWithRecurring(after, LocalTime.MAX).nextAvailable(length, after));
+    }
+
+    public boolean isEmpty() {
+        return snapshot().isEmpty();
+    }
+
+    private record AgendaQuery(LocalTime from, LocalTime to) {
+    }
+
+    private record FreeSlotQuery(Duration length, LocalTime from, LocalTime to) {
+    }
+
+    // The occupancy map plus the recurring occurrences inside [from, to); called with the lock held
+    private OccupancyMap occupancyWithRecurring(LocalTime from, LocalTime to) {
+        List<RecurringTask> rules = getRecurringTasks();
+        if (rules.isEmpty()) return occupancy;
+        OccupancyMap map = occupancy.copy();
+        for (RecurringTask r : rules) {
+            for (Task o : r.occurrences(from, to)) map.occupy(o.getStart(), o.getEnd());
+        }
+        return map;
     }
 }
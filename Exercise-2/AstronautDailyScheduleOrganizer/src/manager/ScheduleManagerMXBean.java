@@ -0,0 +1,45 @@
+package manager;
+
+import util.LatencyStats;
+
+/**
+ * JMX view of a ScheduleManager's metrics (see ScheduleManagerMonitor).
+ * Latencies are in nanoseconds and appear in JMX clients as composite values.
+ */
+public interface ScheduleManagerMXBean {
+    int getTaskCount();
+
+    long getConflictCount();
+
+    long getNotFoundCount();
+
+    long getCacheHitCount();
+
+    long getCacheMissCount();
+
+    LatencyStats getAddLatency();
+
+    LatencyStats getBulkAddLatency();
+
+    LatencyStats getEditLatency();
+
+    LatencyStats getRemoveLatency();
+
+    LatencyStats getMarkCompletedLatency();
+
+    LatencyStats getCommitLatency();
+
+    LatencyStats getViewLatency();
+
+    LatencyStats getLockWait();
+
+    /** Time observers spend handling one event, on their delivery threads. */
+    LatencyStats getObserverDispatch();
+
+    int getObserverQueueDepth();
+
+    long getObserverDroppedCount();
+
+    /** Clear all latency histograms and counters. */
+    void resetMetrics();
+}
@@ -0,0 +1,85 @@
+package manager;
+
+import util.LatencyStats;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Publishes a ScheduleManager's metrics on the platform MBean server, under
+ * manager:type=ScheduleManager,name=default (or name=crew@date for a partition).
+ */
+public final class ScheduleManagerMonitor implements ScheduleManagerMXBean {
+    private static final Logger logger = Logger.getLogger(ScheduleManagerMonitor.class.getName());
+
+    private final ScheduleManager manager;
+
+    public ScheduleManagerMonitor(ScheduleManager manager) {
+        this.manager = Objects.requireNonNull(manager, "manager cannot be null");
+    }
+
+    /** Register a monitor for manager; returns its name, or null if registration failed. */
+    public static ObjectName register(ScheduleManager manager) {
+        try {
+            ObjectName name = objectName(manager);
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            server.registerMBean(new ScheduleManagerMonitor(manager), name);
+            return name;
+        } catch (InstanceAlreadyExistsException e) {
+            logger.log(Level.FINE, "Schedule monitor already registered: {0}", e.getMessage());
+            return null;
+        } catch (JMException e) {
+            logger.log(Level.WARNING, "Could not register schedule monitor", e);
+            return null;
+        }
+    }
+
+    public static void unregister(ScheduleManager manager) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = objectName(manager);
+            if (server.isRegistered(name)) server.unregisterMBean(name);
+        } catch (JMException e) {
+            logger.log(Level.WARNING, "Could not unregister schedule monitor", e);
+        }
+    }
+
+    static ObjectName objectName(ScheduleManager manager) throws JMException {
+        ScheduleKey key = manager.getKey();
+        String name = key == null ? "default" : ObjectName.quote(key.toString());
+        return new ObjectName("manager:type=ScheduleManager,name=" + name);
+    }
+
+    private ScheduleMetrics metrics() {
+        return manager.getMetrics();
+    }
+
+    @Override public int getTaskCount() { return manager.size(); }
+    @Override public long getConflictCount() { return metrics().getConflictCount(); }
+    @Override public long getNotFoundCount() { return metrics().getNotFoundCount(); }
+    @Override public long getCacheHitCount() { return metrics().getCacheHitCount(); }
+    @Override public long getCacheMissCount() { return metrics().getCacheMissCount(); }
+    @Override public LatencyStats getAddLatency() { return metrics().getAddLatency(); }
+    @Override public LatencyStats getBulkAddLatency() { return metrics().getBulkAddLatency(); }
+    @Override public LatencyStats getEditLatency() { return metrics().getEditLatency(); }
+    @Override public LatencyStats getRemoveLatency() { return metrics().getRemoveLatency(); }
+    @Override public LatencyStats getMarkCompletedLatency() { return metrics().getMarkCompletedLatency(); }
+    @Override public LatencyStats getCommitLatency() { return metrics().getCommitLatency(); }
+    @Override public LatencyStats getViewLatency() { return metrics().getViewLatency(); }
+    @Override public LatencyStats getLockWait() { return metrics().getLockWait(); }
+    @Override public LatencyStats getObserverDispatch() { return manager.getEventBus().getDispatchLatency(); }
+    @Override public int getObserverQueueDepth() { return manager.getEventBus().getQueueDepth(); }
+    @Override public long getObserverDroppedCount() { return manager.getEventBus().getDroppedCount(); }
+
+    @Override
+    public void resetMetrics() {
+        metrics().reset();
+        manager.getEventBus().resetDispatchLatency();
+    }
+}
@@ -0,0 +1,66 @@
+package manager;
+
+import util.LatencyHistogram;
+import util.LatencyStats;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Always-on counters for one ScheduleManager: latency per operation (measured
+ * from the call, so it includes waiting for the lock), time spent waiting for
+ * the manager lock, conflict / not-found counts and query cache hits. Recording is a few
+ * LongAdder increments, so it stays cheap under contention.
+ */
+public final class ScheduleMetrics {
+    final LatencyHistogram add = new LatencyHistogram();
+    final LatencyHistogram bulkAdd = new LatencyHistogram();
+    final LatencyHistogram edit = new LatencyHistogram();
+    final LatencyHistogram remove = new LatencyHistogram();
+    final LatencyHistogram markCompleted = new LatencyHistogram();
+    final LatencyHistogram commit = new LatencyHistogram();
+    final LatencyHistogram view = new LatencyHistogram();
+    final LatencyHistogram lockWait = new LatencyHistogram();
+    final LongAdder conflicts = new LongAdder();
+    final LongAdder notFound = new LongAdder();
+    final LongAdder cacheHits = new LongAdder();
+    final LongAdder cacheMisses = new LongAdder();
+
+    ScheduleMetrics() {
+    }
+
+    /** Call right after acquiring the manager lock with the nanoTime taken before asking for it. */
+    void lockAcquired(long requestedNanos) {
+        lockWait.recordSince(requestedNanos);
+    }
+
+    public LatencyStats getAddLatency() { return add.snapshot(); }
+    public LatencyStats getBulkAddLatency() { return bulkAdd.snapshot(); }
+    public LatencyStats getEditLatency() { return edit.snapshot(); }
+    public LatencyStats getRemoveLatency() { return remove.snapshot(); }
+    public LatencyStats getMarkCompletedLatency() { return markCompleted.snapshot(); }
+    public LatencyStats getCommitLatency() { return commit.snapshot(); }
+    public LatencyStats getViewLatency() { return view.snapshot(); }
+    public LatencyStats getLockWait() { return lockWait.snapshot(); }
+
+    /** Adds, edits and transactions rejected because of an overlap or a duplicate name. */
+    public long getConflictCount() { return conflicts.sum(); }
+
+    /** Edits, removals and completions naming a task that does not exist. */
+    public long getNotFoundCount() { return notFound.sum(); }
+
+    /** Range queries answered from the query cache without recomputing. */
+    public long getCacheHitCount() { return cacheHits.sum(); }
+
+    public long getCacheMissCount() { return cacheMisses.sum(); }
+
+    public void reset() {
+        for (LatencyHistogram h : new LatencyHistogram[] {add, bulkAdd, edit, remove, markCompleted, commit, view,
+                lockWait}) {
+            h.reset();
+        }
+        conflicts.reset();
+        notFound.reset();
+        cacheHits.reset();
+        cacheMisses.reset();
+    }
+}
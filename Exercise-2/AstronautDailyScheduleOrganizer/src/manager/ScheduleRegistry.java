@@ -0,0 +1,145 @@
+package manager;
+
+import exceptions.TaskConflictException;
+import exceptions.TaskNotFoundException;
+import model.RecurringTask;
+import model.Task;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+/**
+ * Hands out independent schedule partitions keyed by crew member and mission date.
+ * Each partition is its own ScheduleManager with its own lock, so operations on
+ * different partitions never contend. Cross-partition queries fan out over the
+ * fork-join pool and merge the per-partition results.
+ */
+public class ScheduleRegistry {
+    private static final Logger logger = Logger.getLogger(ScheduleRegistry.class.getName());
+
+    // partitions per fork-join leaf; below this splitting costs more than it saves
+    private static final int FORK_THRESHOLD = 16;
+
+    private final ConcurrentMap<ScheduleKey, ScheduleManager> partitions = new ConcurrentHashMap<>();
+    // one rule set per crew member, shared by all of their dates
+    private final ConcurrentMap<String, RecurrenceRules> recurring = new ConcurrentHashMap<>();
+    // one booking index for shared resources, so they are checked across crew members
+    private final ResourceIndex resources = new ResourceIndex();
+    private final ForkJoinPool pool;
+
+    public ScheduleRegistry() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ScheduleRegistry(ForkJoinPool pool) {
+        this.pool = Objects.requireNonNull(pool, "pool cannot be null");
+    }
+
+    /** The schedule for this crew member and date, created empty on first use. */
+    public ScheduleManager partition(String crewMember, LocalDate date) {
+        return partition(new ScheduleKey(crewMember, date));
+    }
+
+    public ScheduleManager partition(ScheduleKey key) {
+        Objects.requireNonNull(key, "key cannot be null");
+        return partitions.computeIfAbsent(key, k -> {
+            logger.fine(() -> "Schedule partition created: " + k);
+            return new ScheduleManager(k, recurrenceRules(k.crewMember()), resources);
+        });
+    }
+
+    /** Recurring tasks of a crew member; they apply to every date's partition, existing or future. */
+    public RecurrenceRules recurrenceRules(String crewMember) {
+        Objects.requireNonNull(crewMember, "crewMember cannot be null");
+        return recurring.computeIfAbsent(crewMember.trim(), c -> new RecurrenceRules());
+    }
+
+    /** Add a recurring task for a crew member, checked against all of their dates (see RecurrenceRules). */
+    public void addRecurring(String crewMember, RecurringTask rule) throws TaskConflictException {
+        recurrenceRules(crewMember).add(rule);
+    }
+
+    public RecurringTask removeRecurring(String crewMember, String description) throws TaskNotFoundException {
+        return recurrenceRules(crewMember).remove(description);
+    }
+
+    /** Bookings of shared resources across all partitions. */
+    public ResourceIndex resources() {
+        return resources;
+    }
+
+    /** Existing partition or null; never creates one. */
+    public ScheduleManager find(ScheduleKey key) {
+        return partitions.get(key);
+    }
+
+    public Set<ScheduleKey> keys() {
+        return Collections.unmodifiableSet(partitions.keySet());
+    }
+
+    public int size() {
+        return partitions.size();
+    }
+
+    /** What every crew member is doing on the given date and time. */
+    public SortedMap<ScheduleKey, List<Task>> tasksActiveAt(LocalDate date, LocalTime time) {
+        Objects.requireNonNull(date, "date cannot be null");
+        Objects.requireNonNull(time, "time cannot be null");
+        return query(date, s -> s.tasksActiveAt(time));
+    }
+
+    /**
+     * Run a read-only query against the snapshot of every partition on the given
+     * date (or every partition when date is null) in parallel. Partitions with an
+     * empty result are left out of the merged map.
+     */
+    public SortedMap<ScheduleKey, List<Task>> query(LocalDate date, Function<ScheduleSnapshot, List<Task>> query) {
+        Objects.requireNonNull(query, "query cannot be null");
+        List<ScheduleManager> targets = new ArrayList<>();
+        for (ScheduleManager m : partitions.values()) {
+            if (date == null || date.equals(m.getKey().date())) targets.add(m);
+        }
+        return pool.invoke(new FanOut(targets, 0, targets.size(), query));
+    }
+
+    private static final class FanOut extends RecursiveTask<SortedMap<ScheduleKey, List<Task>>> {
+        private final List<ScheduleManager> targets;
+        private final int from;
+        private final int to;
+        private final Function<ScheduleSnapshot, List<Task>> query;
+
+        FanOut(List<ScheduleManager> targets, int from, int to, Function<ScheduleSnapshot, List<Task>> query) {
+            this.targets = targets;
+            this.from = from;
+            this.to = to;
+            this.query = query;
+        }
+
+        @Override
+        protected SortedMap<ScheduleKey, List<Task>> compute() {
+            if (to - from <= FORK_THRESHOLD) {
+                SortedMap<ScheduleKey, List<Task>> result = new TreeMap<>();
+                for (int i = from; i < to; i++) {
+                    ScheduleManager m = targets.get(i);
+                    List<Task> found = query.apply(m.snapshot());
+                    if (!found.isEmpty()) result.put(m.getKey(), found);
+                }
+                return result;
+            }
+            int mid = (from + to) >>> 1;
+            FanOut left = new FanOut(targets, from, mid, query);
+            left.fork();
+            SortedMap<ScheduleKey, List<Task>> right = new FanOut(targets, mid, to, query).compute();
+            SortedMap<ScheduleKey, List<Task>> merged = left.join();
+            merged.putAll(right);
+            return merged;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package manager;
+
+import model.Priority;
+import model.Task;
+
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * Immutable, versioned view of a schedule at one point in time.
+ * Built by ScheduleManager after a change and shared by all readers until the next change,
+ * so reading it never takes the manager lock.
+ */
+public final class ScheduleSnapshot {
+    private final long version;
+    private final List<Task> tasks;
+    private final Map<Priority, List<Task>> byPriority = new EnumMap<>(Priority.class);
+    private final List<Task> pending;
+    private final List<Task> completed;
+
+    ScheduleSnapshot(long version, Collection<Task> tasks, Map<Priority, ? extends Collection<Task>> byPriority,
+                     Collection<Task> pending, Collection<Task> completed) {
+        this.version = version;
+        this.tasks = freeze(tasks);
+        for (Map.Entry<Priority, ? extends Collection<Task>> e : byPriority.entrySet()) {
+            this.byPriority.put(e.getKey(), freeze(e.getValue()));
+        }
+        this.pending = freeze(pending);
+        this.completed = freeze(completed);
+    }
+
+    private static List<Task> freeze(Collection<Task> source) {
+        return Collections.unmodifiableList(new ArrayList<>(source));
+    }
+
+    /** Incremented by every successful change to the schedule. */
+    public long getVersion() { return version; }
+
+    /** All tasks ordered by start time. */
+    public List<Task> getTasks() { return tasks; }
+
+    public List<Task> getTasksByPriority(Priority priority) {
+        return byPriority.getOrDefault(priority, Collections.emptyList());
+    }
+
+    public List<Task> getPendingTasks() { return pending; }
+
+    public List<Task> getCompletedTasks() { return completed; }
+
+    public boolean isEmpty() { return tasks.isEmpty(); }
+
+    // Range queries below return subList views of tasks: no copying, and they stay valid
+    // because a snapshot never changes. Tasks never overlap, so ordering by start also
+    // orders them by end, which lets both bounds be found by binary search.
+
+    /**
+     * Tasks running at the given time (start <= time < end). Tasks never overlap,
+     * so this is at most one task.
+     */
+    public List<Task> tasksActiveAt(LocalTime time) {
+        int i = firstEndingAfter(time);
+        if (i == tasks.size() || tasks.get(i).getStart().isAfter(time)) return Collections.emptyList();
+        return tasks.subList(i, i + 1);
+    }
+
+    /** Tasks overlapping [from, to), in start order. */
+    public List<Task> tasksBetween(LocalTime from, LocalTime to) {
+        int lo = firstEndingAfter(from);
+        int hi = firstStartingAtOrAfter(to);
+        return lo >= hi ? Collections.emptyList() : tasks.subList(lo, hi);
+    }
+
+    /**
+     * Keyset pagination: up to limit tasks that come after cursor in start order,
+     * or from the beginning when cursor is null. Pass the last task of one page
+     * as the cursor for the next; this keeps working if the cursor task is later
+     * removed.
+     */
+    public List<Task> tasksAfter(Task cursor, int limit) {
+        if (limit <= 0) throw new IllegalArgumentException("limit must be positive");
+        int lo = 0;
+        if (cursor != null) {
+            int hi = tasks.size();
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (tasks.get(mid).compareTo(cursor) <= 0) lo = mid + 1;
+                else hi = mid;
+            }
+        }
+        return tasks.subList(lo, Math.min(tasks.size(), lo + Math.min(limit, tasks.size())));
+    }
+
+    private int firstEndingAfter(LocalTime time) {
+        int lo = 0, hi = tasks.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (tasks.get(mid).getEnd().isAfter(time)) hi = mid;
+            else lo = mid + 1;
+        }
+        return lo;
+    }
+
+    private int firstStartingAtOrAfter(LocalTime time) {
+        int lo = 0, hi = tasks.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (tasks.get(mid).getStart().isBefore(time)) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,200 @@
+package manager;
+
+import exceptions.TaskConflictException;
+import exceptions.TaskNotFoundException;
+import model.Priority;
+import model.Task;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A group of changes to one ScheduleManager that is applied all at once or not
+ * at all. Changes are only recorded until commit(); commit() then replays them
+ * in order under the manager lock, checks the resulting schedule for overlaps
+ * in one pass (so tasks may move through each other's old times), applies
+ * everything and publishes a new snapshot. Readers keep using the previous
+ * snapshot until then and never see a half-applied transaction.
+ *
+ * Not thread-safe; build and commit a transaction on one thread.
+ */
+public final class ScheduleTransaction {
+    private static final long NANOS_PER_DAY = 24L * 60 * 60 * 1_000_000_000L;
+
+    private final ScheduleManager manager;
+    private final List<Op> ops = new ArrayList<>();
+    private boolean committed;
+
+    private interface Op {
+        void apply(Plan plan) throws TaskNotFoundException;
+    }
+
+    ScheduleTransaction(ScheduleManager manager) {
+        this.manager = manager;
+    }
+
+    public ScheduleTransaction add(Task t) {
+        Objects.requireNonNull(t, "Task cannot be null");
+        return stage(plan -> plan.add(t));
+    }
+
+    public ScheduleTransaction remove(String description) {
+        Objects.requireNonNull(description, "description cannot be null");
+        return stage(plan -> plan.replace(plan.require(description), null));
+    }
+
+    public ScheduleTransaction edit(String description, LocalTime newStart, LocalTime newEnd, Priority newPriority) {
+        Objects.requireNonNull(description, "description cannot be null");
+        Objects.requireNonNull(newStart, "newStart cannot be null");
+        Objects.requireNonNull(newEnd, "newEnd cannot be null");
+        Objects.requireNonNull(newPriority, "newPriority cannot be null");
+        if (!newStart.isBefore(newEnd)) throw new IllegalArgumentException("Start time must be before end time.");
+        return stage(plan -> {
+            Task current = plan.require(description);
+            plan.replace(current, current.withSchedule(newStart, newEnd, newPriority));
+        });
+    }
+
+    public ScheduleTransaction markCompleted(String description) {
+        Objects.requireNonNull(description, "description cannot be null");
+        return stage(plan -> {
+            Task current = plan.require(description);
+            if (!current.isCompleted()) plan.replace(current, current.asCompleted());
+        });
+    }
+
+    /**
+     * Move every task starting at or after from (as it stands at this point in the
+     * transaction) by the given amount, e.g. "slip everything after 13:00 by 20 minutes".
+     */
+    public ScheduleTransaction shift(LocalTime from, Duration by) {
+        Objects.requireNonNull(from, "from cannot be null");
+        Objects.requireNonNull(by, "by cannot be null");
+        return stage(plan -> plan.shift(from, by.toNanos()));
+    }
+
+    private ScheduleTransaction stage(Op op) {
+        if (committed) throw new IllegalStateException("Transaction already committed");
+        ops.add(op);
+        return this;
+    }
+
+    /** Number of staged operations. */
+    public int size() {
+        return ops.size();
+    }
+
+    /**
+     * Apply every staged change atomically and return the snapshot that contains
+     * them. Throws TaskNotFoundException if an operation names a missing task and
+     * TaskConflictException (listing every problem) if the result would contain
+     * an overlap or a duplicate name; in both cases nothing is changed.
+     */
+    public ScheduleSnapshot commit() throws TaskConflictException, TaskNotFoundException {
+        if (committed) throw new IllegalStateException("Transaction already committed");
+        committed = true;
+        return manager.commit(this);
+    }
+
+    // Replay the staged operations against the current schedule; caller holds the manager lock
+    Plan resolve() throws TaskNotFoundException {
+        Plan plan = new Plan(manager);
+        for (Op op : ops) op.apply(plan);
+        return plan;
+    }
+
+    /**
+     * The net effect of a transaction: for every task it touches, the version
+     * currently stored (absent for new tasks) and the final one (null if removed).
+     */
+    static final class Plan {
+        private final ScheduleManager manager;
+        final Map<Long, Task> before = new LinkedHashMap<>();
+        final Map<Long, Task> after = new LinkedHashMap<>();
+        // name -> task as of this point in the transaction; null once removed
+        private final Map<String, Task> names = new HashMap<>();
+        final List<String> problems = new ArrayList<>();
+
+        Plan(ScheduleManager manager) {
+            this.manager = manager;
+        }
+
+        boolean isEmpty() {
+            return after.isEmpty();
+        }
+
+        Collection<Task> replaced() {
+            return before.values();
+        }
+
+        List<Task> finalTasks() {
+            List<Task> result = new ArrayList<>(after.size());
+            for (Task t : after.values()) {
+                if (t != null) result.add(t);
+            }
+            return result;
+        }
+
+        private Task current(String description) {
+            String k = ScheduleManager.key(description);
+            return names.containsKey(k) ? names.get(k) : manager.findLocked(description);
+        }
+
+        Task require(String description) throws TaskNotFoundException {
+            Task t = current(description);
+            if (t == null) throw new TaskNotFoundException("Task not found: " + description);
+            return t;
+        }
+
+        void add(Task t) {
+            Task existing = current(t.getDescription());
+            if (existing != null) {
+                problems.add(String.format("A task named \"%s\" already exists", existing.getDescription()));
+                return;
+            }
+            names.put(ScheduleManager.key(t.getDescription()), t);
+            after.put(t.getId(), t);
+        }
+
+        // next == null removes current
+        void replace(Task current, Task next) {
+            long id = current.getId();
+            if (!after.containsKey(id)) before.put(id, current);
+            names.put(ScheduleManager.key(current.getDescription()), next);
+            if (next == null && !before.containsKey(id)) {
+                after.remove(id); // added and removed in the same transaction
+            } else {
+                after.put(id, next);
+            }
+        }
+
+        void shift(LocalTime from, long byNanos) {
+            List<Task> moving = new ArrayList<>();
+            // tasks this transaction has already touched, at their current times
+            for (Task t : after.values()) {
+                if (t != null && !t.getStart().isBefore(from)) moving.add(t);
+            }
+            // untouched stored tasks, walking back from the latest start
+            for (Task t : manager.tasksFromLatestLocked()) {
+                if (t.getStart().isBefore(from)) break;
+                if (!after.containsKey(t.getId())) moving.add(t);
+            }
+            for (Task t : moving) {
+                long start = t.getStart().toNanoOfDay() + byNanos;
+                long end = t.getEnd().toNanoOfDay() + byNanos;
+                if (start < 0 || end >= NANOS_PER_DAY) {
+                    problems.add(String.format("Task \"%s\" would be moved outside the day", t.getDescription()));
+                    continue;
+                }
+                replace(t, t.withSchedule(LocalTime.ofNanoOfDay(start), LocalTime.ofNanoOfDay(end), t.getPriority()));
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package manager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interns strings to small int ids. One table can be shared by many
+ * CompactSchedule instances, so a routine like "Exercise" that appears on
+ * every day of a mission is stored once.
+ */
+public final class StringTable {
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+    private long chars;
+
+    /** Id for the string, adding it if it is new. */
+    public synchronized int intern(String s) {
+        Integer id = ids.get(s);
+        if (id != null) return id;
+        int next = values.size();
+        values.add(s);
+        ids.put(s, next);
+        chars += s.length();
+        return next;
+    }
+
+    /** The table's own copy of the string, adding it if it is new; equal strings share one instance. */
+    public synchronized String canonical(String s) {
+        return values.get(intern(s));
+    }
+
+    /** Id for the string, or -1 if it has never been interned. */
+    public synchronized int lookup(String s) {
+        Integer id = ids.get(s);
+        return id == null ? -1 : id;
+    }
+
+    public synchronized String get(int id) {
+        return values.get(id);
+    }
+
+    public synchronized int size() {
+        return values.size();
+    }
+
+    /**
+     * Approximate heap used by the table: string headers and contents plus
+     * the map and list entries pointing at them (64-bit JVM, compressed oops).
+     */
+    public synchronized long footprintBytes() {
+        long perString = 24 + 16;       // String + byte[] headers
+        long perMapEntry = 32 + 16 + 4; // HashMap.Node, Integer, table slot
+        long perListSlot = 4;
+        return chars + values.size() * (perString + perMapEntry + perListSlot);
+    }
+}
@@ -0,0 +1,47 @@
+package model;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.Objects;
+
+/**
+ * A task to be placed by the auto-scheduler: it needs length somewhere inside
+ * [earliest, latest), where latest is the latest allowed end (LocalTime.MAX
+ * for midnight).
+ */
+public record FlexibleTask(String description, Duration length, LocalTime earliest, LocalTime latest,
+                           Priority priority) {
+
+    public FlexibleTask {
+        Objects.requireNonNull(description, "description cannot be null");
+        Objects.requireNonNull(length, "length cannot be null");
+        Objects.requireNonNull(earliest, "earliest cannot be null");
+        Objects.requireNonNull(latest, "latest cannot be null");
+        Objects.requireNonNull(priority, "priority cannot be null");
+        description = description.trim();
+        if (description.isEmpty()) throw new IllegalArgumentException("Description cannot be empty.");
+        if (length.isNegative() || length.isZero()) throw new IllegalArgumentException("length must be positive");
+        if (length.compareTo(window(earliest, latest)) > 0) {
+            throw new IllegalArgumentException("The window is shorter than the task.");
+        }
+    }
+
+    /** Anywhere in the day. */
+    public static FlexibleTask anytime(String description, Duration length, Priority priority) {
+        return new FlexibleTask(description, length, LocalTime.MIDNIGHT, LocalTime.MAX, priority);
+    }
+
+    public Duration window() {
+        return window(earliest, latest);
+    }
+
+    private static Duration window(LocalTime earliest, LocalTime latest) {
+        Duration d = Duration.between(earliest, latest);
+        return latest.equals(LocalTime.MAX) ? d.plusNanos(1) : d;
+    }
+
+    /** How much room there is to move the task around inside its window. */
+    public Duration slack() {
+        return window().minus(length);
+    }
+}
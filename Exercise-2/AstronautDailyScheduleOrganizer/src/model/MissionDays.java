@@ -0,0 +1,72 @@
+package model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The mission dates a recurring task applies to: an optional first and last
+ * date (null means open-ended) and the days of the week it runs on.
+ */
+public record MissionDays(LocalDate first, LocalDate last, Set<DayOfWeek> weekdays) {
+    public static final MissionDays EVERY_DAY = new MissionDays(null, null, EnumSet.allOf(DayOfWeek.class));
+
+    public MissionDays {
+        Objects.requireNonNull(weekdays, "weekdays cannot be null");
+        if (weekdays.isEmpty()) throw new IllegalArgumentException("weekdays cannot be empty");
+        if (first != null && last != null && last.isBefore(first)) {
+            throw new IllegalArgumentException("last day cannot be before first day");
+        }
+        weekdays = Set.copyOf(weekdays);
+    }
+
+    /** Every day from first to last, inclusive. */
+    public static MissionDays between(LocalDate first, LocalDate last) {
+        return new MissionDays(first, last, EVERY_DAY.weekdays);
+    }
+
+    /** Only on the given days of the week, within this date range. */
+    public MissionDays on(DayOfWeek first, DayOfWeek... rest) {
+        return new MissionDays(this.first, last, EnumSet.of(first, rest));
+    }
+
+    public boolean contains(LocalDate date) {
+        return (first == null || !date.isBefore(first))
+                && (last == null || !date.isAfter(last))
+                && weekdays.contains(date.getDayOfWeek());
+    }
+
+    /** True if some date is in both. */
+    public boolean overlaps(MissionDays other) {
+        LocalDate from = later(first, other.first);
+        LocalDate to = earlier(last, other.last);
+        if (from == null) from = to != null ? to.minusDays(6) : LocalDate.of(2000, 1, 1);
+        // a week covers every weekday, so there is no need to look further
+        for (int i = 0; i < 7; i++) {
+            LocalDate d = from.plusDays(i);
+            if (to != null && d.isAfter(to)) return false;
+            if (contains(d) && other.contains(d)) return true;
+        }
+        return false;
+    }
+
+    private static LocalDate later(LocalDate a, LocalDate b) {
+        if (a == null) return b;
+        return b == null || a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDate earlier(LocalDate a, LocalDate b) {
+        if (a == null) return b;
+        return b == null || a.isBefore(b) ? a : b;
+    }
+
+    @Override
+    public String toString() {
+        String days = weekdays.size() == 7 ? "every day" : "on " + EnumSet.copyOf(weekdays);
+        if (first != null) days += " from " + first;
+        if (last != null) days += " until " + last;
+        return days;
+    }
+}
@@ -0,0 +1,47 @@
+package model;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free, strictly increasing long ids.
+ *
+ * timeBased() (the default) combines the wall clock with a sequence: ids start
+ * at currentTimeMillis() * 4096 and count up from there, so ids from a later
+ * run are larger than any from an earlier one even before advancePast() is
+ * called. Bursts of more than 4096 ids per millisecond simply run ahead of
+ * the clock. counter() is a plain 1, 2, 3... sequence.
+ */
+public final class MonotonicIdGenerator implements TaskIdGenerator {
+    private static final int SEQUENCE_BITS = 12;
+
+    private final AtomicLong last = new AtomicLong();
+    private final boolean timeBased;
+
+    private MonotonicIdGenerator(boolean timeBased) {
+        this.timeBased = timeBased;
+    }
+
+    public static MonotonicIdGenerator timeBased() {
+        return new MonotonicIdGenerator(true);
+    }
+
+    public static MonotonicIdGenerator counter() {
+        return new MonotonicIdGenerator(false);
+    }
+
+    @Override
+    public long nextId() {
+        if (!timeBased) return last.incrementAndGet();
+        long floor = System.currentTimeMillis() << SEQUENCE_BITS;
+        while (true) {
+            long prev = last.get();
+            long next = Math.max(prev + 1, floor);
+            if (last.compareAndSet(prev, next)) return next;
+        }
+    }
+
+    @Override
+    public void advancePast(long id) {
+        last.accumulateAndGet(id, Math::max);
+    }
+}
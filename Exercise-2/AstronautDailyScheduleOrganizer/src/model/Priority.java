@@ -1,14 +1,25 @@
 package model;
 
 public enum Priority {
-    HIGH, MEDIUM, LOW;
+    HIGH(100), MEDIUM(10), LOW(1);
+
+    private final int weight;
+
+    Priority(int weight) {
+        this.weight = weight;
+    }
+
+    /** Value of getting a task of this priority scheduled; one HIGH outweighs many LOWs. */
+    public int getWeight() {
+        return weight;
+    }
 
     public static Priority fromString(String s) {
         if (s == null) return MEDIUM;
-        switch (s.trim().toUpperCase()) {
-            case "HIGH": return HIGH;
-            case "LOW":  return LOW;
-            default:     return MEDIUM;
-        }
+        // compare in place rather than allocating an upper-cased copy per call
+        String p = s.trim();
+        if (p.equalsIgnoreCase("HIGH")) return HIGH;
+        if (p.equalsIgnoreCase("LOW")) return LOW;
+        return MEDIUM;
     }
 }
@@ -0,0 +1,173 @@
+package model;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A routine stored once instead of as one Task per occurrence: it starts at
+ * start, lasts length, and repeats every interval until the until time, on the
+ * mission days it applies to (a daily rule has a single occurrence per day).
+ *
+ * Occurrence k starts at start + k * interval, so overlap with any time range
+ * is answered with a division instead of walking the occurrences, and
+ * occurrence Tasks are only created for the window someone asks about.
+ * Occurrences never run past midnight.
+ */
+public final class RecurringTask {
+    private static final long NANOS_PER_DAY = 24L * 60 * 60 * 1_000_000_000L;
+
+    private final long id;
+    private final String description;
+    private final Priority priority;
+    private final MissionDays days;
+    // in nanoseconds of the day; interval is 0 for a daily rule
+    private final long start;
+    private final long length;
+    private final long interval;
+    private final long until;
+    private final int count; // occurrences per day
+
+    private RecurringTask(long id, String description, LocalTime start, Duration length, Priority priority,
+                          Duration interval, LocalTime until, MissionDays days) {
+        Objects.requireNonNull(description, "description cannot be null");
+        Objects.requireNonNull(start, "start cannot be null");
+        Objects.requireNonNull(length, "length cannot be null");
+        Objects.requireNonNull(priority, "priority cannot be null");
+        Objects.requireNonNull(days, "days cannot be null");
+        if (description.trim().isEmpty()) throw new IllegalArgumentException("Description cannot be empty.");
+        if (length.isNegative() || length.isZero()) throw new IllegalArgumentException("length must be positive");
+        this.id = id;
+        this.description = description.trim();
+        this.priority = priority;
+        this.days = days;
+        this.start = start.toNanoOfDay();
+        this.length = length.toNanos();
+        this.until = until == null || until.equals(LocalTime.MAX) ? NANOS_PER_DAY : until.toNanoOfDay();
+        if (this.start + this.length > NANOS_PER_DAY) {
+            throw new IllegalArgumentException("A recurring task cannot run past midnight.");
+        }
+        if (interval == null) {
+            this.interval = 0;
+            this.count = 1;
+        } else {
+            if (interval.compareTo(length) < 0) {
+                throw new IllegalArgumentException("interval must be at least as long as the task");
+            }
+            this.interval = interval.toNanos();
+            // starts before until, ends by midnight
+            long byUntil = this.until <= this.start ? 0 : (this.until - this.start - 1) / this.interval + 1;
+            long byMidnight = (NANOS_PER_DAY - this.length - this.start) / this.interval + 1;
+            this.count = (int) Math.min(byUntil, byMidnight);
+            if (count == 0) throw new IllegalArgumentException("until must be after start");
+        }
+    }
+
+    /** Once a day at start. */
+    public static RecurringTask daily(String description, LocalTime start, Duration length, Priority priority,
+                                      MissionDays days) {
+        return new RecurringTask(Task.getIdGenerator().nextId(), description, start, length, priority, null, null,
+                days);
+    }
+
+    /**
+     * Every interval from start, with the last occurrence starting before until
+     * (LocalTime.MAX or null for the rest of the day).
+     */
+    public static RecurringTask every(Duration interval, String description, LocalTime start, LocalTime until,
+                                      Duration length, Priority priority, MissionDays days) {
+        Objects.requireNonNull(interval, "interval cannot be null");
+        return new RecurringTask(Task.getIdGenerator().nextId(), description, start, length, priority, interval,
+                until, days);
+    }
+
+    /**
+     * A rule saved earlier, with its original id (used when restoring a schedule).
+     * interval is null for a daily rule.
+     */
+    public static RecurringTask restore(long id, String description, LocalTime start, LocalTime until,
+                                        Duration interval, Duration length, Priority priority, MissionDays days) {
+        return new RecurringTask(id, description, start, length, priority, interval, until, days);
+    }
+
+    public long getId() { return id; }
+    public String getDescription() { return description; }
+    public Priority getPriority() { return priority; }
+    public MissionDays getDays() { return days; }
+    public LocalTime getStart() { return LocalTime.ofNanoOfDay(start); }
+    public Duration getLength() { return Duration.ofNanos(length); }
+
+    /** Time between occurrences, or null for a daily rule. */
+    public Duration getInterval() { return interval == 0 ? null : Duration.ofNanos(interval); }
+
+    /** Occurrences start before this time; LocalTime.MAX when they run to the end of the day. */
+    public LocalTime getUntil() { return until == NANOS_PER_DAY ? LocalTime.MAX : LocalTime.ofNanoOfDay(until); }
+
+    public int occurrencesPerDay() { return count; }
+
+    /** Whether the rule applies on date; an undated schedule (null) gets every rule. */
+    public boolean occursOn(LocalDate date) {
+        return date == null || days.contains(date);
+    }
+
+    /** The first occurrence overlapping [from, to), or null. */
+    public Task overlapping(LocalTime from, LocalTime to) {
+        int k = firstEndingAfter(from.toNanoOfDay());
+        return k < count && startOf(k) < to.toNanoOfDay() ? occurrence(k) : null;
+    }
+
+    /** The first occurrence of this rule that overlaps one of other's, or null if they never meet. */
+    public Task overlapping(RecurringTask other) {
+        if (!days.overlaps(other.days)) return null;
+        // walk the rule with fewer occurrences and do the arithmetic against the other
+        RecurringTask few = count <= other.count ? this : other;
+        RecurringTask many = few == this ? other : this;
+        for (int k = 0; k < few.count; k++) {
+            long s = few.startOf(k);
+            int j = many.firstEndingAfter(s);
+            if (j < many.count && many.startOf(j) < s + few.length) return occurrence(few == this ? k : j);
+        }
+        return null;
+    }
+
+    /** Occurrences overlapping [from, to) as Tasks, in start order. */
+    public List<Task> occurrences(LocalTime from, LocalTime to) {
+        int k = firstEndingAfter(from.toNanoOfDay());
+        long limit = to.equals(LocalTime.MAX) ? NANOS_PER_DAY : to.toNanoOfDay();
+        if (k >= count || startOf(k) >= limit) return Collections.emptyList();
+        List<Task> found = new ArrayList<>();
+        for (; k < count && startOf(k) < limit; k++) found.add(occurrence(k));
+        return found;
+    }
+
+    // smallest k whose occurrence ends after t (count if none)
+    private int firstEndingAfter(long t) {
+        long d = t - start - length;
+        if (d < 0) return 0;
+        if (interval == 0) return count;
+        return (int) Math.min(count, d / interval + 1);
+    }
+
+    private long startOf(int k) {
+        return start + k * interval;
+    }
+
+    private Task occurrence(int k) {
+        long s = startOf(k);
+        long e = s + length;
+        return new Task(id, description, LocalTime.ofNanoOfDay(s),
+                e == NANOS_PER_DAY ? LocalTime.MAX : LocalTime.ofNanoOfDay(e), priority, false);
+    }
+
+    @Override
+    public String toString() {
+        String when = interval == 0 ? "daily at " + getStart()
+                : "every " + getInterval().toMinutes() + " min from " + getStart()
+                + (until == NANOS_PER_DAY ? "" : " until " + LocalTime.ofNanoOfDay(until));
+        return description + " (" + getLength().toMinutes() + " min, " + when + ", " + days + ") [" + priority + "]";
+    }
+}
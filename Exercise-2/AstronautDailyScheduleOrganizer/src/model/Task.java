@@ -1,66 +1,149 @@
 package model;
 
 import java.time.LocalTime;
-import java.util.Objects;
-import java.util.UUID;
-
+import java.util.Collection;
+import java.util.Collections;
+import java.util.SortedSet;
+import java.util.TreeSet;
 /**
- * Immutable-ish Task object. completed flag is mutable.
+ * Immutable Task object; edits and completion produce a copy with the same id
+ * (withSchedule, asCompleted), so tasks held by snapshots never change.
+ * Ids are longs from a pluggable TaskIdGenerator, so ordering, equals and
+ * hashCode work on primitives.
+ * A task may name shared resources it uses (airlock, robotic arm, ...); names
+ * are matched case-insensitively and no two overlapping tasks on the same
+ * mission date may use the same one (see manager.ResourceIndex).
  */
 public class Task implements Comparable<Task> {
-    private final String id;
-    private String description;
-    private LocalTime start;
-    private LocalTime end;
-    private Priority priority;
-    private boolean completed;
+    /** Id value that never belongs to a task. */
+    public static final long NO_ID = 0;
+
+    private static volatile TaskIdGenerator idGenerator = MonotonicIdGenerator.timeBased();
+    private static final SortedSet<String> NO_RESOURCES = Collections.unmodifiableSortedSet(new TreeSet<>());
+
+    private final long id;
+    private final String description;
+    private final LocalTime start;
+    private final LocalTime end;
+    private final Priority priority;
+    private final boolean completed;
+    private final SortedSet<String> resources;
 
     public Task(String description, LocalTime start, LocalTime end, Priority priority) {
-        this.id = UUID.randomUUID().toString();
+        this(description, start, end, priority, Collections.emptySet());
+    }
+
+    public Task(String description, LocalTime start, LocalTime end, Priority priority, Collection<String> resources) {
+        this.id = idGenerator.nextId();
         this.description = description;
         this.start = start;
         this.end = end;
         this.priority = priority;
         this.completed = false;
+        this.resources = resourceSet(resources);
+    }
+
+    /** Rebuild a task with a known id, e.g. when loading it back from disk. */
+    public Task(long id, String description, LocalTime start, LocalTime end, Priority priority, boolean completed) {
+        this(id, description, start, end, priority, completed, Collections.emptySet());
     }
 
-    // Getters and setters for editable fields (edit option)
-    public String getId() { return id; }
+    public Task(long id, String description, LocalTime start, LocalTime end, Priority priority, boolean completed,
+                Collection<String> resources) {
+        if (id == NO_ID) throw new IllegalArgumentException("id cannot be " + NO_ID);
+        this.id = id;
+        this.description = description;
+        this.start = start;
+        this.end = end;
+        this.priority = priority;
+        this.completed = completed;
+        this.resources = resourceSet(resources);
+    }
+
+    private Task(Task source, LocalTime start, LocalTime end, Priority priority, boolean completed) {
+        this.id = source.id;
+        this.description = source.description;
+        this.start = start;
+        this.end = end;
+        this.priority = priority;
+        this.completed = completed;
+        this.resources = source.resources;
+    }
+
+    // trimmed, without blanks or case-insensitive duplicates, in alphabetical order
+    private static SortedSet<String> resourceSet(Collection<String> names) {
+        if (names == null) throw new NullPointerException("resources cannot be null");
+        if (names.isEmpty()) return NO_RESOURCES;
+        SortedSet<String> set = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        for (String name : names) {
+            if (name == null) throw new NullPointerException("resource name cannot be null");
+            if (!name.isBlank()) set.add(name.trim());
+        }
+        return set.isEmpty() ? NO_RESOURCES : Collections.unmodifiableSortedSet(set);
+    }
+
+    /** Use a different id source for tasks created from now on (e.g. a plain counter in tests). */
+    public static void setIdGenerator(TaskIdGenerator generator) {
+        if (generator == null) throw new NullPointerException("generator cannot be null");
+        idGenerator = generator;
+    }
+
+    public static TaskIdGenerator getIdGenerator() {
+        return idGenerator;
+    }
+
+    /**
+     * Copy of this task (same id) with new times and priority. Used by the
+     * manager so that tasks already handed out to readers never change.
+     * Throws IllegalArgumentException unless start is before end.
+     */
+    public Task withSchedule(LocalTime start, LocalTime end, Priority priority) {
+        if (start == null) throw new NullPointerException("start cannot be null");
+        if (end == null) throw new NullPointerException("end cannot be null");
+        if (priority == null) throw new NullPointerException("priority cannot be null");
+        if (!start.isBefore(end)) throw new IllegalArgumentException("Start time must be before end time.");
+        return new Task(this, start, end, priority, completed);
+    }
+
+    /** Copy of this task (same id) marked as completed. */
+    public Task asCompleted() {
+        return new Task(this, start, end, priority, true);
+    }
+
+    public long getId() { return id; }
     public String getDescription() { return description; }
-    public void setDescription(String description) { this.description = description; }
     public LocalTime getStart() { return start; }
-    public void setStart(LocalTime start) { this.start = start; }
     public LocalTime getEnd() { return end; }
-    public void setEnd(LocalTime end) { this.end = end; }
     public Priority getPriority() { return priority; }
-    public void setPriority(Priority priority) { this.priority = priority; }
     public boolean isCompleted() { return completed; }
-    public void setCompleted(boolean completed) { this.completed = completed; }
+
+    /** Shared resources this task uses, in alphabetical order; empty for most tasks. */
+    public SortedSet<String> getResources() { return resources; }
 
     @Override
     public int compareTo(Task other) {
         int cmp = this.start.compareTo(other.start);
         if (cmp != 0) return cmp;
-        return this.id.compareTo(other.id);
+        return Long.compare(this.id, other.id);
     }
 
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof Task)) return false;
-        Task t = (Task) o;
-        return Objects.equals(id, t.id);
+        return id == ((Task) o).id;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id);
+        return Long.hashCode(id);
     }
 
     @Override
     public String toString() {
         String done = completed ? " (Completed)" : "";
-        return String.format("%s - %s: %s [%s]%s",
-                start, end, description, priority, done);
+        String uses = resources.isEmpty() ? "" : " uses " + String.join(", ", resources);
+        return String.format("%s - %s: %s [%s]%s%s",
+                start, end, description, priority, uses, done);
     }
 }
@@ -0,0 +1,17 @@
+package model;
+
+/**
+ * Source of ids for new tasks (see Task.setIdGenerator). Ids must be unique
+ * and positive; 0 is reserved for "no task".
+ */
+@FunctionalInterface
+public interface TaskIdGenerator {
+    long nextId();
+
+    /**
+     * Make sure every later id is greater than id. Called with the largest id
+     * found when tasks are loaded back from disk, so new tasks cannot reuse one.
+     */
+    default void advancePast(long id) {
+    }
+}
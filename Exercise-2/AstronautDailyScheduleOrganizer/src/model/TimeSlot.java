@@ -0,0 +1,19 @@
+package model;
+
+import java.time.Duration;
+import java.time.LocalTime;
+
+/**
+ * A free window in a schedule. An end of LocalTime.MAX means "until midnight".
+ */
+public record TimeSlot(LocalTime start, LocalTime end) {
+    public Duration length() {
+        Duration d = Duration.between(start, end);
+        return end.equals(LocalTime.MAX) ? d.plusNanos(1) : d;
+    }
+
+    @Override
+    public String toString() {
+        return start + " - " + (end.equals(LocalTime.MAX) ? "24:00" : end.toString());
+    }
+}
@@ -0,0 +1,63 @@
+package observer;
+
+import java.io.PrintStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * ConsoleObserver for digests (see CoalescingObserver): formats the timestamp
+ * once per digest, builds all of its lines in memory and writes them with a
+ * single print and flush instead of one println per event.
+ */
+public class BufferedConsoleObserver implements ScheduleObserver {
+    private final String subscriberName;
+    private final PrintStream out;
+
+    public BufferedConsoleObserver(String subscriberName) {
+        this(subscriberName, System.out);
+    }
+
+    public BufferedConsoleObserver(String subscriberName, PrintStream out) {
+        this.subscriberName = subscriberName;
+        this.out = Objects.requireNonNull(out, "out cannot be null");
+    }
+
+    @Override
+    public void onNotification(String message) {
+        write(prefix() + message + System.lineSeparator());
+    }
+
+    @Override
+    public void onEvent(ScheduleEvent event) {
+        onNotification(event.toMessage());
+    }
+
+    @Override
+    public void onDigest(List<ScheduleEvent> events) {
+        if (events.isEmpty()) return;
+        if (events.size() == 1) {
+            onEvent(events.get(0));
+            return;
+        }
+        String nl = System.lineSeparator();
+        StringBuilder sb = new StringBuilder(64 + 48 * events.size());
+        sb.append(prefix()).append(events.size()).append(" changes:").append(nl);
+        for (ScheduleEvent e : events) sb.append("  - ").append(e.toMessage()).append(nl);
+        write(sb.toString());
+    }
+
+    private String prefix() {
+        String time = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_TIME);
+        return "[NOTIFY - " + subscriberName + " @ " + time + "] ";
+    }
+
+    private void write(String text) {
+        // one call, so a digest is not interleaved with other output and costs a single flush
+        synchronized (out) {
+            out.print(text);
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package observer;
+
+import util.VirtualThreads;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Flow.Publisher of every change made to a schedule, in order, each stamped
+ * with a sequence number (1, 2, 3, ...).
+ *
+ * The most recent events are kept in a ring, and each subscriber is just a
+ * cursor into it. The ring starts small and doubles as events arrive until it
+ * holds capacity of them, so a quiet schedule partition does not pay for a full
+ * replay window up front. publish() stores the event and wakes subscribers that
+ * have outstanding demand, it never waits for them. Events are delivered on the
+ * subscriber's own thread, no more than it has request()ed. A subscriber can start
+ * at any sequence still in the ring, e.g. the one after the last event it saw
+ * before reconnecting. One that falls so far behind that its next event has been
+ * overwritten gets onError(OverrunException) and can resubscribe from
+ * getOldestSequence() (or resync from a snapshot).
+ */
+public class ChangeFeed implements Flow.Publisher<ScheduleEvent> {
+    private static final Logger logger = Logger.getLogger(ChangeFeed.class.getName());
+
+    public static final int DEFAULT_CAPACITY = 4096;
+    // events copied out of the ring per lock acquisition
+    private static final int MAX_BATCH = 256;
+    // size of a new ring
+    private static final int INITIAL_RING = 64;
+    // one delivery thread per drain, shared by every feed
+    private static final Executor EXECUTOR = VirtualThreads.newThreadPerTaskExecutor("schedule-feed");
+
+    private final int capacity;
+    private ScheduleEvent[] ring;  // guarded by this
+    private long nextSequence = 1; // guarded by this
+    private final CopyOnWriteArrayList<FeedSubscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    /** Thrown to a subscriber whose next event is no longer in the ring. */
+    public static class OverrunException extends IllegalStateException {
+        private final long missedSequence;
+        private final long oldestSequence;
+
+        public OverrunException(long missedSequence, long oldestSequence) {
+            super("Change feed overrun: event " + missedSequence + " was dropped, oldest retained is " + oldestSequence);
+            this.missedSequence = missedSequence;
+            this.oldestSequence = oldestSequence;
+        }
+
+        /** First sequence the subscriber did not receive. */
+        public long getMissedSequence() { return missedSequence; }
+
+        /** Oldest sequence still available when the overrun was detected. */
+        public long getOldestSequence() { return oldestSequence; }
+    }
+
+    public ChangeFeed() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /** capacity is how many recent events are kept for replay. */
+    public ChangeFeed(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive");
+        this.capacity = capacity;
+        this.ring = new ScheduleEvent[Math.min(capacity, INITIAL_RING)];
+    }
+
+    /**
+     * Append an event and return it stamped with its sequence number. Callers
+     * must publish in the order the changes happened (ScheduleManager does so
+     * under its lock).
+     */
+    public ScheduleEvent publish(ScheduleEvent event) {
+        Objects.requireNonNull(event, "event cannot be null");
+        ScheduleEvent stamped;
+        synchronized (this) {
+            stamped = event.withSequence(nextSequence);
+            // grow instead of overwriting until the ring holds capacity events
+            if (nextSequence > ring.length && ring.length < capacity) grow();
+            ring[(int) (nextSequence % ring.length)] = stamped;
+            nextSequence++;
+        }
+        for (FeedSubscription s : subscriptions) {
+            if (s.demand.get() > 0) s.signal();
+        }
+        return stamped;
+    }
+
+    // caller holds this; every event so far is still in the ring
+    private void grow() {
+        ScheduleEvent[] bigger = new ScheduleEvent[(int) Math.min(capacity, 2L * ring.length)];
+        for (long seq = oldest(); seq < nextSequence; seq++) {
+            bigger[(int) (seq % bigger.length)] = ring[(int) (seq % ring.length)];
+        }
+        ring = bigger;
+    }
+
+    /** Sequence of the most recent event, 0 if nothing has been published. */
+    public synchronized long getLastSequence() {
+        return nextSequence - 1;
+    }
+
+    /** Oldest sequence that can still be replayed (getLastSequence() + 1 when the feed is empty). */
+    public synchronized long getOldestSequence() {
+        return oldest();
+    }
+
+    private long oldest() {
+        return Math.max(1, nextSequence - ring.length);
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    /** Subscribe to events published from now on. */
+    @Override
+    public void subscribe(Flow.Subscriber<? super ScheduleEvent> subscriber) {
+        long from;
+        synchronized (this) {
+            from = nextSequence;
+        }
+        subscribe(subscriber, from);
+    }
+
+    /**
+     * Subscribe starting at fromSequence: events already in the ring are
+     * replayed first, then delivery continues with new ones. Use the sequence
+     * after the last event seen to resume without gaps or duplicates.
+     */
+    public void subscribe(Flow.Subscriber<? super ScheduleEvent> subscriber, long fromSequence) {
+        Objects.requireNonNull(subscriber, "subscriber cannot be null");
+        FeedSubscription s = new FeedSubscription(subscriber, Math.max(1, fromSequence));
+        subscriptions.add(s);
+        // onSubscribe runs on the delivery thread, like every other signal
+        s.signal();
+    }
+
+    /**
+     * Copy up to max events starting at sequence from into out. Returns false if
+     * from has already been overwritten.
+     */
+    private synchronized boolean read(long from, int max, List<ScheduleEvent> out) {
+        if (from < oldest()) return false;
+        long end = Math.min(nextSequence, from + max);
+        for (long seq = from; seq < end; seq++) {
+            out.add(ring[(int) (seq % ring.length)]);
+        }
+        return true;
+    }
+
+    private final class FeedSubscription implements Flow.Subscription {
+        final Flow.Subscriber<? super ScheduleEvent> subscriber;
+        final AtomicLong demand = new AtomicLong();
+        // signals not yet handled by the drain loop; only the thread that raises it from 0 runs drain()
+        final AtomicInteger pending = new AtomicInteger();
+        final List<ScheduleEvent> batch = new ArrayList<>();
+        long cursor;               // next sequence to deliver; delivery thread only
+        boolean started;           // delivery thread only
+        volatile boolean cancelled;
+        volatile long badRequest;  // non-positive request(n) to report, 0 if none
+
+        FeedSubscription(Flow.Subscriber<? super ScheduleEvent> subscriber, long from) {
+            this.subscriber = subscriber;
+            this.cursor = from;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                badRequest = n == 0 ? -1 : n;
+            } else {
+                // saturate at Long.MAX_VALUE, which means unbounded
+                demand.getAndAccumulate(n, (cur, add) -> cur + add < 0 ? Long.MAX_VALUE : cur + add);
+            }
+            signal();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+        }
+
+        void signal() {
+            if (pending.getAndIncrement() == 0) EXECUTOR.execute(this::drain);
+        }
+
+        private void drain() {
+            int missed = 1;
+            do {
+                if (!started) {
+                    started = true;
+                    if (!deliver(() -> subscriber.onSubscribe(this))) return;
+                }
+                deliverAvailable();
+                missed = pending.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void deliverAvailable() {
+            while (!cancelled) {
+                long bad = badRequest;
+                if (bad != 0) {
+                    cancel();
+                    subscriber.onError(new IllegalArgumentException(
+                            "request(n) requires n > 0, got " + (bad == -1 ? 0 : bad)));
+                    return;
+                }
+                long wanted = demand.get();
+                if (wanted == 0) return;
+                batch.clear();
+                if (!read(cursor, (int) Math.min(wanted, MAX_BATCH), batch)) {
+                    long oldest = getOldestSequence();
+                    cancel();
+                    subscriber.onError(new OverrunException(cursor, oldest));
+                    return;
+                }
+                if (batch.isEmpty()) return;
+                int sent = 0;
+                for (ScheduleEvent e : batch) {
+                    if (cancelled) break;
+                    if (!deliver(() -> subscriber.onNext(e))) break;
+                    sent++;
+                }
+                cursor += sent;
+                if (wanted != Long.MAX_VALUE) demand.addAndGet(-sent);
+            }
+        }
+
+        // A subscriber that throws is cancelled rather than taking the feed down with it
+        private boolean deliver(Runnable signal) {
+            try {
+                signal.run();
+                return true;
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Change feed subscriber failed; cancelling: " + subscriber, e);
+                cancel();
+                return false;
+            }
+        }
+    }
+}
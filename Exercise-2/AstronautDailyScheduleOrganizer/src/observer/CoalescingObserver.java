@@ -0,0 +1,158 @@
+package observer;
+
+import model.Task;
+import util.VirtualThreads;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Opt-in wrapper that turns a stream of events into one digest per window:
+ * events are gathered until the window (counted from the first event) ends or
+ * maxEvents have arrived, and the delegate then gets a single onDigest call.
+ *
+ * Changes to the same task within a window are merged into its net effect:
+ * the latest event, with the times the task had before the window. A task
+ * added in the window stays ADDED (at its latest times) when edited, becomes
+ * COMPLETED with no old times when completed, and drops out entirely when it
+ * is removed again. A task both completed and edited in the window, in either
+ * order, is COMPLETED with its old and latest times, which differ if it moved.
+ * Conflicts and bulk adds are passed on as they are.
+ *
+ * Register it with the EventBus in place of the delegate, and close() it on
+ * shutdown to deliver the last partial window.
+ */
+public class CoalescingObserver implements ScheduleObserver, AutoCloseable {
+    private static final Logger logger = Logger.getLogger(CoalescingObserver.class.getName());
+
+    public static final Duration DEFAULT_WINDOW = Duration.ofMillis(250);
+    public static final int DEFAULT_MAX_EVENTS = 1000;
+
+    private final ScheduleObserver delegate;
+    private final long windowNanos;
+    private final int maxEvents;
+    private final ScheduledExecutorService timer;
+    // held while a digest is taken and delivered, so digests never overtake each other
+    private final Object deliveryLock = new Object();
+
+    // guarded by this: task id (or a fresh key for unmergeable events) -> merged event, in first-seen order
+    private final Map<Object, ScheduleEvent> pending = new LinkedHashMap<>();
+    private int received;
+    private ScheduledFuture<?> windowEnd;
+    private boolean closed;
+
+    public CoalescingObserver(ScheduleObserver delegate) {
+        this(delegate, DEFAULT_WINDOW, DEFAULT_MAX_EVENTS);
+    }
+
+    public CoalescingObserver(ScheduleObserver delegate, Duration window, int maxEvents) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate cannot be null");
+        Objects.requireNonNull(window, "window cannot be null");
+        if (window.isNegative() || window.isZero()) throw new IllegalArgumentException("window must be positive");
+        if (maxEvents <= 0) throw new IllegalArgumentException("maxEvents must be positive");
+        this.windowNanos = window.toNanos();
+        this.maxEvents = maxEvents;
+        this.timer = Executors.newSingleThreadScheduledExecutor(VirtualThreads.factory("schedule-digest"));
+    }
+
+    @Override
+    public void onEvent(ScheduleEvent event) {
+        Objects.requireNonNull(event, "event cannot be null");
+        boolean closedNow;
+        boolean full = false;
+        synchronized (this) {
+            closedNow = closed;
+            if (!closedNow) {
+                add(event);
+                if (++received == 1) windowEnd = timer.schedule(this::flush, windowNanos, TimeUnit.NANOSECONDS);
+                full = received >= maxEvents;
+            }
+        }
+        // once closed there is no timer left to end a window, so events go straight through
+        if (closedNow) delegate.onEvent(event);
+        else if (full) flush();
+    }
+
+    // Merge event into pending; caller holds this
+    private void add(ScheduleEvent event) {
+        if (event.taskId() == Task.NO_ID || event.type() == ScheduleEvent.Type.CONFLICT) {
+            pending.put(new Object(), event);
+            return;
+        }
+        Long id = event.taskId();
+        ScheduleEvent prev = pending.get(id);
+        if (prev == null) {
+            pending.put(id, event);
+            return;
+        }
+        ScheduleEvent merged = merge(prev, event);
+        if (merged == null) {
+            pending.remove(id);
+        } else {
+            pending.put(id, merged); // keeps the task's first-seen position
+        }
+    }
+
+    /** Net effect of prev followed by next for the same task, or null if they cancel out. */
+    static ScheduleEvent merge(ScheduleEvent prev, ScheduleEvent next) {
+        ScheduleEvent.Type type = next.type();
+        if (prev.type() == ScheduleEvent.Type.ADDED) {
+            if (type == ScheduleEvent.Type.REMOVED) return null;
+            if (type == ScheduleEvent.Type.EDITED) type = ScheduleEvent.Type.ADDED;
+        }
+        // an edit does not undo a completion; the new times below keep the edit
+        if (prev.type() == ScheduleEvent.Type.COMPLETED && type == ScheduleEvent.Type.EDITED) {
+            type = ScheduleEvent.Type.COMPLETED;
+        }
+        if (prev.type() == ScheduleEvent.Type.RECURRING_ADDED && type == ScheduleEvent.Type.RECURRING_REMOVED) return null;
+        return new ScheduleEvent(type, next.taskId(), next.description(), prev.oldStart(), prev.oldEnd(),
+                next.newStart(), next.newEnd(), next.detail(), next.tasks(), next.sequence());
+    }
+
+    /** Deliver whatever has been gathered so far as one digest, without waiting for the window to end. */
+    public void flush() {
+        synchronized (deliveryLock) {
+            List<ScheduleEvent> digest;
+            synchronized (this) {
+                if (windowEnd != null) windowEnd.cancel(false);
+                windowEnd = null;
+                received = 0;
+                if (pending.isEmpty()) return;
+                digest = List.copyOf(pending.values());
+                pending.clear();
+            }
+            try {
+                delegate.onDigest(digest);
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Observer failed to handle a digest of " + digest.size() + " event(s)", e);
+            }
+        }
+    }
+
+    /** Plain messages are not merged; anything gathered is delivered first so the order is kept. */
+    @Override
+    public void onNotification(String message) {
+        flush();
+        delegate.onNotification(message);
+    }
+
+    /** Deliver the last digest and stop the window timer. */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+        }
+        flush();
+        timer.shutdown();
+    }
+}
@@ -0,0 +1,220 @@
+package observer;
+
+import util.LatencyHistogram;
+import util.LatencyStats;
+import util.VirtualThreads;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Delivers ScheduleEvents to observers asynchronously. Each observer gets a
+ * bounded queue drained by its own (virtual, when available) thread, so a slow
+ * observer only delays itself. What happens when a queue is full is decided
+ * by the observer's OverflowPolicy.
+ */
+public class EventBus {
+    private static final Logger logger = Logger.getLogger(EventBus.class.getName());
+
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    public enum OverflowPolicy {
+        /** Discard the event being published. */
+        DROP_NEWEST,
+        /** Discard the oldest queued event to make room. */
+        DROP_OLDEST,
+        /**
+         * Make the publisher wait for room. ScheduleManager publishes after
+         * releasing its lock, so this slows the writer that is delivering, not
+         * every writer.
+         */
+        BLOCK
+    }
+
+    private final CopyOnWriteArrayList<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final ThreadFactory threads = VirtualThreads.factory("schedule-observer");
+    private final LongAdder published = new LongAdder();
+    // time spent inside observer callbacks, across all observers
+    private final LatencyHistogram dispatch = new LatencyHistogram();
+
+    public boolean subscribe(ScheduleObserver observer) {
+        return subscribe(observer, DEFAULT_CAPACITY, OverflowPolicy.DROP_OLDEST);
+    }
+
+    public synchronized boolean subscribe(ScheduleObserver observer, int capacity, OverflowPolicy policy) {
+        if (observer == null || find(observer) != null) return false;
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive");
+        Subscription s = new Subscription(observer, capacity, policy == null ? OverflowPolicy.DROP_OLDEST : policy,
+                dispatch);
+        subscriptions.add(s);
+        s.worker = threads.newThread(s::drain);
+        s.worker.start();
+        return true;
+    }
+
+    public synchronized void unsubscribe(ScheduleObserver observer) {
+        Subscription s = find(observer);
+        if (s != null) {
+            subscriptions.remove(s);
+            s.worker.interrupt();
+        }
+    }
+
+    private Subscription find(ScheduleObserver observer) {
+        for (Subscription s : subscriptions) {
+            if (s.observer.equals(observer)) return s;
+        }
+        return null;
+    }
+
+    /**
+     * Queue the event for every observer. Only blocks for observers using
+     * OverflowPolicy.BLOCK, so never call it while holding a lock others need.
+     */
+    public void publish(ScheduleEvent event) {
+        published.increment();
+        for (Subscription s : subscriptions) {
+            s.offer(event);
+        }
+    }
+
+    /**
+     * Wait until every queue has been drained or the timeout expires.
+     * Returns true if all events were delivered.
+     */
+    public boolean awaitDelivery(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (undelivered() > 0) {
+            if (System.nanoTime() >= deadline) return false;
+            TimeUnit.MILLISECONDS.sleep(1);
+        }
+        return true;
+    }
+
+    private int undelivered() {
+        int n = 0;
+        for (Subscription s : subscriptions) n += s.undelivered.get();
+        return n;
+    }
+
+    // ---- metrics ----
+
+    public long getPublishedCount() {
+        return published.sum();
+    }
+
+    /** Events waiting across all observer queues. */
+    public int getQueueDepth() {
+        int depth = 0;
+        for (Subscription s : subscriptions) depth += s.queue.size();
+        return depth;
+    }
+
+    /** Events discarded by a full queue, across all observers. */
+    public long getDroppedCount() {
+        long dropped = 0;
+        for (Subscription s : subscriptions) dropped += s.dropped.sum();
+        return dropped;
+    }
+
+    /** How long observers take to handle one event. */
+    public LatencyStats getDispatchLatency() {
+        return dispatch.snapshot();
+    }
+
+    public void resetDispatchLatency() {
+        dispatch.reset();
+    }
+
+    /** Per-observer queue depth, in subscription order. */
+    public Map<ScheduleObserver, Integer> getQueueDepths() {
+        Map<ScheduleObserver, Integer> depths = new LinkedHashMap<>();
+        for (Subscription s : subscriptions) depths.put(s.observer, s.queue.size());
+        return depths;
+    }
+
+    /** Per-observer dropped event count, in subscription order. */
+    public Map<ScheduleObserver, Long> getDroppedCounts() {
+        Map<ScheduleObserver, Long> counts = new LinkedHashMap<>();
+        for (Subscription s : subscriptions) counts.put(s.observer, s.dropped.sum());
+        return counts;
+    }
+
+    private static final class Subscription {
+        final ScheduleObserver observer;
+        final BlockingQueue<ScheduleEvent> queue;
+        final OverflowPolicy policy;
+        final LatencyHistogram dispatch;
+        final LongAdder dropped = new LongAdder();
+        // queued or currently being delivered
+        final AtomicInteger undelivered = new AtomicInteger();
+        Thread worker;
+
+        Subscription(ScheduleObserver observer, int capacity, OverflowPolicy policy, LatencyHistogram dispatch) {
+            this.observer = observer;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.policy = policy;
+            this.dispatch = dispatch;
+        }
+
+        void offer(ScheduleEvent event) {
+            switch (policy) {
+                case DROP_NEWEST:
+                    undelivered.incrementAndGet();
+                    if (!queue.offer(event)) {
+                        undelivered.decrementAndGet();
+                        dropped.increment();
+                    }
+                    break;
+                case DROP_OLDEST:
+                    undelivered.incrementAndGet();
+                    while (!queue.offer(event)) {
+                        if (queue.poll() != null) {
+                            undelivered.decrementAndGet();
+                            dropped.increment();
+                        }
+                    }
+                    break;
+                case BLOCK:
+                    undelivered.incrementAndGet();
+                    try {
+                        queue.put(event);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        undelivered.decrementAndGet();
+                        dropped.increment();
+                    }
+                    break;
+            }
+        }
+
+        void drain() {
+            while (!Thread.currentThread().isInterrupted()) {
+                ScheduleEvent event;
+                try {
+                    event = queue.take();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long started = System.nanoTime();
+                try {
+                    observer.onEvent(event);
+                } catch (Exception ex) {
+                    logger.log(Level.WARNING, "Observer failed: " + observer, ex);
+                } finally {
+                    dispatch.recordSince(started);
+                    undelivered.decrementAndGet();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package observer;
+
+import model.RecurringTask;
+import model.Task;
+
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Structured description of a schedule change, delivered to observers
+ * instead of a pre-formatted string. Old times are null for new tasks,
+ * new times are null for removed tasks. A COMPLETED event has the same old
+ * and new times unless CoalescingObserver merged an edit into it.
+ *
+ * tasks lists the tasks a BULK_ADDED event added, in start order, so a
+ * subscriber can tell exactly what changed; it is empty for every other type,
+ * which describe one task through taskId and the times. RECURRING_ADDED and
+ * RECURRING_REMOVED carry the rule's id and the times of its first occurrence,
+ * with the rule itself in detail.
+ *
+ * sequence is the event's position in the schedule's ChangeFeed (1, 2, 3, ...
+ * with no gaps); it is NO_SEQUENCE for events that did not change anything,
+ * i.e. CONFLICT.
+ */
+public record ScheduleEvent(Type type, long taskId, String description,
+                            LocalTime oldStart, LocalTime oldEnd,
+                            LocalTime newStart, LocalTime newEnd,
+                            String detail, List<Task> tasks, long sequence) {
+
+    public static final long NO_SEQUENCE = 0;
+
+    public enum Type { ADDED, REMOVED, EDITED, COMPLETED, CONFLICT, BULK_ADDED, RECURRING_ADDED, RECURRING_REMOVED }
+
+    public ScheduleEvent {
+        tasks = tasks == null ? List.of() : List.copyOf(tasks);
+    }
+
+    public static ScheduleEvent added(Task t) {
+        return new ScheduleEvent(Type.ADDED, t.getId(), t.getDescription(),
+                null, null, t.getStart(), t.getEnd(), null, null, NO_SEQUENCE);
+    }
+
+    public static ScheduleEvent removed(Task t) {
+        return new ScheduleEvent(Type.REMOVED, t.getId(), t.getDescription(),
+                t.getStart(), t.getEnd(), null, null, null, null, NO_SEQUENCE);
+    }
+
+    public static ScheduleEvent edited(Task before, Task after) {
+        return new ScheduleEvent(Type.EDITED, after.getId(), after.getDescription(),
+                before.getStart(), before.getEnd(), after.getStart(), after.getEnd(), null, null, NO_SEQUENCE);
+    }
+
+    public static ScheduleEvent completed(Task t) {
+        return new ScheduleEvent(Type.COMPLETED, t.getId(), t.getDescription(),
+                t.getStart(), t.getEnd(), t.getStart(), t.getEnd(), null, null, NO_SEQUENCE);
+    }
+
+    /** A rejected add; detail holds the description of the task it collided with. */
+    public static ScheduleEvent conflict(Task attempted, Task existing) {
+        return new ScheduleEvent(Type.CONFLICT, attempted.getId(), attempted.getDescription(),
+                null, null, attempted.getStart(), attempted.getEnd(), existing.getDescription(), null, NO_SEQUENCE);
+    }
+
+    /**
+     * One event for a whole batch of tasks sorted by start time. There is no
+     * single task id (taskId is Task.NO_ID); the times span the batch, from the
+     * earliest start to the latest end, and tasks holds the batch.
+     */
+    public static ScheduleEvent bulkAdded(List<Task> sorted) {
+        Task first = sorted.get(0);
+        Task last = sorted.get(sorted.size() - 1);
+        LocalTime end = first.getEnd();
+        for (Task t : sorted) {
+            if (t.getEnd().isAfter(end)) end = t.getEnd();
+        }
+        return new ScheduleEvent(Type.BULK_ADDED, Task.NO_ID, first.getDescription() + " .. " + last.getDescription(),
+                null, null, first.getStart(), end, null, sorted, NO_SEQUENCE);
+    }
+
+    public static ScheduleEvent recurringAdded(RecurringTask rule) {
+        return new ScheduleEvent(Type.RECURRING_ADDED, rule.getId(), rule.getDescription(),
+                null, null, rule.getStart(), firstEnd(rule), rule.toString(), null, NO_SEQUENCE);
+    }
+
+    public static ScheduleEvent recurringRemoved(RecurringTask rule) {
+        return new ScheduleEvent(Type.RECURRING_REMOVED, rule.getId(), rule.getDescription(),
+                rule.getStart(), firstEnd(rule), null, null, rule.toString(), null, NO_SEQUENCE);
+    }
+
+    // end of the rule's first occurrence, LocalTime.MAX if it runs to midnight
+    private static LocalTime firstEnd(RecurringTask rule) {
+        long end = rule.getStart().toNanoOfDay() + rule.getLength().toNanos();
+        return end >= LocalTime.MAX.toNanoOfDay() ? LocalTime.MAX : LocalTime.ofNanoOfDay(end);
+    }
+
+    /** The same event stamped with its ChangeFeed sequence number. */
+    public ScheduleEvent withSequence(long sequence) {
+        return new ScheduleEvent(type, taskId, description, oldStart, oldEnd, newStart, newEnd, detail, tasks, sequence);
+    }
+
+    /** Number of tasks the event covers: the batch size for BULK_ADDED, else 1. */
+    public int count() {
+        return type == Type.BULK_ADDED ? tasks.size() : 1;
+    }
+
+    /** Human-friendly rendering, used by observers that only handle strings. */
+    public String toMessage() {
+        switch (type) {
+            case ADDED:
+                return "Task added: " + description + " [" + newStart + "-" + newEnd + "]";
+            case REMOVED:
+                return "Task removed: " + description;
+            case EDITED:
+                return "Task edited: " + description;
+            case COMPLETED:
+                if (oldStart == null || (oldStart.equals(newStart) && oldEnd.equals(newEnd))) {
+                    return "Task completed: " + description;
+                }
+                return "Task completed: " + description + " [" + newStart + "-" + newEnd + "]";
+            case CONFLICT:
+                return "Conflict detected when adding \"" + description + "\": conflicts with \"" + detail + "\".";
+            case BULK_ADDED:
+                return count() + " tasks added [" + newStart + "-" + newEnd + "]";
+            case RECURRING_ADDED:
+                return "Recurring task added: " + detail;
+            case RECURRING_REMOVED:
+                return "Recurring task removed: " + description;
+            default:
+                return type + ": " + description;
+        }
+    }
+}
@@ -1,9 +1,28 @@
 package observer;
 
+import java.util.List;
+
 public interface ScheduleObserver {
     /**
      * Called to inform observers about conflicts or updates
      * message is human-friendly.
      */
     void onNotification(String message);
+
+    /**
+     * Called with the structured event. Runs on the observer's own delivery
+     * thread, never while the schedule is locked. Defaults to the string form.
+     */
+    default void onEvent(ScheduleEvent event) {
+        onNotification(event.toMessage());
+    }
+
+    /**
+     * Called by CoalescingObserver with the merged events of one window, in the
+     * order they first happened. Defaults to onEvent for each of them; override
+     * to handle the whole digest at once (e.g. one write for all of it).
+     */
+    default void onDigest(List<ScheduleEvent> events) {
+        for (ScheduleEvent e : events) onEvent(e);
+    }
 }
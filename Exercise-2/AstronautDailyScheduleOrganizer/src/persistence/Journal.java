@@ -0,0 +1,408 @@
+package persistence;
+
+import manager.ChangeLog;
+import model.RecurringTask;
+import model.Task;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Append-only binary journal of schedule changes, split into segment files
+ * named journal-&lt;first sequence&gt;.log.
+ *
+ * Appends only encode the record into an in-memory chunk, so the manager lock
+ * is never held across disk I/O. A background flusher writes whatever has
+ * accumulated and forces it to disk once per batch (group commit); sync()
+ * waits for everything appended so far to be durable.
+ *
+ * Changes made by one call that must be all-or-nothing (ScheduleManager.addAll,
+ * a transaction commit) are written between GROUP_BEGIN and GROUP_END markers;
+ * replay applies a group only once it has read the end marker, so a crash part
+ * way through leaves none of it behind.
+ *
+ * If a write fails the journal stops: sync() and close() rethrow the error,
+ * and checkWritable() and every later append throw IllegalStateException, so
+ * changes are rejected instead of piling up in memory unsaved.
+ */
+public class Journal implements ChangeLog, Closeable {
+    private static final Logger logger = Logger.getLogger(Journal.class.getName());
+
+    static final byte ADD = 1;
+    static final byte EDIT = 2;
+    static final byte COMPLETE = 3;
+    static final byte REMOVE = 4;
+    static final byte RULE_ADD = 5;
+    static final byte RULE_REMOVE = 6;
+    static final byte GROUP_BEGIN = 7;
+    static final byte GROUP_END = 8;
+
+    private static final int CHUNK_SIZE = 1 << 16;
+    private static final String PREFIX = "journal-";
+    private static final String SUFFIX = ".log";
+
+    private final Path dir;
+    private final Object lock = new Object();
+    // encoded chunks and Rotate markers waiting for the flusher
+    private final ArrayDeque<Object> queue = new ArrayDeque<>();
+    private ByteBuffer current = ByteBuffer.allocate(CHUNK_SIZE);
+    private long lastSeq;
+    private long enqueued;   // items handed to the queue
+    private long processed;  // items written and forced
+    private long sinceRotate;
+    private boolean closed;
+    private IOException failure;
+
+    private FileChannel channel;
+    private final Thread flusher;
+
+    // a record of a group that replay has not seen the end of yet
+    private record Pending(byte op, long seq, ByteBuffer body) {
+    }
+
+    private static final class Rotate {
+        final long nextSeq;
+
+        Rotate(long nextSeq) {
+            this.nextSeq = nextSeq;
+        }
+    }
+
+    /** Open a new segment after lastSeq; earlier segments are left for replay/cleanup. */
+    public Journal(Path dir, long lastSeq) throws IOException {
+        this.dir = dir;
+        this.lastSeq = lastSeq;
+        Files.createDirectories(dir);
+        this.channel = openSegment(lastSeq + 1);
+        this.flusher = new Thread(this::flushLoop, "schedule-journal");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    private FileChannel openSegment(long firstSeq) throws IOException {
+        return FileChannel.open(segmentPath(firstSeq), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private Path segmentPath(long firstSeq) {
+        return dir.resolve(String.format("%s%020d%s", PREFIX, firstSeq, SUFFIX));
+    }
+
+    // ---- ChangeLog ----
+
+    @Override
+    public void added(Task t) {
+        append(ADD, t);
+    }
+
+    @Override
+    public void replaced(Task before, Task after) {
+        append(after.isCompleted() && !before.isCompleted() ? COMPLETE : EDIT, after);
+    }
+
+    @Override
+    public void removed(Task t) {
+        append(REMOVE, t);
+    }
+
+    @Override
+    public void ruleAdded(RecurringTask rule) {
+        append(RULE_ADD, rule);
+    }
+
+    @Override
+    public void ruleRemoved(RecurringTask rule) {
+        append(RULE_REMOVE, rule);
+    }
+
+    @Override
+    public void beginGroup() {
+        append(GROUP_BEGIN, 0, Task.NO_ID, null, null);
+    }
+
+    @Override
+    public void endGroup() {
+        append(GROUP_END, 0, Task.NO_ID, null, null);
+    }
+
+    @Override
+    public void checkWritable() {
+        synchronized (lock) {
+            checkOpen();
+        }
+    }
+
+    // caller holds lock
+    private void checkOpen() {
+        if (closed) throw new IllegalStateException("Journal is closed");
+        if (failure != null) {
+            throw new IllegalStateException("Journal write failed; changes can no longer be saved", failure);
+        }
+    }
+
+    private void append(byte op, Task t) {
+        append(op, op == REMOVE ? 8 : TaskCodec.maxSize(t), t.getId(), t, null);
+    }
+
+    private void append(byte op, RecurringTask r) {
+        append(op, op == RULE_REMOVE ? 8 : RuleCodec.maxSize(r), r.getId(), null, r);
+    }
+
+    // the body after op and seq is empty for group markers, id for the removals, else the encoded task or rule
+    private void append(byte op, int bodySize, long id, Task t, RecurringTask r) {
+        int needed = Records.HEADER + 1 + 8 + bodySize;
+        synchronized (lock) {
+            checkOpen();
+            if (current.remaining() < needed) {
+                enqueueCurrent();
+                current = ByteBuffer.allocate(Math.max(CHUNK_SIZE, needed));
+            }
+            int frame = Records.begin(current);
+            current.put(op);
+            current.putLong(++lastSeq);
+            if (op == GROUP_BEGIN || op == GROUP_END) {
+                // marker only
+            } else if (op == REMOVE || op == RULE_REMOVE) {
+                current.putLong(id);
+            } else if (op == RULE_ADD) {
+                RuleCodec.write(current, r);
+            } else {
+                TaskCodec.write(current, t);
+            }
+            Records.end(current, frame);
+            sinceRotate++;
+            lock.notifyAll();
+        }
+    }
+
+    // caller holds lock
+    private void enqueueCurrent() {
+        if (current.position() > 0) {
+            current.flip();
+            queue.add(current);
+            enqueued++;
+            current = ByteBuffer.allocate(CHUNK_SIZE);
+        }
+    }
+
+    /** Sequence number of the last appended record. */
+    public long lastSequence() {
+        synchronized (lock) {
+            return lastSeq;
+        }
+    }
+
+    /** Records appended since the last rotate(). */
+    public long changesSinceRotate() {
+        synchronized (lock) {
+            return sinceRotate;
+        }
+    }
+
+    /**
+     * Start a new segment for records after the current one. Returns the last
+     * sequence in the old segments; once a snapshot covering it is durable, those
+     * segments can be removed with deleteSegmentsThrough().
+     */
+    public long rotate() {
+        synchronized (lock) {
+            enqueueCurrent();
+            queue.add(new Rotate(lastSeq + 1));
+            enqueued++;
+            sinceRotate = 0;
+            lock.notifyAll();
+            return lastSeq;
+        }
+    }
+
+    /** Block until every record appended before this call is on disk. */
+    public void sync() throws IOException {
+        synchronized (lock) {
+            enqueueCurrent();
+            long target = enqueued;
+            lock.notifyAll();
+            while (processed < target && failure == null) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while waiting for journal sync", e);
+                }
+            }
+            if (failure != null) throw failure;
+        }
+    }
+
+    /** Delete closed segments whose records all have sequence <= seq. */
+    public void deleteSegmentsThrough(long seq) throws IOException {
+        List<Path> segments = segments(dir);
+        // a segment ends where the next one begins; the newest one is still open
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            if (firstSeq(segments.get(i + 1)) - 1 <= seq) Files.deleteIfExists(segments.get(i));
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            List<Object> batch;
+            long target;
+            synchronized (lock) {
+                while (queue.isEmpty() && current.position() == 0 && !closed) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                // anything appended while the previous batch was being forced joins this one
+                enqueueCurrent();
+                if (queue.isEmpty() && closed) return;
+                batch = new ArrayList<>(queue);
+                queue.clear();
+                target = enqueued;
+            }
+            try {
+                for (Object item : batch) {
+                    if (item instanceof Rotate) {
+                        channel.force(false);
+                        channel.close();
+                        channel = openSegment(((Rotate) item).nextSeq);
+                    } else {
+                        ByteBuffer buf = (ByteBuffer) item;
+                        while (buf.hasRemaining()) channel.write(buf);
+                    }
+                }
+                channel.force(false);
+                synchronized (lock) {
+                    processed = target;
+                    lock.notifyAll();
+                }
+            } catch (IOException e) {
+                logger.log(Level.SEVERE, "Journal write failed; further changes are not durable", e);
+                synchronized (lock) {
+                    failure = e;
+                    lock.notifyAll();
+                }
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (closed) return;
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+        if (failure != null) throw failure;
+    }
+
+    // ---- replay ----
+
+    /**
+     * Apply every record with sequence > afterSeq from the segments in dir to tasks
+     * and rules (id -> task, id -> rule). Stops at the first damaged record, dropping
+     * a group whose end marker never made it to disk. Returns the last sequence
+     * applied, or afterSeq if there was nothing newer.
+     */
+    static long replay(Path dir, long afterSeq, Map<Long, Task> tasks, Map<Long, RecurringTask> rules)
+            throws IOException {
+        long last = afterSeq;
+        for (Path segment : segments(dir)) {
+            // a group never spans segments: rotate() runs under the manager lock, between changes
+            List<Pending> group = null;
+            try (FileChannel ch = FileChannel.open(segment, StandardOpenOption.READ)) {
+                Records.Reader reader = new Records.Reader(ch);
+                ByteBuffer body;
+                while ((body = reader.next()) != null) {
+                    byte op = body.get();
+                    long seq = body.getLong();
+                    if (seq <= last) continue;
+                    if (op == GROUP_BEGIN) {
+                        group = new ArrayList<>();
+                        continue;
+                    }
+                    if (group != null && op != GROUP_END) {
+                        // the reader reuses its buffer, so keep a copy until the group is complete
+                        ByteBuffer copy = ByteBuffer.allocate(body.remaining());
+                        copy.put(body).flip();
+                        group.add(new Pending(op, seq, copy));
+                        continue;
+                    }
+                    if (op == GROUP_END) {
+                        if (group != null) {
+                            for (Pending p : group) apply(segment, p.op(), p.seq(), p.body(), tasks, rules);
+                        }
+                        group = null;
+                    } else {
+                        apply(segment, op, seq, body, tasks, rules);
+                    }
+                    last = seq;
+                }
+                if (group != null) {
+                    logger.log(Level.WARNING,
+                            "Journal segment {0} ends inside a group of changes; dropping its {1} record(s)",
+                            new Object[] {segment.getFileName(), group.size()});
+                    break;
+                }
+                if (reader.isTorn()) {
+                    logger.log(Level.WARNING, "Journal segment {0} ends in a damaged record; ignoring the rest",
+                            segment.getFileName());
+                    break;
+                }
+            }
+        }
+        return last;
+    }
+
+    private static void apply(Path segment, byte op, long seq, ByteBuffer body, Map<Long, Task> tasks,
+                              Map<Long, RecurringTask> rules) throws IOException {
+        try {
+            if (op == REMOVE) {
+                tasks.remove(body.getLong());
+            } else if (op == RULE_REMOVE) {
+                rules.remove(body.getLong());
+            } else if (op == RULE_ADD) {
+                RecurringTask r = RuleCodec.read(body);
+                rules.put(r.getId(), r);
+            } else {
+                Task t = TaskCodec.read(body);
+                tasks.put(t.getId(), t);
+            }
+        } catch (RuntimeException e) {
+            // the checksum matched, so this is a record written in another layout
+            throw new IOException("Unreadable record " + seq + " in journal segment " + segment.getFileName(), e);
+        }
+    }
+
+    static List<Path> segments(Path dir) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        if (!Files.isDirectory(dir)) return segments;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, PREFIX + "*" + SUFFIX)) {
+            for (Path p : stream) segments.add(p);
+        }
+        segments.sort(Comparator.comparingLong(Journal::firstSeq));
+        return segments;
+    }
+
+    private static long firstSeq(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+}
@@ -0,0 +1,101 @@
+package persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.zip.CRC32;
+
+/**
+ * Framing shared by journal and snapshot files: [int length][int crc32][body].
+ * A frame that is cut short or fails its checksum marks the end of usable data
+ * (e.g. a torn write at the tail of the journal after a crash).
+ */
+final class Records {
+    static final int HEADER = 8;
+    // anything larger is treated as corruption rather than allocated
+    static final int MAX_FRAME = 1 << 26;
+
+    private Records() {}
+
+    /** Reserve room for a frame header; returns the position to pass to end(). */
+    static int begin(ByteBuffer buf) {
+        int start = buf.position();
+        buf.position(start + HEADER);
+        return start;
+    }
+
+    /** Fill in the header of the frame whose body was just written after begin(). */
+    static void end(ByteBuffer buf, int start) {
+        int bodyStart = start + HEADER;
+        int length = buf.position() - bodyStart;
+        CRC32 crc = new CRC32();
+        ByteBuffer body = buf.duplicate();
+        body.position(bodyStart).limit(bodyStart + length);
+        crc.update(body);
+        buf.putInt(start, length);
+        buf.putInt(start + 4, (int) crc.getValue());
+    }
+
+    /** Streams frames from a channel through one reusable heap buffer. */
+    static final class Reader {
+        private final ReadableByteChannel channel;
+        private ByteBuffer buf;
+        private boolean eof;
+        private boolean torn;
+
+        Reader(ReadableByteChannel channel) {
+            this.channel = channel;
+            this.buf = ByteBuffer.allocate(1 << 16);
+            buf.flip();
+        }
+
+        /**
+         * Body of the next frame, valid until the following call, or null when the
+         * data ends. After null, isTorn() tells whether it ended in a damaged frame.
+         */
+        ByteBuffer next() throws IOException {
+            if (!fill(HEADER)) return null;
+            int length = buf.getInt(buf.position());
+            int crc = buf.getInt(buf.position() + 4);
+            if (length < 0 || length > MAX_FRAME) {
+                torn = true;
+                return null;
+            }
+            if (!fill(HEADER + length)) return null;
+            ByteBuffer body = buf.slice();
+            body.position(HEADER).limit(HEADER + length);
+            body = body.slice();
+            CRC32 check = new CRC32();
+            check.update(body.duplicate());
+            if ((int) check.getValue() != crc) {
+                torn = true;
+                return null;
+            }
+            buf.position(buf.position() + HEADER + length);
+            return body;
+        }
+
+        boolean isTorn() {
+            return torn;
+        }
+
+        // Make sure n bytes are buffered; false (and torn if partial) when the channel ends first
+        private boolean fill(int n) throws IOException {
+            if (buf.remaining() >= n) return true;
+            if (n > buf.capacity()) {
+                ByteBuffer bigger = ByteBuffer.allocate(Integer.highestOneBit(n) << 1);
+                bigger.put(buf);
+                bigger.flip();
+                buf = bigger;
+            }
+            buf.compact();
+            while (buf.position() < n && !eof) {
+                if (channel.read(buf) < 0) eof = true;
+            }
+            buf.flip();
+            if (buf.remaining() >= n) return true;
+            if (buf.hasRemaining()) torn = true;
+            return false;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package persistence;
+
+import model.MissionDays;
+import model.Priority;
+import model.RecurringTask;
+
+import java.nio.ByteBuffer;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Binary layout of a RecurringTask shared by the journal and snapshot files:
+ * id, description, start/until nano-of-day, interval/length nanos (interval 0
+ * for a daily rule), priority ordinal, then the mission days as a weekday
+ * bitmask and first/last epoch days (NO_DATE when open-ended).
+ */
+final class RuleCodec {
+    private static final Priority[] PRIORITIES = Priority.values();
+    private static final DayOfWeek[] WEEKDAYS = DayOfWeek.values();
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    private RuleCodec() {}
+
+    static int maxSize(RecurringTask r) {
+        return 8 + 4 + 3 * r.getDescription().length() + 8 + 8 + 8 + 8 + 1 + 1 + 8 + 8;
+    }
+
+    static void write(ByteBuffer buf, RecurringTask r) {
+        buf.putLong(r.getId());
+        TaskCodec.writeString(buf, r.getDescription());
+        buf.putLong(r.getStart().toNanoOfDay());
+        buf.putLong(r.getUntil().toNanoOfDay());
+        buf.putLong(r.getInterval() == null ? 0 : r.getInterval().toNanos());
+        buf.putLong(r.getLength().toNanos());
+        buf.put((byte) r.getPriority().ordinal());
+        MissionDays days = r.getDays();
+        int mask = 0;
+        for (DayOfWeek d : days.weekdays()) mask |= 1 << d.ordinal();
+        buf.put((byte) mask);
+        buf.putLong(days.first() == null ? NO_DATE : days.first().toEpochDay());
+        buf.putLong(days.last() == null ? NO_DATE : days.last().toEpochDay());
+    }
+
+    static RecurringTask read(ByteBuffer buf) {
+        long id = buf.getLong();
+        String description = TaskCodec.readString(buf);
+        LocalTime start = LocalTime.ofNanoOfDay(buf.getLong());
+        LocalTime until = LocalTime.ofNanoOfDay(buf.getLong());
+        long interval = buf.getLong();
+        Duration length = Duration.ofNanos(buf.getLong());
+        Priority priority = PRIORITIES[buf.get()];
+        int mask = buf.get();
+        Set<DayOfWeek> weekdays = EnumSet.noneOf(DayOfWeek.class);
+        for (DayOfWeek d : WEEKDAYS) {
+            if ((mask & 1 << d.ordinal()) != 0) weekdays.add(d);
+        }
+        long first = buf.getLong();
+        long last = buf.getLong();
+        MissionDays days = new MissionDays(first == NO_DATE ? null : LocalDate.ofEpochDay(first),
+                last == NO_DATE ? null : LocalDate.ofEpochDay(last), weekdays);
+        return RecurringTask.restore(id, description, start, until, interval == 0 ? null : Duration.ofNanos(interval),
+                length, priority, days);
+    }
+}
@@ -0,0 +1,163 @@
+package persistence;
+
+import manager.ScheduleManager;
+import manager.ScheduleSnapshot;
+import model.RecurringTask;
+import model.Task;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps one ScheduleManager durable in a directory: a snapshot file plus the
+ * journal of changes made since that snapshot. Both hold the tasks and the
+ * recurring rules that apply to the schedule.
+ *
+ * recover() loads the snapshot, replays the journal tail and hands the result
+ * to ScheduleManager.restore() in one go (no per-task conflict checks), then
+ * attaches a fresh journal segment so later changes are recorded.
+ * checkpoint() writes a new snapshot and drops the journal segments it covers.
+ */
+public class SchedulePersistence implements Closeable {
+    private static final Logger logger = Logger.getLogger(SchedulePersistence.class.getName());
+    private static final String SNAPSHOT = "schedule.snapshot";
+
+    private final Path dir;
+    private ScheduleManager manager;
+    private Journal journal;
+    private ScheduledExecutorService checkpointer;
+
+    public SchedulePersistence(Path dir) {
+        this.dir = Objects.requireNonNull(dir, "dir cannot be null");
+    }
+
+    /**
+     * Restore manager (which must be empty) and its recurring rules from disk and start
+     * journaling its changes. Returns the number of tasks recovered.
+     */
+    public synchronized int recover(ScheduleManager manager) throws IOException {
+        Objects.requireNonNull(manager, "manager cannot be null");
+        if (this.manager != null) throw new IllegalStateException("Already attached to a schedule");
+        Files.createDirectories(dir);
+        long started = System.nanoTime();
+
+        Map<Long, Task> state = new LinkedHashMap<>();
+        Map<Long, RecurringTask> rules = new LinkedHashMap<>();
+        long snapshotSeq = SnapshotFile.read(dir.resolve(SNAPSHOT), state, rules);
+        long lastSeq = Journal.replay(dir, snapshotSeq, state, rules);
+        // new tasks and rules must not reuse an id from the previous run
+        long maxId = Task.NO_ID;
+        for (long id : state.keySet()) maxId = Math.max(maxId, id);
+        for (long id : rules.keySet()) maxId = Math.max(maxId, id);
+        Task.getIdGenerator().advancePast(maxId);
+        manager.restore(state.values());
+        manager.restoreRecurring(rules.values());
+        // Fold the replayed tail into a new snapshot and start from clean segments, so a
+        // damaged record left by a crash can never end up in front of new changes.
+        if (lastSeq > snapshotSeq) {
+            SnapshotFile.write(dir.resolve(SNAPSHOT), lastSeq, manager.snapshot().getTasks(),
+                    manager.getRecurringTasks());
+        }
+        for (Path segment : Journal.segments(dir)) {
+            Files.delete(segment);
+        }
+
+        journal = new Journal(dir, lastSeq);
+        manager.setChangeLog(journal);
+        this.manager = manager;
+        logger.log(Level.INFO, "Recovered {0} tasks and {1} recurring tasks (snapshot seq {2}, journal seq {3}) in {4} ms",
+                new Object[] {state.size(), rules.size(), snapshotSeq, lastSeq,
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)});
+        return state.size();
+    }
+
+    /**
+     * Write a snapshot of the current schedule and delete the journal segments it
+     * makes redundant. Writers are only held up while the journal switches segments;
+     * the snapshot itself is written from the immutable ScheduleSnapshot.
+     */
+    public void checkpoint() throws IOException {
+        ScheduleManager m;
+        Journal j;
+        synchronized (this) {
+            m = requireAttached();
+            j = journal;
+        }
+        ScheduleSnapshot snapshot;
+        List<RecurringTask> rules;
+        long seq;
+        // ScheduleManager writers and rule changes for this schedule hold its monitor, so no change
+        // can slip in between these calls
+        synchronized (m) {
+            snapshot = m.snapshot();
+            rules = m.getRecurringTasks();
+            seq = j.rotate();
+        }
+        SnapshotFile.write(dir.resolve(SNAPSHOT), seq, snapshot.getTasks(), rules);
+        j.sync();
+        j.deleteSegmentsThrough(seq);
+        logger.fine(() -> "Checkpoint written at journal seq " + seq);
+    }
+
+    /**
+     * Check every interval and checkpoint when at least minChanges changes have
+     * been journaled since the last one.
+     */
+    public synchronized void checkpointEvery(Duration interval, long minChanges) {
+        requireAttached();
+        if (checkpointer != null) checkpointer.shutdownNow();
+        checkpointer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "schedule-checkpoint");
+            t.setDaemon(true);
+            return t;
+        });
+        long millis = interval.toMillis();
+        Journal j = journal;
+        checkpointer.scheduleWithFixedDelay(() -> {
+            if (j.changesSinceRotate() < minChanges) return;
+            try {
+                checkpoint();
+            } catch (IOException | RuntimeException e) {
+                logger.log(Level.WARNING, "Periodic checkpoint failed", e);
+            }
+        }, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /** Block until every change made so far is on disk. */
+    public void sync() throws IOException {
+        Journal j;
+        synchronized (this) {
+            requireAttached();
+            j = journal;
+        }
+        j.sync();
+    }
+
+    private ScheduleManager requireAttached() {
+        if (manager == null) throw new IllegalStateException("recover() has not been called");
+        return manager;
+    }
+
+    /** Stop journaling and flush everything written so far. */
+    @Override
+    public synchronized void close() throws IOException {
+        if (checkpointer != null) checkpointer.shutdownNow();
+        if (manager != null) {
+            manager.setChangeLog(null);
+            journal.close();
+            manager = null;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package persistence;
+
+import model.RecurringTask;
+import model.Task;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Compact point-in-time copy of a schedule: a header frame (magic, format,
+ * journal sequence, task count, rule count) followed by one frame per task and
+ * then one per recurring rule. Written to a
+ * temporary file and atomically moved into place, so a crash mid-write leaves
+ * the previous snapshot intact.
+ */
+final class SnapshotFile {
+    private static final int MAGIC = 0x53434844; // "SCHD"
+    // 2: task ids are longs (format 1 stored UUID strings); 3: recurring rules follow the tasks
+    private static final int FORMAT = 3;
+    private static final int FORMAT_WITHOUT_RULES = 2;
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private SnapshotFile() {}
+
+    static void write(Path file, long seq, Collection<Task> tasks, Collection<RecurringTask> rules)
+            throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            int frame = Records.begin(buf);
+            buf.putInt(MAGIC).putInt(FORMAT).putLong(seq).putInt(tasks.size()).putInt(rules.size());
+            Records.end(buf, frame);
+            for (Task t : tasks) {
+                int needed = Records.HEADER + TaskCodec.maxSize(t);
+                if (buf.remaining() < needed) {
+                    drain(ch, buf);
+                    if (buf.capacity() < needed) buf = ByteBuffer.allocateDirect(needed);
+                }
+                frame = Records.begin(buf);
+                TaskCodec.write(buf, t);
+                Records.end(buf, frame);
+            }
+            for (RecurringTask r : rules) {
+                int needed = Records.HEADER + RuleCodec.maxSize(r);
+                if (buf.remaining() < needed) {
+                    drain(ch, buf);
+                    if (buf.capacity() < needed) buf = ByteBuffer.allocateDirect(needed);
+                }
+                frame = Records.begin(buf);
+                RuleCodec.write(buf, r);
+                Records.end(buf, frame);
+            }
+            drain(ch, buf);
+            ch.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void drain(FileChannel ch, ByteBuffer buf) throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) ch.write(buf);
+        buf.clear();
+    }
+
+    /**
+     * Load the snapshot into tasks (id -> task) and rules (id -> rule) and return the
+     * journal sequence it covers, or 0 if there is no snapshot yet.
+     */
+    static long read(Path file, Map<Long, Task> tasks, Map<Long, RecurringTask> rules) throws IOException {
+        if (!Files.exists(file)) return 0;
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            Records.Reader reader = new Records.Reader(ch);
+            ByteBuffer header = reader.next();
+            if (header == null || header.getInt() != MAGIC) {
+                throw new IOException("Not a schedule snapshot: " + file);
+            }
+            int format = header.getInt();
+            if (format != FORMAT && format != FORMAT_WITHOUT_RULES) {
+                throw new IOException("Unsupported snapshot format " + format + " in " + file);
+            }
+            long seq = header.getLong();
+            int count = header.getInt();
+            int ruleCount = format == FORMAT ? header.getInt() : 0;
+            ByteBuffer body;
+            int loaded = 0;
+            while (loaded < count + ruleCount && (body = reader.next()) != null) {
+                if (loaded < count) {
+                    Task t = TaskCodec.read(body);
+                    tasks.put(t.getId(), t);
+                } else {
+                    RecurringTask r = RuleCodec.read(body);
+                    rules.put(r.getId(), r);
+                }
+                loaded++;
+            }
+            if (loaded != count + ruleCount) {
+                throw new IOException("Snapshot " + file + " is incomplete: " + loaded + " of "
+                        + (count + ruleCount) + " records");
+            }
+            return seq;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package persistence;
+
+import model.Priority;
+import model.Task;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Binary layout of a Task shared by the journal and snapshot files:
+ * id, description (int length + UTF-8), start/end nano-of-day, priority ordinal, completed flag,
+ * then the shared resources (short count + strings) only if there are any. Records written
+ * before tasks had resources end after the flag and still read back unchanged.
+ */
+final class TaskCodec {
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    private TaskCodec() {}
+
+    static int maxSize(Task t) {
+        // UTF-8 needs at most 3 bytes per char
+        int size = 8 + 4 + 3 * t.getDescription().length() + 8 + 8 + 1 + 1;
+        if (!t.getResources().isEmpty()) {
+            size += 2;
+            for (String r : t.getResources()) size += 4 + 3 * r.length();
+        }
+        return size;
+    }
+
+    static void write(ByteBuffer buf, Task t) {
+        buf.putLong(t.getId());
+        writeString(buf, t.getDescription());
+        buf.putLong(t.getStart().toNanoOfDay());
+        buf.putLong(t.getEnd().toNanoOfDay());
+        buf.put((byte) t.getPriority().ordinal());
+        buf.put((byte) (t.isCompleted() ? 1 : 0));
+        if (!t.getResources().isEmpty()) {
+            buf.putShort((short) t.getResources().size());
+            for (String r : t.getResources()) writeString(buf, r);
+        }
+    }
+
+    static Task read(ByteBuffer buf) {
+        long id = buf.getLong();
+        String description = readString(buf);
+        LocalTime start = LocalTime.ofNanoOfDay(buf.getLong());
+        LocalTime end = LocalTime.ofNanoOfDay(buf.getLong());
+        Priority priority = PRIORITIES[buf.get()];
+        boolean completed = buf.get() != 0;
+        List<String> resources = Collections.emptyList();
+        if (buf.hasRemaining()) {
+            int count = buf.getShort();
+            resources = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) resources.add(readString(buf));
+        }
+        return new Task(id, description, start, end, priority, completed, resources);
+    }
+
+    static void writeString(ByteBuffer buf, String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        buf.putInt(bytes.length);
+        buf.put(bytes);
+    }
+
+    static String readString(ByteBuffer buf) {
+        int len = buf.getInt();
+        if (len < 0 || len > buf.remaining()) throw new IllegalArgumentException("Corrupt string length " + len);
+        String s = new String(buf.array(), buf.arrayOffset() + buf.position(), len, StandardCharsets.UTF_8);
+        buf.position(buf.position() + len);
+        return s;
+    }
+}
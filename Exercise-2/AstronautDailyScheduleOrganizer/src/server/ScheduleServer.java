@@ -0,0 +1,436 @@
+package server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import exceptions.InvalidTimeFormatException;
+import exceptions.TaskConflictException;
+import exceptions.TaskNotFoundException;
+import factory.TaskFactory;
+import factory.TimeParser;
+import manager.ScheduleManager;
+import model.Priority;
+import model.Task;
+import util.Json;
+import util.JsonWriter;
+import util.VirtualThreads;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Embedded HTTP/JSON API over one ScheduleManager, on the JDK's built-in
+ * server with a thread (virtual when available) per request. Connections are
+ * kept alive between requests.
+ *
+ *   GET    /tasks                          all tasks, sorted by start time
+ *   GET    /tasks?priority=HIGH            tasks of one priority
+ *   GET    /tasks?from=09:00&amp;to=12:00      tasks overlapping the range
+ *   GET    /tasks?status=pending|completed
+ *   POST   /tasks                          {"description","start","end","priority","resources":[...]}
+ *   PUT    /tasks/{description}            {"start","end","priority"}, priority kept if absent
+ *   DELETE /tasks/{description}
+ *   POST   /tasks/{description}/complete
+ *   POST   /batch                          [{"op":"add|edit|remove|complete", ...}, ...]
+ *
+ * Lists longer than STREAM_THRESHOLD are streamed with chunked encoding
+ * straight from the schedule snapshot instead of being built in memory.
+ * Errors are {"error": message} with 400 (bad input), 404 (no such task)
+ * or 409 (conflict, plus a "conflicts" array).
+ *
+ * Run with -Dsun.net.httpserver.nodelay=true (App sets it at startup): the JDK
+ * server writes headers and body separately, and with Nagle's algorithm on each
+ * keep-alive response then waits for the client's delayed ACK (~40 ms).
+ */
+public class ScheduleServer implements Closeable {
+    private static final Logger logger = Logger.getLogger(ScheduleServer.class.getName());
+
+    static final int STREAM_THRESHOLD = 256;
+    private static final int MAX_BODY = 16 << 20;
+    private static final int WRITE_BUFFER = 1 << 14;
+    private static final String JSON = "application/json; charset=utf-8";
+
+    private final ScheduleManager manager;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /** Bind to port on the loopback interface (0 picks a free port) and start serving. */
+    public ScheduleServer(ScheduleManager manager, int port) throws IOException {
+        this(manager, new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+    }
+
+    public ScheduleServer(ScheduleManager manager, InetSocketAddress address) throws IOException {
+        this.manager = Objects.requireNonNull(manager, "manager cannot be null");
+        this.server = HttpServer.create(address, 0);
+        this.executor = VirtualThreads.newThreadPerTaskExecutor("schedule-http");
+        server.setExecutor(executor);
+        server.createContext("/tasks", this::handleTasks);
+        server.createContext("/batch", this::handleBatch);
+        server.start();
+        logger.log(Level.INFO, "Schedule HTTP API listening on {0}", getAddress());
+    }
+
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ---- routing ----
+
+    private void handleTasks(HttpExchange exchange) throws IOException {
+        try {
+            routeTasks(exchange);
+        } catch (TaskNotFoundException e) {
+            sendError(exchange, 404, e.getMessage());
+        } catch (TaskConflictException e) {
+            sendConflict(exchange, e);
+        } catch (InvalidTimeFormatException | IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Request failed: " + exchange.getRequestURI(), e);
+            sendError(exchange, 500, "Internal error");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void routeTasks(HttpExchange exchange)
+            throws IOException, TaskNotFoundException, TaskConflictException, InvalidTimeFormatException {
+        List<String> path = pathSegments(exchange);
+        String method = exchange.getRequestMethod();
+        if (path.isEmpty() || !path.get(0).equals("tasks")) {
+            // the context also matches prefixes such as /tasksfoo
+            drain(exchange);
+            sendError(exchange, 404, "No such resource: " + exchange.getRequestURI().getPath());
+        } else if (path.size() == 1) {
+            if (method.equals("GET")) {
+                drain(exchange);
+                listTasks(exchange);
+            } else if (method.equals("POST")) {
+                Map<String, Object> body = asObject(readBody(exchange));
+                sendTask(exchange, 201, add(body));
+            } else {
+                methodNotAllowed(exchange, "GET, POST");
+            }
+        } else if (path.size() == 2) {
+            String description = path.get(1);
+            if (method.equals("PUT")) {
+                sendTask(exchange, 200, edit(description, asObject(readBody(exchange))));
+            } else if (method.equals("DELETE")) {
+                drain(exchange);
+                manager.removeTaskByDescription(description);
+                sendEmpty(exchange, 204);
+            } else {
+                methodNotAllowed(exchange, "PUT, DELETE");
+            }
+        } else if (path.size() == 3 && path.get(2).equals("complete")) {
+            if (!method.equals("POST")) {
+                methodNotAllowed(exchange, "POST");
+                return;
+            }
+            drain(exchange);
+            sendTask(exchange, 200, complete(path.get(1)));
+        } else {
+            drain(exchange);
+            sendError(exchange, 404, "No such resource: " + exchange.getRequestURI().getPath());
+        }
+    }
+
+    private void listTasks(HttpExchange exchange) throws IOException {
+        Map<String, String> query = query(exchange);
+        List<Task> tasks;
+        if (query.containsKey("priority")) {
+            tasks = manager.getTasksByPriority(parsePriority(query.get("priority")));
+        } else if (query.containsKey("from") || query.containsKey("to")) {
+            LocalTime from = parseTime(query.getOrDefault("from", "00:00"), "from");
+            LocalTime to = query.containsKey("to") ? parseTime(query.get("to"), "to") : LocalTime.MAX;
+            tasks = manager.tasksBetween(from, to);
+        } else if (query.containsKey("status")) {
+            String status = query.get("status");
+            if (status.equalsIgnoreCase("pending")) tasks = manager.getPendingTasks();
+            else if (status.equalsIgnoreCase("completed")) tasks = manager.getCompletedTasks();
+            else throw new IllegalArgumentException("status must be pending or completed");
+        } else {
+            tasks = manager.viewAllTasks();
+        }
+        // the lists are immutable snapshot views, so streaming them needs no lock
+        send(exchange, 200, tasks.size(), w -> {
+            w.beginArray();
+            for (Task t : tasks) writeTask(w, t);
+            w.endArray();
+        });
+    }
+
+    private void handleBatch(HttpExchange exchange) throws IOException {
+        try {
+            if (!exchange.getRequestMethod().equals("POST")) {
+                methodNotAllowed(exchange, "POST");
+                return;
+            }
+            Object body = readBody(exchange);
+            if (!(body instanceof List)) throw new IllegalArgumentException("Batch body must be a JSON array");
+            List<?> ops = (List<?>) body;
+            // Operations run in order and independently: one failing does not undo the others.
+            send(exchange, 200, ops.size(), w -> {
+                w.beginObject().name("results").beginArray();
+                for (Object op : ops) runBatchOp(w, op);
+                w.endArray().endObject();
+            });
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Batch request failed", e);
+            sendError(exchange, 500, "Internal error");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void runBatchOp(JsonWriter w, Object raw) throws IOException {
+        try {
+            Map<String, Object> op = asObject(raw);
+            String kind = requiredString(op, "op");
+            switch (kind) {
+                case "add":
+                    writeResult(w, 201, add(op));
+                    break;
+                case "edit":
+                    writeResult(w, 200, edit(requiredString(op, "description"), op));
+                    break;
+                case "complete":
+                    writeResult(w, 200, complete(requiredString(op, "description")));
+                    break;
+                case "remove":
+                    manager.removeTaskByDescription(requiredString(op, "description"));
+                    writeResult(w, 204, null);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown op: " + kind);
+            }
+        } catch (TaskNotFoundException e) {
+            writeError(w, 404, e.getMessage(), null);
+        } catch (TaskConflictException e) {
+            writeError(w, 409, e.getMessage(), e.getConflicts());
+        } catch (InvalidTimeFormatException | IllegalArgumentException e) {
+            writeError(w, 400, e.getMessage(), null);
+        }
+    }
+
+    // ---- operations ----
+
+    private Task add(Map<String, Object> body) throws InvalidTimeFormatException, TaskConflictException {
+        Task t = TaskFactory.createTask(requiredString(body, "description"), requiredString(body, "start"),
+                requiredString(body, "end"), optionalString(body, "priority"), optionalStrings(body, "resources"));
+        manager.addTask(t);
+        return t;
+    }
+
+    private Task edit(String description, Map<String, Object> body)
+            throws TaskNotFoundException, TaskConflictException, InvalidTimeFormatException {
+        LocalTime start = parseTime(requiredString(body, "start"), "start");
+        LocalTime end = parseTime(requiredString(body, "end"), "end");
+        if (!start.isBefore(end)) throw new InvalidTimeFormatException("Start time must be before end time.");
+        String priority = optionalString(body, "priority");
+        // an edit that leaves out the priority keeps the task's current one
+        if (priority == null) return manager.editTask(description, start, end);
+        return manager.editTask(description, start, end, Priority.fromString(priority));
+    }
+
+    private Task complete(String description) throws TaskNotFoundException {
+        return manager.markCompleted(description);
+    }
+
+    // ---- request parsing ----
+
+    private static List<String> pathSegments(HttpExchange exchange) {
+        List<String> segments = new ArrayList<>();
+        for (String s : exchange.getRequestURI().getRawPath().split("/")) {
+            // URLDecoder treats '+' as a space, which is wrong in a path
+            if (!s.isEmpty()) segments.add(URLDecoder.decode(s.replace("+", "%2B"), StandardCharsets.UTF_8));
+        }
+        return segments;
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw == null) return params;
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            params.put(name, value);
+        }
+        return params;
+    }
+
+    private static Object readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] bytes = in.readNBytes(MAX_BODY + 1);
+            if (bytes.length > MAX_BODY) throw new IllegalArgumentException("Request body too large");
+            return Json.parse(new String(bytes, StandardCharsets.UTF_8));
+        }
+    }
+
+    // the body must be consumed for the connection to be reused
+    private static void drain(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asObject(Object value) {
+        if (!(value instanceof Map)) throw new IllegalArgumentException("Expected a JSON object");
+        return (Map<String, Object>) value;
+    }
+
+    private static String requiredString(Map<String, Object> body, String field) {
+        String s = optionalString(body, field);
+        if (s == null) throw new IllegalArgumentException("Missing field: " + field);
+        return s;
+    }
+
+    private static String optionalString(Map<String, Object> body, String field) {
+        Object v = body.get(field);
+        if (v == null) return null;
+        if (!(v instanceof String)) throw new IllegalArgumentException("Field " + field + " must be a string");
+        return (String) v;
+    }
+
+    // absent means an empty list
+    private static List<String> optionalStrings(Map<String, Object> body, String field) {
+        Object v = body.get(field);
+        if (v == null) return Collections.emptyList();
+        if (!(v instanceof List)) throw new IllegalArgumentException("Field " + field + " must be an array of strings");
+        List<String> values = new ArrayList<>();
+        for (Object item : (List<?>) v) {
+            if (!(item instanceof String)) {
+                throw new IllegalArgumentException("Field " + field + " must be an array of strings");
+            }
+            values.add((String) item);
+        }
+        return values;
+    }
+
+    private static LocalTime parseTime(String s, String field) {
+        LocalTime t = TimeParser.parse(s);
+        if (t == null) throw new IllegalArgumentException("Invalid " + field + " time, expected HH:mm: " + s);
+        return t;
+    }
+
+    private static Priority parsePriority(String s) {
+        for (Priority p : Priority.values()) {
+            if (p.name().equalsIgnoreCase(s.trim())) return p;
+        }
+        throw new IllegalArgumentException("Unknown priority: " + s);
+    }
+
+    // ---- responses ----
+
+    @FunctionalInterface
+    private interface JsonBody {
+        void write(JsonWriter w) throws IOException;
+    }
+
+    /**
+     * Send a JSON body. Small ones are buffered and sent with a Content-Length;
+     * above STREAM_THRESHOLD items the body is written as it is produced, chunked.
+     */
+    private static void send(HttpExchange exchange, int status, int items, JsonBody body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", JSON);
+        if (items > STREAM_THRESHOLD) {
+            exchange.sendResponseHeaders(status, 0);
+            try (Writer out = new BufferedWriter(
+                    new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), WRITE_BUFFER)) {
+                body.write(new JsonWriter(out));
+            }
+        } else {
+            ByteArrayOutputStream buf = new ByteArrayOutputStream(512);
+            try (Writer out = new OutputStreamWriter(buf, StandardCharsets.UTF_8)) {
+                body.write(new JsonWriter(out));
+            }
+            exchange.sendResponseHeaders(status, buf.size());
+            try (OutputStream out = exchange.getResponseBody()) {
+                buf.writeTo(out);
+            }
+        }
+    }
+
+    private static void sendTask(HttpExchange exchange, int status, Task t) throws IOException {
+        send(exchange, status, 1, w -> writeTask(w, t));
+    }
+
+    private static void sendEmpty(HttpExchange exchange, int status) throws IOException {
+        exchange.sendResponseHeaders(status, -1);
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        send(exchange, status, 1, w -> w.beginObject().name("error").value(message).endObject());
+    }
+
+    private static void sendConflict(HttpExchange exchange, TaskConflictException e) throws IOException {
+        send(exchange, 409, e.getConflicts().size(), w -> {
+            w.beginObject().name("error").value(e.getMessage()).name("conflicts").beginArray();
+            for (String c : e.getConflicts()) w.value(c);
+            w.endArray().endObject();
+        });
+    }
+
+    private static void methodNotAllowed(HttpExchange exchange, String allowed) throws IOException {
+        drain(exchange);
+        exchange.getResponseHeaders().set("Allow", allowed);
+        sendError(exchange, 405, "Method not allowed");
+    }
+
+    static void writeTask(JsonWriter w, Task t) throws IOException {
+        w.beginObject()
+                .name("id").value(t.getId())
+                .name("description").value(t.getDescription())
+                .name("start").value(t.getStart().toString())
+                .name("end").value(t.getEnd().toString())
+                .name("priority").value(t.getPriority().name())
+                .name("completed").value(t.isCompleted())
+                .name("resources").beginArray();
+        for (String r : t.getResources()) w.value(r);
+        w.endArray().endObject();
+    }
+
+    private static void writeResult(JsonWriter w, int status, Task t) throws IOException {
+        w.beginObject().name("status").value(status);
+        if (t != null) {
+            w.name("task");
+            writeTask(w, t);
+        }
+        w.endObject();
+    }
+
+    private static void writeError(JsonWriter w, int status, String message, List<String> conflicts)
+            throws IOException {
+        w.beginObject().name("status").value(status).name("error").value(message);
+        if (conflicts != null) {
+            w.name("conflicts").beginArray();
+            for (String c : conflicts) w.value(c);
+            w.endArray();
+        }
+        w.endObject();
+    }
+}
@@ -0,0 +1,297 @@
+package transfer;
+
+import manager.ScheduleManager;
+import model.Priority;
+import model.Task;
+import util.JsonWriter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Objects;
+
+/**
+ * Streams tasks to a WritableByteChannel as CSV, JSON lines or iCalendar.
+ * Each task is formatted into one reused StringBuilder and encoded straight
+ * into a reused direct buffer, which is written out whenever it fills up, so
+ * memory use does not depend on the number of tasks. Pass a schedule (its
+ * current snapshot is exported) or any query result, e.g. tasksBetween().
+ *
+ * Times are written to the second; a task ending at midnight (LocalTime.MAX)
+ * ends at "24:00". Not thread-safe: use one exporter per thread.
+ */
+public final class ScheduleExporter {
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+    static final String CSV_HEADER = "id,description,start,end,priority,completed,resources";
+    static final String ICAL_PRODUCT = "-//Astronaut Daily Schedule Organizer//EN";
+    static final String COMPLETED_PROPERTY = "X-ASTRONAUT-COMPLETED";
+    private static final DateTimeFormatter ICAL_DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter ICAL_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+    // RFC 5545 content lines are folded after 75 octets
+    private static final int ICAL_LINE = 75;
+
+    private final ByteBuffer buffer;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private final StringBuilder text = new StringBuilder(256);
+    private final Writer textWriter = new Writer() {
+        @Override public void write(char[] cbuf, int off, int len) { text.append(cbuf, off, len); }
+        @Override public void write(String s) { text.append(s); }
+        @Override public void write(int c) { text.append((char) c); }
+        @Override public void flush() { }
+        @Override public void close() { }
+    };
+    private WritableByteChannel out;
+
+    public ScheduleExporter() {
+        this(DEFAULT_BUFFER_SIZE);
+    }
+
+    public ScheduleExporter(int bufferSize) {
+        if (bufferSize < 64) throw new IllegalArgumentException("bufferSize must be at least 64 bytes");
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    /** Export every task of the schedule's current snapshot; returns the number of tasks written. */
+    public long export(ScheduleManager schedule, ScheduleFormat format, WritableByteChannel channel)
+            throws IOException {
+        Objects.requireNonNull(schedule, "schedule cannot be null");
+        LocalDate date = schedule.getKey() == null ? null : schedule.getKey().date();
+        return export(schedule.snapshot().getTasks(), format, date, channel);
+    }
+
+    /**
+     * Export tasks in iteration order; returns the number written. date is the
+     * day iCalendar events are placed on (today when null) and is ignored by
+     * the other formats. The channel is not closed.
+     */
+    public long export(Iterable<Task> tasks, ScheduleFormat format, LocalDate date, WritableByteChannel channel)
+            throws IOException {
+        Objects.requireNonNull(tasks, "tasks cannot be null");
+        Objects.requireNonNull(format, "format cannot be null");
+        Objects.requireNonNull(channel, "channel cannot be null");
+        out = channel;
+        buffer.clear();
+        encoder.reset();
+        long count = 0;
+        try {
+            switch (format) {
+                case CSV:
+                    text.append(CSV_HEADER).append("\r\n");
+                    for (Task t : tasks) {
+                        csv(t);
+                        count++;
+                    }
+                    break;
+                case JSON_LINES:
+                    for (Task t : tasks) {
+                        json(t);
+                        count++;
+                    }
+                    break;
+                case ICALENDAR:
+                    LocalDate day = date != null ? date : LocalDate.now();
+                    String dayText = day.format(ICAL_DATE);
+                    String nextDayText = day.plusDays(1).format(ICAL_DATE);
+                    String stamp = ZonedDateTime.now(ZoneOffset.UTC).format(ICAL_STAMP);
+                    icalLine("BEGIN", "VCALENDAR");
+                    icalLine("VERSION", "2.0");
+                    icalLine("PRODID", ICAL_PRODUCT);
+                    for (Task t : tasks) {
+                        ical(t, dayText, nextDayText, stamp);
+                        count++;
+                    }
+                    icalLine("END", "VCALENDAR");
+                    break;
+            }
+            emit();
+            encoder.encode(CharBuffer.allocate(0), buffer, true);
+            encoder.flush(buffer);
+            drain();
+        } finally {
+            out = null;
+            text.setLength(0);
+        }
+        return count;
+    }
+
+    // ---- formats; each appends to text and then emits it ----
+
+    private void csv(Task t) throws IOException {
+        text.append(t.getId()).append(',');
+        csvField(t.getDescription());
+        text.append(',').append(time(t.getStart())).append(',').append(time(t.getEnd())).append(',')
+                .append(t.getPriority().name()).append(',').append(t.isCompleted()).append(',');
+        csvField(String.join(";", t.getResources()));
+        text.append("\r\n");
+        emit();
+    }
+
+    private void csvField(String value) {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\r' || c == '\n';
+        }
+        if (!quote) {
+            text.append(value);
+            return;
+        }
+        text.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') text.append('"');
+            text.append(c);
+        }
+        text.append('"');
+    }
+
+    private void json(Task t) throws IOException {
+        JsonWriter w = new JsonWriter(textWriter);
+        w.beginObject()
+                .name("id").value(t.getId())
+                .name("description").value(t.getDescription())
+                .name("start").value(time(t.getStart()))
+                .name("end").value(time(t.getEnd()))
+                .name("priority").value(t.getPriority().name())
+                .name("completed").value(t.isCompleted())
+                .name("resources").beginArray();
+        for (String r : t.getResources()) w.value(r);
+        w.endArray().endObject();
+        text.append('\n');
+        emit();
+    }
+
+    private void ical(Task t, String day, String nextDay, String stamp) throws IOException {
+        icalLine("BEGIN", "VEVENT");
+        icalLine("UID", t.getId() + "@astronaut-schedule");
+        icalLine("DTSTAMP", stamp);
+        icalLine("DTSTART", dateTime(day, t.getStart()));
+        icalLine("DTEND", t.getEnd().equals(LocalTime.MAX) ? nextDay + "T000000" : dateTime(day, t.getEnd()));
+        icalLine("SUMMARY", icalText(t.getDescription()));
+        icalLine("PRIORITY", String.valueOf(icalPriority(t.getPriority())));
+        if (!t.getResources().isEmpty()) {
+            StringBuilder list = new StringBuilder();
+            for (String r : t.getResources()) {
+                if (list.length() > 0) list.append(',');
+                list.append(icalText(r));
+            }
+            icalLine("RESOURCES", list.toString());
+        }
+        if (t.isCompleted()) icalLine(COMPLETED_PROPERTY, "TRUE");
+        icalLine("END", "VEVENT");
+    }
+
+    // Appends "name:value" folded into lines of at most 75 octets, then emits it
+    private void icalLine(String name, String value) throws IOException {
+        int octets = name.length() + 1;
+        text.append(name).append(':');
+        for (int i = 0; i < value.length(); ) {
+            int cp = value.codePointAt(i);
+            int size = cp < 0x80 ? 1 : cp < 0x800 ? 2 : cp < 0x10000 ? 3 : 4;
+            if (octets + size > ICAL_LINE) {
+                text.append("\r\n ");
+                octets = 1;
+            }
+            text.appendCodePoint(cp);
+            octets += size;
+            i += Character.charCount(cp);
+        }
+        text.append("\r\n");
+        emit();
+    }
+
+    static String icalText(String s) {
+        StringBuilder sb = new StringBuilder(s.length() + 8);
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '\\': case ';': case ',':
+                    sb.append('\\').append(c);
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    break;
+                default:
+                    sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    static int icalPriority(Priority p) {
+        switch (p) {
+            case HIGH: return 1;
+            case LOW: return 9;
+            default: return 5;
+        }
+    }
+
+    private static String dateTime(String day, LocalTime time) {
+        char[] c = new char[7];
+        c[0] = 'T';
+        digits(c, 1, time.getHour());
+        digits(c, 3, time.getMinute());
+        digits(c, 5, time.getSecond());
+        return day + new String(c);
+    }
+
+    /** "HH:mm", or "HH:mm:ss" when there are seconds; "24:00" for the end of the day. */
+    static String time(LocalTime t) {
+        if (t.equals(LocalTime.MAX)) return "24:00";
+        int second = t.getSecond();
+        char[] c = new char[second == 0 ? 5 : 8];
+        digits(c, 0, t.getHour());
+        c[2] = ':';
+        digits(c, 3, t.getMinute());
+        if (second != 0) {
+            c[5] = ':';
+            digits(c, 6, second);
+        }
+        return new String(c);
+    }
+
+    private static void digits(char[] c, int at, int value) {
+        c[at] = (char) ('0' + value / 10);
+        c[at + 1] = (char) ('0' + value % 10);
+    }
+
+    // ---- encoding ----
+
+    // Encode what is in text into the buffer, writing the buffer out each time it fills
+    private void emit() throws IOException {
+        if (text.length() == 0) return;
+        CharBuffer chars = CharBuffer.wrap(text);
+        while (true) {
+            CoderResult result = encoder.encode(chars, buffer, false);
+            if (result.isOverflow()) {
+                drain();
+            } else if (result.isError()) {
+                result.throwException();
+            } else {
+                break;
+            }
+        }
+        // an unpaired surrogate at the very end stays in chars; carry it over to the next record
+        int left = chars.remaining();
+        text.delete(0, text.length() - left);
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) out.write(buffer);
+        buffer.clear();
+    }
+}
@@ -0,0 +1,32 @@
+package transfer;
+
+import java.util.Locale;
+
+/** File formats ScheduleExporter writes and ScheduleImporter reads. */
+public enum ScheduleFormat {
+    /** RFC 4180 CSV with a header row; resources are separated by ';'. */
+    CSV("csv"),
+    /** One JSON object per line, the same fields as the HTTP API. */
+    JSON_LINES("jsonl"),
+    /** RFC 5545 iCalendar, one VEVENT per task on the schedule's date. */
+    ICALENDAR("ics");
+
+    private final String extension;
+
+    ScheduleFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /** Format for a file name by its extension, or null if it is not one of these. */
+    public static ScheduleFormat forFileName(String fileName) {
+        String name = fileName.toLowerCase(Locale.ROOT);
+        for (ScheduleFormat f : values()) {
+            if (name.endsWith("." + f.extension)) return f;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,458 @@
+package transfer;
+
+import exceptions.TaskConflictException;
+import factory.TimeParser;
+import manager.ScheduleManager;
+import model.Priority;
+import model.Task;
+import util.Json;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Reads CSV, JSON lines or iCalendar written by ScheduleExporter (or by hand /
+ * another calendar) from a ReadableByteChannel into a schedule. Input is
+ * decoded through a reused direct buffer and parsed line by line; valid tasks
+ * are handed to ScheduleManager.addAll in chunks, so memory use depends on the
+ * chunk size rather than on the input. If a chunk has a conflict, its tasks
+ * are added one at a time so only the conflicting ones are rejected.
+ *
+ * Imported tasks get new ids. Bad records are skipped and reported in the
+ * Result (the first MAX_ERRORS of them). Not thread-safe: use one importer
+ * per thread.
+ */
+public final class ScheduleImporter {
+    private static final Logger logger = Logger.getLogger(ScheduleImporter.class.getName());
+
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+    public static final int DEFAULT_CHUNK_SIZE = 10_000;
+    static final int MAX_ERRORS = 100;
+
+    /** Tasks added, records rejected, and why (first MAX_ERRORS, as "line N: message"). */
+    public record Result(long imported, long rejected, List<String> errors) {
+        public Result {
+            errors = List.copyOf(errors);
+        }
+    }
+
+    private final ByteBuffer bytes;
+    private final CharBuffer chars;
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();
+    private final int chunkSize;
+
+    // state of the current import
+    private ScheduleManager target;
+    private final List<Task> chunk = new ArrayList<>();
+    private final List<Long> chunkLines = new ArrayList<>();
+    private final List<String> errors = new ArrayList<>();
+    private long imported;
+    private long rejected;
+
+    public ScheduleImporter() {
+        this(DEFAULT_BUFFER_SIZE, DEFAULT_CHUNK_SIZE);
+    }
+
+    public ScheduleImporter(int bufferSize, int chunkSize) {
+        if (bufferSize < 64) throw new IllegalArgumentException("bufferSize must be at least 64 bytes");
+        if (chunkSize <= 0) throw new IllegalArgumentException("chunkSize must be positive");
+        this.bytes = ByteBuffer.allocateDirect(bufferSize);
+        this.chars = CharBuffer.allocate(bufferSize);
+        this.chunkSize = chunkSize;
+    }
+
+    /** Add every valid record read from channel (until end of stream) to schedule. The channel is not closed. */
+    public Result importInto(ScheduleManager schedule, ScheduleFormat format, ReadableByteChannel channel)
+            throws IOException {
+        Objects.requireNonNull(schedule, "schedule cannot be null");
+        Objects.requireNonNull(format, "format cannot be null");
+        Objects.requireNonNull(channel, "channel cannot be null");
+        target = schedule;
+        imported = 0;
+        rejected = 0;
+        try {
+            LineParser parser = format == ScheduleFormat.CSV ? new CsvParser()
+                    : format == ScheduleFormat.JSON_LINES ? new JsonLinesParser() : new ICalendarParser();
+            readLines(channel, parser);
+            parser.end();
+            flushChunk();
+            logger.log(Level.INFO, "Imported {0} task(s), rejected {1}", new Object[] {imported, rejected});
+            return new Result(imported, rejected, errors);
+        } finally {
+            target = null;
+            chunk.clear();
+            chunkLines.clear();
+            errors.clear();
+        }
+    }
+
+    // ---- decoding ----
+
+    private interface LineParser {
+        void line(String line, long lineNo);
+
+        default void end() {
+        }
+    }
+
+    // Decode channel through the reused buffers and pass each line (without its terminator) to parser
+    private void readLines(ReadableByteChannel channel, LineParser parser) throws IOException {
+        bytes.clear();
+        chars.clear();
+        decoder.reset();
+        StringBuilder line = new StringBuilder(256);
+        long lineNo = 0;
+        boolean eof = false;
+        while (!eof) {
+            eof = channel.read(bytes) < 0;
+            bytes.flip();
+            CoderResult result = decoder.decode(bytes, chars, eof);
+            if (result.isError()) result.throwException();
+            if (eof) decoder.flush(chars);
+            bytes.compact();
+            chars.flip();
+            while (chars.hasRemaining()) {
+                char c = chars.get();
+                if (c == '\n') {
+                    int len = line.length();
+                    if (len > 0 && line.charAt(len - 1) == '\r') line.setLength(len - 1);
+                    parser.line(line.toString(), ++lineNo);
+                    line.setLength(0);
+                } else {
+                    line.append(c);
+                }
+            }
+            chars.clear();
+        }
+        if (line.length() > 0) parser.line(line.toString(), ++lineNo);
+    }
+
+    // ---- records ----
+
+    // Validate one record and queue the task for the next addAll
+    private void record(long lineNo, String description, String start, String end, String priority,
+                        boolean completed, List<String> resources) {
+        if (description == null || description.isBlank()) {
+            error(lineNo, "Description cannot be empty.");
+            return;
+        }
+        LocalTime from = TimeParser.parse(start);
+        LocalTime to = end != null && end.trim().equals("24:00") ? LocalTime.MAX : TimeParser.parse(end);
+        if (from == null || to == null) {
+            error(lineNo, "Invalid time format. Expected HH:mm (e.g., 07:00).");
+            return;
+        }
+        if (!from.isBefore(to)) {
+            error(lineNo, "Start time must be before end time.");
+            return;
+        }
+        Task t = new Task(description.trim(), from, to, Priority.fromString(priority), resources);
+        chunk.add(completed ? t.asCompleted() : t);
+        chunkLines.add(lineNo);
+        if (chunk.size() >= chunkSize) flushChunk();
+    }
+
+    private void flushChunk() {
+        if (chunk.isEmpty()) return;
+        try {
+            target.addAll(chunk);
+            imported += chunk.size();
+        } catch (TaskConflictException e) {
+            // fall back to one at a time to find out which records conflict
+            for (int i = 0; i < chunk.size(); i++) {
+                try {
+                    target.addTask(chunk.get(i));
+                    imported++;
+                } catch (TaskConflictException conflict) {
+                    error(chunkLines.get(i), conflict.getMessage());
+                }
+            }
+        }
+        chunk.clear();
+        chunkLines.clear();
+    }
+
+    private void error(long lineNo, String message) {
+        rejected++;
+        if (errors.size() < MAX_ERRORS) errors.add("line " + lineNo + ": " + message);
+    }
+
+    // ---- formats ----
+
+    /** RFC 4180 CSV with a header row naming the columns; quoted fields may span lines. */
+    private final class CsvParser implements LineParser {
+        private Map<String, Integer> columns;
+        private final StringBuilder pending = new StringBuilder();
+        private long pendingLine;
+        private boolean inQuotes;
+
+        @Override
+        public void line(String line, long lineNo) {
+            if (pending.length() == 0) {
+                if (line.isBlank()) return;
+                pendingLine = lineNo;
+            } else {
+                pending.append('\n');
+            }
+            pending.append(line);
+            for (int i = 0; i < line.length(); i++) {
+                if (line.charAt(i) == '"') inQuotes = !inQuotes;
+            }
+            if (inQuotes) return; // the record continues on the next line
+            List<String> fields = fields(pending);
+            pending.setLength(0);
+            if (columns == null) {
+                header(fields, pendingLine);
+            } else {
+                row(fields, pendingLine);
+            }
+        }
+
+        @Override
+        public void end() {
+            if (pending.length() > 0) error(pendingLine, "Unterminated quoted field");
+        }
+
+        private void header(List<String> fields, long lineNo) {
+            columns = new HashMap<>();
+            for (int i = 0; i < fields.size(); i++) columns.put(fields.get(i).trim().toLowerCase(Locale.ROOT), i);
+            for (String required : new String[] {"description", "start", "end"}) {
+                if (!columns.containsKey(required)) {
+                    throw new IllegalArgumentException("CSV header on line " + lineNo + " has no " + required
+                            + " column");
+                }
+            }
+        }
+
+        private void row(List<String> fields, long lineNo) {
+            String resources = get(fields, "resources");
+            record(lineNo, get(fields, "description"), get(fields, "start"), get(fields, "end"),
+                    get(fields, "priority"), Boolean.parseBoolean(trim(get(fields, "completed"))),
+                    resources == null ? Collections.emptyList() : Arrays.asList(resources.split(";")));
+        }
+
+        private String get(List<String> fields, String column) {
+            Integer i = columns.get(column);
+            return i == null || i >= fields.size() ? null : fields.get(i);
+        }
+
+        private List<String> fields(CharSequence record) {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < record.length(); i++) {
+                char c = record.charAt(i);
+                if (quoted) {
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+
+    /** One JSON object per line with the fields the HTTP API uses. */
+    private final class JsonLinesParser implements LineParser {
+        @Override
+        public void line(String line, long lineNo) {
+            if (line.isBlank()) return;
+            Object parsed;
+            try {
+                parsed = Json.parse(line);
+            } catch (IllegalArgumentException e) {
+                error(lineNo, e.getMessage());
+                return;
+            }
+            if (!(parsed instanceof Map)) {
+                error(lineNo, "Expected a JSON object");
+                return;
+            }
+            Map<?, ?> o = (Map<?, ?>) parsed;
+            List<String> resources = new ArrayList<>();
+            if (o.get("resources") instanceof List) {
+                for (Object r : (List<?>) o.get("resources")) {
+                    if (r instanceof String) resources.add((String) r);
+                }
+            }
+            record(lineNo, string(o, "description"), string(o, "start"), string(o, "end"), string(o, "priority"),
+                    Boolean.TRUE.equals(o.get("completed")), resources);
+        }
+
+        private String string(Map<?, ?> o, String field) {
+            Object v = o.get(field);
+            return v instanceof String ? (String) v : null;
+        }
+    }
+
+    /**
+     * VEVENTs of an iCalendar stream. Only the time of day of DTSTART/DTEND is
+     * used (an event ending at midnight the next day ends at LocalTime.MAX);
+     * PRIORITY 1-4 is High, 6-9 Low, anything else Medium.
+     */
+    private final class ICalendarParser implements LineParser {
+        private String unfolded;
+        private long unfoldedLine;
+        // current VEVENT, or inEvent false outside one
+        private boolean inEvent;
+        private long eventLine;
+        private String summary;
+        private String start;
+        private String end;
+        private String priority;
+        private boolean completed;
+        private List<String> resources;
+
+        @Override
+        public void line(String line, long lineNo) {
+            if (!line.isEmpty() && (line.charAt(0) == ' ' || line.charAt(0) == '\t')) {
+                if (unfolded != null) unfolded += line.substring(1);
+                return;
+            }
+            if (unfolded != null) property(unfolded, unfoldedLine);
+            unfolded = line;
+            unfoldedLine = lineNo;
+        }
+
+        @Override
+        public void end() {
+            if (unfolded != null) property(unfolded, unfoldedLine);
+            if (inEvent) error(eventLine, "VEVENT is missing END:VEVENT");
+        }
+
+        private void property(String line, long lineNo) {
+            int colon = line.indexOf(':');
+            if (colon < 0) return;
+            int semicolon = line.indexOf(';');
+            String name = line.substring(0, semicolon >= 0 && semicolon < colon ? semicolon : colon)
+                    .toUpperCase(Locale.ROOT);
+            String value = line.substring(colon + 1);
+            if (name.equals("BEGIN") && value.equalsIgnoreCase("VEVENT")) {
+                inEvent = true;
+                eventLine = lineNo;
+                summary = start = end = priority = null;
+                completed = false;
+                resources = new ArrayList<>();
+                return;
+            }
+            if (!inEvent) return;
+            switch (name) {
+                case "END":
+                    if (value.equalsIgnoreCase("VEVENT")) {
+                        inEvent = false;
+                        event();
+                    }
+                    break;
+                case "SUMMARY":
+                    summary = unescape(value);
+                    break;
+                case "DTSTART":
+                    start = value;
+                    break;
+                case "DTEND":
+                    end = value;
+                    break;
+                case "PRIORITY":
+                    priority = value.trim();
+                    break;
+                case "RESOURCES":
+                    for (String r : splitList(value)) resources.add(r);
+                    break;
+                case ScheduleExporter.COMPLETED_PROPERTY:
+                    completed = value.trim().equalsIgnoreCase("TRUE");
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private void event() {
+            String from = time(start);
+            String to = time(end);
+            if (to != null && to.equals("00:00:00") && !date(end).equals(date(start))) to = "24:00";
+            record(eventLine, summary, from, to, priority(priority), completed, resources);
+        }
+
+        // "HH:mm:ss" from "yyyyMMddTHHmmss[Z]", or null (e.g. an all-day event)
+        private String time(String dateTime) {
+            if (dateTime == null) return null;
+            int t = dateTime.indexOf('T');
+            if (t < 0 || dateTime.length() < t + 7) return null;
+            String hms = dateTime.substring(t + 1, t + 7);
+            return hms.substring(0, 2) + ":" + hms.substring(2, 4) + ":" + hms.substring(4, 6);
+        }
+
+        private String date(String dateTime) {
+            int t = dateTime == null ? -1 : dateTime.indexOf('T');
+            return t < 0 ? "" : dateTime.substring(0, t);
+        }
+
+        private String priority(String value) {
+            if (value == null) return null;
+            try {
+                int p = Integer.parseInt(value);
+                return p >= 1 && p <= 4 ? "High" : p >= 6 && p <= 9 ? "Low" : "Medium";
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        // split a TEXT list on commas that are not escaped, unescaping each item
+        private List<String> splitList(String value) {
+            List<String> items = new ArrayList<>();
+            int from = 0;
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '\\') {
+                    i++;
+                } else if (c == ',') {
+                    items.add(unescape(value.substring(from, i)));
+                    from = i + 1;
+                }
+            }
+            items.add(unescape(value.substring(from)));
+            return items;
+        }
+
+        private String unescape(String value) {
+            if (value.indexOf('\\') < 0) return value;
+            StringBuilder sb = new StringBuilder(value.length());
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '\\' && i + 1 < value.length()) {
+                    char next = value.charAt(++i);
+                    sb.append(next == 'n' || next == 'N' ? '\n' : next);
+                } else {
+                    sb.append(c);
+                }
+            }
+            return sb.toString();
+        }
+    }
+
+    private static String trim(String s) {
+        return s == null ? null : s.trim();
+    }
+}
@@ -0,0 +1,147 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.ErrorManager;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+/**
+ * Handler that queues records in a bounded buffer and lets a background thread
+ * hand them to the real handlers in batches, flushing once per batch. Logging
+ * threads never wait for formatting or disk I/O; when the buffer is full the
+ * record is dropped and counted instead of blocking the caller.
+ * <p>
+ * Only the writer thread touches the target handlers until close() has stopped
+ * it; flush() queues a request behind the pending records and waits for the
+ * writer to reach it.
+ */
+public class AsyncLogHandler extends Handler {
+    private static final int MAX_BATCH = 512;
+
+    private final Handler[] targets;
+    private final BlockingQueue<LogRecord> buffer;
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread writer;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    /** Marker queued by flush(); released once everything ahead of it is written. */
+    private static final class FlushRequest extends LogRecord {
+        final CountDownLatch done = new CountDownLatch(1);
+
+        FlushRequest() {
+            super(Level.OFF, null);
+        }
+    }
+
+    public AsyncLogHandler(int capacity, Handler... targets) {
+        this.targets = targets.clone();
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.writer = new Thread(this::drainLoop, "async-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void publish(LogRecord record) {
+        if (closed.get() || !isLoggable(record)) return;
+        // The writer thread cannot work out the caller from its own stack, so name the
+        // logger as the source instead of paying for a stack walk here.
+        record.setSourceClassName(record.getLoggerName());
+        record.setSourceMethodName(null);
+        if (!buffer.offer(record)) dropped.incrementAndGet();
+    }
+
+    /** Records discarded because the buffer was full. */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    private void drainLoop() {
+        List<LogRecord> batch = new ArrayList<>(MAX_BATCH);
+        while (true) {
+            try {
+                LogRecord first = buffer.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (closed.get()) return;
+                    continue;
+                }
+                batch.add(first);
+                buffer.drainTo(batch, MAX_BATCH - 1);
+                write(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void write(List<LogRecord> batch) {
+        List<FlushRequest> requests = new ArrayList<>();
+        for (Iterator<LogRecord> it = batch.iterator(); it.hasNext(); ) {
+            LogRecord r = it.next();
+            if (r instanceof FlushRequest) {
+                requests.add((FlushRequest) r);
+                it.remove();
+            }
+        }
+        long lost = dropped.getAndSet(0);
+        if (lost > 0) {
+            batch.add(new LogRecord(Level.WARNING, lost + " log record(s) dropped: async log buffer full"));
+        }
+        for (Handler h : targets) {
+            try {
+                for (LogRecord r : batch) h.publish(r);
+                h.flush();
+            } catch (RuntimeException e) {
+                reportError("Log target failed", e, ErrorManager.WRITE_FAILURE);
+            }
+        }
+        for (FlushRequest r : requests) r.done.countDown();
+    }
+
+    /** Wait until the writer thread has written out everything queued so far. */
+    @Override
+    public void flush() {
+        FlushRequest request = new FlushRequest();
+        try {
+            while (!buffer.offer(request, 100, TimeUnit.MILLISECONDS)) {
+                if (closed.get()) return;
+            }
+            // once the writer has stopped, close() writes out whatever it left behind
+            while (!request.done.await(100, TimeUnit.MILLISECONDS)) {
+                if (closed.get() && !writer.isAlive()) return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Stop the writer, write out what is left, then close the target handlers. Safe to call twice. */
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) return;
+        try {
+            writer.join(1000);
+            if (writer.isAlive()) {
+                writer.interrupt();
+                writer.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // the writer has exited, so this thread is now the only one using the targets
+        List<LogRecord> rest = new ArrayList<>();
+        buffer.drainTo(rest);
+        write(rest);
+        for (Handler h : targets) h.close();
+    }
+}
@@ -0,0 +1,111 @@
+package util;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram for always-on instrumentation. Values (nanoseconds)
+ * go into log-linear buckets: exact below 16ns, then four buckets per power of
+ * two, so a percentile read back is within 25% of the real value. Every bucket
+ * is a LongAdder, so recording from many threads never contends on one counter.
+ * Buckets are created the first time a value lands in them: latencies of one
+ * operation cover a few dozen of them, so an idle or lightly used histogram
+ * (one per operation per schedule partition) stays small.
+ */
+public final class LatencyHistogram {
+    private static final int LINEAR = 16;      // values below this get a bucket each
+    private static final int SUB_BUCKETS = 4;  // buckets per power of two above that
+    private static final int BUCKETS = LINEAR + (64 - 4) * SUB_BUCKETS;
+
+    private final AtomicReferenceArray<LongAdder> buckets = new AtomicReferenceArray<>(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+    }
+
+    /** Record the time elapsed since a System.nanoTime() reading. */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        adder(bucket(nanos)).increment();
+        count.increment();
+        total.add(nanos);
+        max.accumulate(nanos);
+    }
+
+    private LongAdder adder(int i) {
+        LongAdder b = buckets.get(i);
+        if (b == null) {
+            b = new LongAdder();
+            if (!buckets.compareAndSet(i, null, b)) b = buckets.get(i);
+        }
+        return b;
+    }
+
+    static int bucket(long v) {
+        if (v < LINEAR) return (int) v;
+        int exp = 63 - Long.numberOfLeadingZeros(v); // >= 4
+        int sub = (int) (v >>> (exp - 2)) & (SUB_BUCKETS - 1);
+        return LINEAR + (exp - 4) * SUB_BUCKETS + sub;
+    }
+
+    // largest value that falls into bucket i
+    static long upperBound(int i) {
+        if (i < LINEAR) return i;
+        int exp = (i - LINEAR) / SUB_BUCKETS + 4;
+        int sub = (i - LINEAR) % SUB_BUCKETS;
+        long base = 1L << exp;
+        long width = base / SUB_BUCKETS;
+        return base + (sub + 1) * width - 1;
+    }
+
+    /**
+     * Point-in-time summary. Not atomic with concurrent recording, so the counts
+     * may be off by the few records that land while it is being read.
+     */
+    public LatencyStats snapshot() {
+        long[] counts = new long[BUCKETS];
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            LongAdder b = buckets.get(i);
+            counts[i] = b == null ? 0 : b.sum();
+            n += counts[i];
+        }
+        long maxNanos = max.get();
+        return new LatencyStats(n, total.sum(), percentile(counts, n, 0.50, maxNanos),
+                percentile(counts, n, 0.90, maxNanos), percentile(counts, n, 0.99, maxNanos),
+                percentile(counts, n, 0.999, maxNanos), maxNanos);
+    }
+
+    private static long percentile(long[] counts, long n, double p, long maxNanos) {
+        if (n == 0) return 0;
+        long rank = (long) Math.ceil(p * n);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(upperBound(i), maxNanos);
+        }
+        return maxNanos;
+    }
+
+    /** Number of values recorded since creation or the last reset(). */
+    public long count() {
+        return count.sum();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            LongAdder b = buckets.get(i);
+            if (b != null) b.reset();
+        }
+        count.reset();
+        total.reset();
+        max.reset();
+    }
+}
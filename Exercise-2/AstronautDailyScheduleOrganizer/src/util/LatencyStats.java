@@ -0,0 +1,47 @@
+package util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Immutable summary of a LatencyHistogram, in nanoseconds. Plain getters so an
+ * MXBean can expose it as CompositeData.
+ */
+public final class LatencyStats {
+    private final long count;
+    private final long totalNanos;
+    private final long p50Nanos;
+    private final long p90Nanos;
+    private final long p99Nanos;
+    private final long p999Nanos;
+    private final long maxNanos;
+
+    public LatencyStats(long count, long totalNanos, long p50Nanos, long p90Nanos, long p99Nanos,
+                        long p999Nanos, long maxNanos) {
+        this.count = count;
+        this.totalNanos = totalNanos;
+        this.p50Nanos = p50Nanos;
+        this.p90Nanos = p90Nanos;
+        this.p99Nanos = p99Nanos;
+        this.p999Nanos = p999Nanos;
+        this.maxNanos = maxNanos;
+    }
+
+    public long getCount() { return count; }
+    public long getTotalNanos() { return totalNanos; }
+    public long getMeanNanos() { return count == 0 ? 0 : totalNanos / count; }
+    public long getP50Nanos() { return p50Nanos; }
+    public long getP90Nanos() { return p90Nanos; }
+    public long getP99Nanos() { return p99Nanos; }
+    public long getP999Nanos() { return p999Nanos; }
+    public long getMaxNanos() { return maxNanos; }
+
+    @Override
+    public String toString() {
+        return String.format("count=%d mean=%dus p50=%dus p99=%dus max=%dus", count,
+                micros(getMeanNanos()), micros(p50Nanos), micros(p99Nanos), micros(maxNanos));
+    }
+
+    private static long micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+}
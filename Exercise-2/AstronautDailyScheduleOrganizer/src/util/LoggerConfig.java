@@ -1,13 +1,21 @@
 package util;
 
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.logging.*;
 
 /**
  * Configure logging for the application (console + file).
+ * By default records go through an AsyncLogHandler so logging never adds disk
+ * latency to schedule operations; run with -Dschedule.log.async=false for the
+ * plain synchronous handlers.
  */
 public final class LoggerConfig {
     private static final Logger root = Logger.getLogger("");
+    private static final int ASYNC_BUFFER = 8192;
+    private static final int FILE_BUFFER = 1 << 16;
+    private static Handler console;
 
     static {
         setup();
@@ -15,6 +23,16 @@ public final class LoggerConfig {
 
     private LoggerConfig() {}
 
+    /** Make sure logging is configured; safe to call more than once. */
+    public static void init() {
+        // the work happens once, in the static initializer
+    }
+
+    /** Change the threshold of the console handler; the log file still gets everything. */
+    public static synchronized void setConsoleLevel(Level level) {
+        if (console != null) console.setLevel(level);
+    }
+
     private static void setup() {
         // Remove default handlers
         Handler[] handlers = root.getHandlers();
@@ -22,11 +40,22 @@ public final class LoggerConfig {
             root.removeHandler(h);
         }
 
+        if (Boolean.parseBoolean(System.getProperty("schedule.log.async", "true"))) {
+            setupAsync();
+        } else {
+            setupSync();
+        }
+
+        root.setLevel(Level.ALL);
+    }
+
+    private static void setupSync() {
         // Console handler
         ConsoleHandler consoleHandler = new ConsoleHandler();
         consoleHandler.setLevel(Level.INFO);
         consoleHandler.setFormatter(new SimpleFormatter());
         root.addHandler(consoleHandler);
+        console = consoleHandler;
 
         // File handler (app.log)
         try {
@@ -37,7 +66,28 @@ public final class LoggerConfig {
         } catch (IOException e) {
             root.log(Level.WARNING, "Failed to create log file handler", e);
         }
+    }
 
-        root.setLevel(Level.ALL);
+    private static void setupAsync() {
+        // Plain stream handlers only flush when asked, so the async writer
+        // flushes each of them once per batch rather than once per record.
+        console = new StreamHandler(System.err, new SimpleFormatter());
+        console.setLevel(Level.INFO);
+
+        StreamHandler file = null;
+        try {
+            file = new StreamHandler(new BufferedOutputStream(new FileOutputStream("app.log", true), FILE_BUFFER),
+                    new SimpleFormatter());
+            file.setLevel(Level.ALL);
+        } catch (IOException e) {
+            root.log(Level.WARNING, "Failed to create log file handler", e);
+        }
+
+        AsyncLogHandler async = file == null
+                ? new AsyncLogHandler(ASYNC_BUFFER, console)
+                : new AsyncLogHandler(ASYNC_BUFFER, console, file);
+        async.setLevel(Level.ALL);
+        root.addHandler(async);
+        Runtime.getRuntime().addShutdownHook(new Thread(async::close, "async-log-shutdown"));
     }
 }
@@ -0,0 +1,72 @@
+package util;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread factories that use virtual threads when the runtime has them (JDK 21+)
+ * and fall back to daemon platform threads otherwise, so the code still runs on JDK 17.
+ */
+public final class VirtualThreads {
+    // Thread.ofVirtual(), Thread.Builder.name(String, long), Thread.Builder.factory()
+    private static final Method[] BUILDER = lookupBuilder();
+
+    private VirtualThreads() {}
+
+    private static Method[] lookupBuilder() {
+        try {
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            return new Method[] {
+                    Thread.class.getMethod("ofVirtual"),
+                    builder.getMethod("name", String.class, long.class),
+                    builder.getMethod("factory")
+            };
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    public static boolean isAvailable() {
+        return BUILDER != null;
+    }
+
+    /** Factory for threads named prefix-0, prefix-1, ... */
+    public static ThreadFactory factory(String prefix) {
+        if (BUILDER != null) {
+            try {
+                Object builder = BUILDER[0].invoke(null);
+                builder = BUILDER[1].invoke(builder, prefix + "-", 0L);
+                return (ThreadFactory) BUILDER[2].invoke(builder);
+            } catch (ReflectiveOperationException ignored) {
+                // fall through to platform threads
+            }
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + "-" + counter.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    /**
+     * Executor that runs each task on its own virtual thread, or on a cached
+     * pool of daemon threads when virtual threads are unavailable.
+     */
+    public static ExecutorService newThreadPerTaskExecutor(String prefix) {
+        ThreadFactory factory = factory(prefix);
+        if (BUILDER != null) {
+            try {
+                return (ExecutorService) Executors.class
+                        .getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                        .invoke(null, factory);
+            } catch (ReflectiveOperationException ignored) {
+                // fall through to a cached pool
+            }
+        }
+        return Executors.newCachedThreadPool(factory);
+    }
+}